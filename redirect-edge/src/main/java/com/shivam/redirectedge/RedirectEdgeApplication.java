@@ -0,0 +1,13 @@
+package com.shivam.redirectedge;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class RedirectEdgeApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(RedirectEdgeApplication.class, args);
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.shivam.redirectedge.advices;
+
+import com.shivam.redirectedge.exceptions.ExpiredShortCodeException;
+import com.shivam.redirectedge.exceptions.ShortCodeNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(ShortCodeNotFoundException.class)
+    public ResponseEntity<String> handleNotFound(Exception ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(ExpiredShortCodeException.class)
+    public ResponseEntity<String> handleIllegalState(Exception ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.GONE);
+    }
+}
@@ -0,0 +1,35 @@
+package com.shivam.redirectedge.caches;
+
+// Same Redis value format as the main service's CachedShortUrl, "1|id|expiresAt|ownerId|originalUrl",
+// so both deployments read and write each other's entries. Keep the two in step.
+public record CachedShortUrl(long id, String originalUrl, long expiresAt, long ownerId) {
+
+    private static final String VERSION = "1";
+    private static final char SEPARATOR = '|';
+
+    public boolean isExpired() {
+        return expiresAt <= System.currentTimeMillis();
+    }
+
+    public long ttlMillis() {
+        return expiresAt - System.currentTimeMillis();
+    }
+
+    public String encode() {
+        return VERSION + SEPARATOR + id + SEPARATOR + expiresAt + SEPARATOR + ownerId + SEPARATOR + originalUrl;
+    }
+
+    // Returns null for values written in an older or unknown format so callers treat them as a miss
+    public static CachedShortUrl decode(String value) {
+        if (value == null) return null;
+
+        String[] parts = value.split("\\|", 5);
+        if (parts.length != 5 || !VERSION.equals(parts[0])) return null;
+
+        try {
+            return new CachedShortUrl(Long.parseLong(parts[1]), parts[4], Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.shivam.redirectedge.controllers;
+
+import com.shivam.redirectedge.services.IRedirectService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+@RestController
+public class RedirectController {
+
+    private final IRedirectService redirectService;
+
+    public RedirectController(IRedirectService redirectService) {
+        this.redirectService = redirectService;
+    }
+
+    @GetMapping("/{shortCode:[A-Za-z0-9_-]+}")
+    public Mono<ResponseEntity<Void>> redirectToOriginalUrl(@PathVariable String shortCode, ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String ipAddress = remoteAddress != null && remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress() : null;
+        String userAgent = request.getHeaders().getFirst(HttpHeaders.USER_AGENT);
+        String referrer = request.getHeaders().getFirst(HttpHeaders.REFERER);
+
+        return redirectService.redirect(shortCode, ipAddress, userAgent, referrer)
+                .map(originalUrl -> ResponseEntity.status(HttpStatus.FOUND).header(HttpHeaders.LOCATION, originalUrl).<Void>build());
+    }
+}
@@ -0,0 +1,7 @@
+package com.shivam.redirectedge.exceptions;
+
+public class ExpiredShortCodeException extends RuntimeException {
+    public ExpiredShortCodeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.shivam.redirectedge.exceptions;
+
+public class ShortCodeNotFoundException extends RuntimeException {
+    public ShortCodeNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,44 @@
+package com.shivam.redirectedge.repositories;
+
+import com.shivam.redirectedge.caches.CachedShortUrl;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Reads the main service's short_urls table; state is stored as the State enum ordinal
+@Repository
+public class ShortUrlR2dbcRepository {
+
+    private static final int ACTIVE_STATE = 0;
+    private static final int EXPIRED_STATE = 2;
+
+    private final DatabaseClient databaseClient;
+
+    public ShortUrlR2dbcRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    // Rows the reaper marked expired are read too; their expires_at has passed, so they answer "expired"
+    public Mono<CachedShortUrl> findActiveByShortCode(String shortCode) {
+        return databaseClient.sql("SELECT id, original_url, expires_at, user_id FROM short_urls " +
+                        "WHERE short_code = :shortCode AND state IN (:active, :expired)")
+                .bind("shortCode", shortCode)
+                .bind("active", ACTIVE_STATE)
+                .bind("expired", EXPIRED_STATE)
+                .map(row -> new CachedShortUrl(
+                        row.get("id", Long.class),
+                        row.get("original_url", String.class),
+                        toEpochMillis(row.get("expires_at", LocalDateTime.class)),
+                        row.get("user_id", Long.class)))
+                .one();
+    }
+
+    // The main service writes expires_at from java.util.Date in the JVM's zone
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        if (dateTime == null) return Long.MAX_VALUE;
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,7 @@
+package com.shivam.redirectedge.services;
+
+import reactor.core.publisher.Mono;
+
+public interface IRedirectService {
+    Mono<String> redirect(String shortCode, String ipAddress, String userAgent, String referrer);
+}
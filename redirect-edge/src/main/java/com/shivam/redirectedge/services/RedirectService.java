@@ -0,0 +1,110 @@
+package com.shivam.redirectedge.services;
+
+import com.shivam.redirectedge.caches.CachedShortUrl;
+import com.shivam.redirectedge.exceptions.ExpiredShortCodeException;
+import com.shivam.redirectedge.exceptions.ShortCodeNotFoundException;
+import com.shivam.redirectedge.repositories.ShortUrlR2dbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// Same flow as the main service's LUA redirect mode: one script call resolves the code
+// and appends the click to the click stream. On a Redis miss the link is read
+// through R2DBC, cached, and the click is streamed separately. The main service's
+// ClickStreamConsumer drains the stream into click_events.
+@Service
+public class RedirectService implements IRedirectService {
+
+    public static final String STREAM_KEY = "clicks:stream";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedirectService.class);
+    private static final RedisScript<String> REDIRECT_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/redirect.lua"), String.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ShortUrlR2dbcRepository shortUrlRepository;
+    private final long streamMaxLength;
+
+    public RedirectService(ReactiveStringRedisTemplate redisTemplate, ShortUrlR2dbcRepository shortUrlRepository,
+                           @Value("${shortener.clicks.stream.max-length:1000000}") long streamMaxLength) {
+        this.redisTemplate = redisTemplate;
+        this.shortUrlRepository = shortUrlRepository;
+        this.streamMaxLength = streamMaxLength;
+    }
+
+    @Override
+    public Mono<String> redirect(String shortCode, String ipAddress, String userAgent, String referrer) {
+        String now = String.valueOf(System.currentTimeMillis());
+        List<String> args = List.of(shortCode, nullToEmpty(ipAddress), nullToEmpty(userAgent), nullToEmpty(referrer),
+                now, String.valueOf(streamMaxLength));
+
+        return redisTemplate.execute(REDIRECT_SCRIPT, List.of(shortCode, STREAM_KEY), args)
+                .next()
+                .flatMap(value -> fromScriptResult(shortCode, value))
+                .switchIfEmpty(Mono.defer(() -> loadFromDatabase(shortCode)
+                        .flatMap(cachedShortUrl -> cacheInRedis(shortCode, cachedShortUrl)
+                                .then(recordClick(cachedShortUrl, args))
+                                .thenReturn(cachedShortUrl.originalUrl()))));
+    }
+
+    private Mono<String> fromScriptResult(String shortCode, String value) {
+        CachedShortUrl cachedShortUrl = CachedShortUrl.decode(value);
+
+        // Value in an older format: the script has already streamed the click, so only resolve
+        if (cachedShortUrl == null) return loadFromDatabase(shortCode).map(CachedShortUrl::originalUrl);
+
+        if (cachedShortUrl.isExpired()) return Mono.error(new ExpiredShortCodeException("Short URL has expired"));
+
+        return Mono.just(cachedShortUrl.originalUrl());
+    }
+
+    private Mono<CachedShortUrl> loadFromDatabase(String shortCode) {
+        return shortUrlRepository.findActiveByShortCode(shortCode)
+                .switchIfEmpty(Mono.error(() -> new ShortCodeNotFoundException("Short URL does not exist or deleted")))
+                .flatMap(cachedShortUrl -> cachedShortUrl.isExpired()
+                        ? Mono.error(new ExpiredShortCodeException("Short URL has expired"))
+                        : Mono.just(cachedShortUrl));
+    }
+
+    // A failed cache write only costs the next request another database read
+    private Mono<Void> cacheInRedis(String shortCode, CachedShortUrl cachedShortUrl) {
+        return redisTemplate.opsForValue()
+                .set(shortCode, cachedShortUrl.encode(), Duration.ofMillis(cachedShortUrl.ttlMillis()))
+                .onErrorResume(ex -> {
+                    LOGGER.warn("Could not cache short code {}", shortCode, ex);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    // Same stream fields the script writes; losing a click beats failing the redirect
+    private Mono<Void> recordClick(CachedShortUrl cachedShortUrl, List<String> args) {
+        String shortCode = args.get(0);
+        Map<String, String> fields = Map.of("code", shortCode, "entry", cachedShortUrl.encode(),
+                "ip", args.get(1), "ua", args.get(2), "ref", args.get(3), "ts", args.get(4));
+
+        return redisTemplate.opsForStream()
+                .add(StreamRecords.string(fields).withStreamKey(STREAM_KEY),
+                        XAddOptions.maxlen(streamMaxLength).approximateTrimming(true))
+                .onErrorResume(ex -> {
+                    LOGGER.warn("Could not record click for {}", shortCode, ex);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
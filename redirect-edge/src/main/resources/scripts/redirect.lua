@@ -0,0 +1,16 @@
+-- KEYS[1] short code key, KEYS[2] click stream
+-- ARGV[1] short code, ARGV[2] ip, ARGV[3] user agent, ARGV[4] referrer, ARGV[5] now (epoch ms), ARGV[6] stream max length
+local value = redis.call('GET', KEYS[1])
+if not value then
+    return false
+end
+
+-- Expired links are returned untouched so the caller can answer 410 without recording a click
+local expiresAt = tonumber(string.match(value, '^1|%-?%d+|(%d+)|'))
+if expiresAt and expiresAt <= tonumber(ARGV[5]) then
+    return value
+end
+
+redis.call('XADD', KEYS[2], 'MAXLEN', '~', ARGV[6], '*',
+        'code', ARGV[1], 'entry', value, 'ip', ARGV[2], 'ua', ARGV[3], 'ref', ARGV[4], 'ts', ARGV[5])
+return value
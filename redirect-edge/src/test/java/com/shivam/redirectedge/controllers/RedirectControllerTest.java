@@ -0,0 +1,69 @@
+package com.shivam.redirectedge.controllers;
+
+import com.shivam.redirectedge.exceptions.ExpiredShortCodeException;
+import com.shivam.redirectedge.exceptions.ShortCodeNotFoundException;
+import com.shivam.redirectedge.services.IRedirectService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(RedirectController.class)
+public class RedirectControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private IRedirectService redirectService;
+
+    private final String shortCode = "ggle";
+    private final String originalUrl = "https://www.google.com";
+
+    @Test
+    @DisplayName("Should redirect to the original URL")
+    void test_Redirect_Success() {
+        when(redirectService.redirect(eq(shortCode), any(), any(), any())).thenReturn(Mono.just(originalUrl));
+
+        webTestClient.get().uri("/" + shortCode)
+                .header("User-Agent", "Mozilla/5.0")
+                .header("Referer", "https://news.ycombinator.com")
+                .exchange()
+                .expectStatus().isFound()
+                .expectHeader().valueEquals("Location", originalUrl);
+
+        verify(redirectService).redirect(eq(shortCode), any(), eq("Mozilla/5.0"), eq("https://news.ycombinator.com"));
+    }
+
+    @Test
+    @DisplayName("Should return 404 for an unknown short code")
+    void test_Redirect_NotFound() {
+        when(redirectService.redirect(eq(shortCode), any(), any(), any()))
+                .thenReturn(Mono.error(new ShortCodeNotFoundException("Short URL does not exist or deleted")));
+
+        webTestClient.get().uri("/" + shortCode)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("Short URL does not exist or deleted");
+    }
+
+    @Test
+    @DisplayName("Should return 410 for an expired short code")
+    void test_Redirect_Expired() {
+        when(redirectService.redirect(eq(shortCode), any(), any(), any()))
+                .thenReturn(Mono.error(new ExpiredShortCodeException("Short URL has expired")));
+
+        webTestClient.get().uri("/" + shortCode)
+                .exchange()
+                .expectStatus().isEqualTo(410)
+                .expectBody(String.class).isEqualTo("Short URL has expired");
+    }
+}
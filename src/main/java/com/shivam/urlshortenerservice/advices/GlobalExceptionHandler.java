@@ -14,7 +14,8 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
-    @ExceptionHandler({ShortCodeNotFoundException.class, RoleNotFoundException.class})
+    @ExceptionHandler({ShortCodeNotFoundException.class, RoleNotFoundException.class, ImportJobNotFoundException.class,
+            DeleteJobNotFoundException.class})
     public ResponseEntity<String> handleNotFound(Exception ex) {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
@@ -29,6 +30,11 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(AnalyticsUnavailableException.class)
+    public ResponseEntity<String> handleUnavailable(Exception ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleGeneric(Exception ex) {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
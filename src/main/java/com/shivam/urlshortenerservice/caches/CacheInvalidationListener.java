@@ -0,0 +1,45 @@
+package com.shivam.urlshortenerservice.caches;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+@Component
+public class CacheInvalidationListener implements MessageListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+    private final LocalShortUrlCache localCache;
+    private final ShortCodeFilter shortCodeFilter;
+
+    public CacheInvalidationListener(LocalShortUrlCache localCache, ShortCodeFilter shortCodeFilter) {
+        this.localCache = localCache;
+        this.shortCodeFilter = shortCodeFilter;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        String shortCode = new String(message.getBody(), StandardCharsets.UTF_8);
+        LOGGER.debug("Received {} for {}", channel, shortCode);
+
+        if (ShortCodeFilter.CREATED_CHANNEL.equals(channel)) {
+            // Batch creates announce several codes, one per line
+            for (String createdCode : shortCode.split("\n")) {
+                shortCodeFilter.addLocally(createdCode);
+            }
+        } else {
+            // Bulk deletes invalidate several codes, one per line, after a marker line for deletions
+            String[] invalidatedCodes = shortCode.split("\n");
+            boolean deleted = invalidatedCodes[0].equals(LocalShortUrlCache.DELETED_MARKER);
+            for (int i = deleted ? 1 : 0; i < invalidatedCodes.length; i++) {
+                localCache.invalidateLocally(invalidatedCodes[i]);
+                if (deleted) shortCodeFilter.markDeleted(invalidatedCodes[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.shivam.urlshortenerservice.caches;
+
+import com.shivam.urlshortenerservice.models.ShortUrl;
+
+// Everything the redirect and click logging need about a link, stored in Redis as
+// "1|id|expiresAt|ownerId|originalUrl". The url goes last so it may contain the separator.
+public record CachedShortUrl(long id, String originalUrl, long expiresAt, long ownerId) {
+
+    private static final String VERSION = "1";
+    private static final char SEPARATOR = '|';
+
+    public static CachedShortUrl from(ShortUrl shortUrl) {
+        return new CachedShortUrl(shortUrl.getId(), shortUrl.getOriginalUrl(),
+                shortUrl.getExpiresAt().getTime(), shortUrl.getCreatedBy().getId());
+    }
+
+    public boolean isExpired() {
+        return expiresAt <= System.currentTimeMillis();
+    }
+
+    public long ttlMillis() {
+        return expiresAt - System.currentTimeMillis();
+    }
+
+    public String encode() {
+        return VERSION + SEPARATOR + id + SEPARATOR + expiresAt + SEPARATOR + ownerId + SEPARATOR + originalUrl;
+    }
+
+    // Returns null for values written in an older or unknown format so callers treat them as a miss
+    public static CachedShortUrl decode(String value) {
+        if (value == null) return null;
+
+        String[] parts = value.split("\\|", 5);
+        if (parts.length != 5 || !VERSION.equals(parts[0])) return null;
+
+        try {
+            return new CachedShortUrl(Long.parseLong(parts[1]), parts[4], Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.shivam.urlshortenerservice.caches;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// In-process cache in front of Redis. Caffeine evicts by frequency (W-TinyLFU) so the
+// few hot links stay resident; an entry never outlives the link's own expiry.
+@Component
+public class LocalShortUrlCache {
+
+    public static final String INVALIDATION_CHANNEL = "short-url:invalidations";
+    // First line of an invalidation for deleted codes; a code with a slash can never be redirected to
+    public static final String DELETED_MARKER = "/deleted";
+
+    private final Cache<String, CachedShortUrl> cache;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker redisBreaker;
+
+    public LocalShortUrlCache(StringRedisTemplate redisTemplate, RedisCircuitBreaker redisBreaker,
+                              MeterRegistry meterRegistry,
+                              @Value("${shortener.cache.local.maximum-size:10000}") long maximumSize,
+                              @Value("${shortener.cache.local.max-ttl-seconds:60}") long maxTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.redisBreaker = redisBreaker;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new CappedExpiry(TimeUnit.SECONDS.toNanos(maxTtlSeconds)))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "redirect.local");
+    }
+
+    public CachedShortUrl get(String shortCode) {
+        return cache.getIfPresent(shortCode);
+    }
+
+    public void put(String shortCode, CachedShortUrl cachedShortUrl) {
+        if (cachedShortUrl.isExpired()) return;
+        cache.put(shortCode, cachedShortUrl);
+    }
+
+    // Drops the entry here and tells every other node to do the same; if Redis is down the
+    // message goes out on recovery, other nodes' copies expire after max-ttl-seconds meanwhile.
+    // Inside a transaction the message waits for the commit, or another node could reload the
+    // old row in between; the local entry is dropped again then for the same reason
+    public void invalidate(String shortCode) {
+        invalidateAll(List.of(shortCode), false);
+    }
+
+    // Same as invalidate for many codes, announced in a single newline separated message
+    public void invalidateAll(Collection<String> shortCodes) {
+        invalidateAll(shortCodes, false);
+    }
+
+    // For deleted links: the message also has every other node tombstone the codes, so they stop
+    // reaching MySQL through the Bloom filter, which cannot forget them
+    public void invalidateDeleted(Collection<String> shortCodes) {
+        invalidateAll(shortCodes, true);
+    }
+
+    private void invalidateAll(Collection<String> shortCodes, boolean deleted) {
+        if (shortCodes.isEmpty()) return;
+        cache.invalidateAll(shortCodes);
+        String codes = String.join("\n", shortCodes);
+        String message = deleted ? DELETED_MARKER + "\n" + codes : codes;
+        afterCommit(() -> {
+            cache.invalidateAll(shortCodes);
+            redisBreaker.writeCritical(INVALIDATION_CHANNEL + ":" + message.hashCode(),
+                    () -> redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message));
+        });
+    }
+
+    void invalidateLocally(String shortCode) {
+        cache.invalidate(shortCode);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record CappedExpiry(long maxTtlNanos) implements Expiry<String, CachedShortUrl> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedShortUrl value, long currentTime) {
+            long untilExpiry = TimeUnit.MILLISECONDS.toNanos(value.expiresAt() - System.currentTimeMillis());
+            return Math.max(0, Math.min(maxTtlNanos, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedShortUrl value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedShortUrl value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.shivam.urlshortenerservice.caches;
+
+import com.shivam.urlshortenerservice.utils.ThreadUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Guards Redis access so a degraded Redis costs at most the (short) command timeout for a
+// handful of calls instead of the whole redirect path. Trips when enough of the last calls
+// failed or were slow, stays open for a while, then lets a few probes through before closing.
+// Writes skipped in the meantime are kept per key (last write wins) and replayed on recovery,
+// and every replay-interval-ms while closed, so a write that failed on its own without tripping
+// the breaker (a lost delete would keep a removed link redirecting) is not parked for good.
+@Component
+public class RedisCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisCircuitBreaker.class);
+
+    private final long slowCallNanos;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationMillis;
+    private final int halfOpenProbes;
+    private final int maxPendingWrites;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private volatile long openedAt;
+    private final AtomicInteger probesStarted = new AtomicInteger();
+    private final AtomicInteger probesSucceeded = new AtomicInteger();
+
+    private final ReentrantLock windowLock = new ReentrantLock();
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int badCount;
+
+    private final Map<String, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+    private final AtomicBoolean replaying = new AtomicBoolean();
+    private final ScheduledExecutorService replayExecutor;
+
+    private final Counter notPermittedCounter;
+    private final Counter droppedWritesCounter;
+
+    public RedisCircuitBreaker(MeterRegistry meterRegistry,
+                               @Value("${shortener.redis.breaker.window-size:50}") int windowSize,
+                               @Value("${shortener.redis.breaker.minimum-calls:20}") int minimumCalls,
+                               @Value("${shortener.redis.breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                               @Value("${shortener.redis.breaker.slow-call-ms:50}") long slowCallMillis,
+                               @Value("${shortener.redis.breaker.open-duration-ms:5000}") long openDurationMillis,
+                               @Value("${shortener.redis.breaker.half-open-probes:5}") int halfOpenProbes,
+                               @Value("${shortener.redis.breaker.max-pending-writes:10000}") int maxPendingWrites,
+                               @Value("${shortener.redis.breaker.replay-interval-ms:1000}") long replayIntervalMillis,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.openDurationMillis = openDurationMillis;
+        this.halfOpenProbes = halfOpenProbes;
+        this.maxPendingWrites = maxPendingWrites;
+        this.replayExecutor = Executors.newSingleThreadScheduledExecutor(ThreadUtils.newThreadFactory("redis-replay-", virtualThreads));
+        this.replayExecutor.scheduleWithFixedDelay(() -> {
+            if (isClosed()) replayPendingWrites();
+        }, replayIntervalMillis, replayIntervalMillis, TimeUnit.MILLISECONDS);
+
+        this.notPermittedCounter = meterRegistry.counter("redis.breaker.not-permitted");
+        this.droppedWritesCounter = meterRegistry.counter("redis.breaker.pending-writes.dropped");
+        Gauge.builder("redis.breaker.state", state, s -> s.get().ordinal()).register(meterRegistry);
+        Gauge.builder("redis.breaker.pending-writes", pendingWrites, Map::size).register(meterRegistry);
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public boolean isClosed() {
+        return state.get() == State.CLOSED;
+    }
+
+    // Runs a read against Redis, or returns the fallback when the breaker is open or the call fails
+    public <T> T call(Supplier<T> action, Supplier<T> fallback) {
+        if (!tryAcquirePermission()) {
+            notPermittedCounter.increment();
+            return fallback.get();
+        }
+
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = action.get();
+            failed = false;
+            return result;
+        } catch (DataAccessException ex) {
+            LOGGER.debug("Redis call failed, using fallback", ex);
+        } finally {
+            // Whatever the call threw is recorded, or a half-open probe would never report back
+            // and the breaker would reject every call from then on; only Redis errors fall back
+            onCallFinished(System.nanoTime() - started, failed);
+        }
+        return fallback.get();
+    }
+
+    // Runs a write against Redis; if the breaker is open or the write fails it is queued under
+    // key for replay, replacing any earlier pending write for the same key
+    public void write(String key, Runnable write) {
+        write(key, write, false);
+    }
+
+    // Deletes/invalidations must not be lost or a stale value would outlive the outage
+    // Returns false when the write was deferred to the replay on recovery
+    public boolean writeCritical(String key, Runnable write) {
+        return write(key, write, true);
+    }
+
+    private boolean write(String key, Runnable write, boolean critical) {
+        Boolean done = call(() -> {
+            write.run();
+            return Boolean.TRUE;
+        }, () -> Boolean.FALSE);
+
+        if (!done) {
+            if (!critical && pendingWrites.size() >= maxPendingWrites && !pendingWrites.containsKey(key)) {
+                droppedWritesCounter.increment();
+                return false;
+            }
+            pendingWrites.put(key, new PendingWrite(write, critical));
+        }
+        return done;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        replayExecutor.shutdownNow();
+    }
+
+    private boolean tryAcquirePermission() {
+        State current = state.get();
+        if (current == State.CLOSED) return true;
+
+        if (current == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openDurationMillis) return false;
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                probesStarted.set(0);
+                probesSucceeded.set(0);
+                LOGGER.info("Redis circuit half-open, probing");
+            }
+        }
+
+        return state.get() == State.HALF_OPEN && probesStarted.incrementAndGet() <= halfOpenProbes;
+    }
+
+    private void onCallFinished(long elapsedNanos, boolean failed) {
+        boolean bad = failed || elapsedNanos > slowCallNanos;
+
+        if (state.get() == State.HALF_OPEN) {
+            if (bad) {
+                open(State.HALF_OPEN);
+            } else if (probesSucceeded.incrementAndGet() >= halfOpenProbes && state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+                resetWindow();
+                LOGGER.info("Redis circuit closed");
+                replayPendingWrites();
+            }
+            return;
+        }
+
+        if (recordInWindow(bad)) {
+            open(State.CLOSED);
+        }
+    }
+
+    private boolean recordInWindow(boolean bad) {
+        windowLock.lock();
+        try {
+            if (windowCount == window.length) {
+                if (window[windowIndex]) badCount--;
+            } else {
+                windowCount++;
+            }
+            window[windowIndex] = bad;
+            if (bad) badCount++;
+            windowIndex = (windowIndex + 1) % window.length;
+
+            return windowCount >= minimumCalls && badCount >= failureRateThreshold * windowCount;
+        } finally {
+            windowLock.unlock();
+        }
+    }
+
+    private void resetWindow() {
+        windowLock.lock();
+        try {
+            windowIndex = 0;
+            windowCount = 0;
+            badCount = 0;
+        } finally {
+            windowLock.unlock();
+        }
+    }
+
+    private void open(State from) {
+        if (state.compareAndSet(from, State.OPEN)) {
+            openedAt = System.currentTimeMillis();
+            LOGGER.warn("Redis circuit opened for {} ms", openDurationMillis);
+        }
+    }
+
+    private void replayPendingWrites() {
+        if (pendingWrites.isEmpty() || !replaying.compareAndSet(false, true)) return;
+
+        try {
+            replayExecutor.execute(() -> {
+                try {
+                    Iterator<Map.Entry<String, PendingWrite>> iterator = pendingWrites.entrySet().iterator();
+                    while (iterator.hasNext() && isClosed()) {
+                        Map.Entry<String, PendingWrite> entry = iterator.next();
+                        if (pendingWrites.remove(entry.getKey(), entry.getValue())) {
+                            write(entry.getKey(), entry.getValue().write(), entry.getValue().critical());
+                        }
+                    }
+                    LOGGER.info("Replayed pending Redis writes, {} left", pendingWrites.size());
+                } finally {
+                    replaying.set(false);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            replaying.set(false);
+        }
+    }
+
+    private record PendingWrite(Runnable write, boolean critical) {
+    }
+}
@@ -0,0 +1,73 @@
+package com.shivam.urlshortenerservice.caches;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Best-effort cross-node lock so only one node at a time reloads a short code from MySQL
+@Component
+public class RedisLoadLock {
+
+    private static final String KEY_PREFIX = "load-lock:";
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final long lockTtlMillis;
+    private final long waitMillis;
+    private final long pollIntervalMillis;
+
+    public RedisLoadLock(StringRedisTemplate redisTemplate,
+                         @Value("${shortener.load-lock.enabled:false}") boolean enabled,
+                         @Value("${shortener.load-lock.ttl-ms:2000}") long lockTtlMillis,
+                         @Value("${shortener.load-lock.wait-ms:200}") long waitMillis,
+                         @Value("${shortener.load-lock.poll-interval-ms:20}") long pollIntervalMillis) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.lockTtlMillis = lockTtlMillis;
+        this.waitMillis = waitMillis;
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Returns the lock token, or null if another node holds the lock
+    public String tryLock(String shortCode) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue()
+                .setIfAbsent(KEY_PREFIX + shortCode, token, lockTtlMillis, TimeUnit.MILLISECONDS);
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    public void unlock(String shortCode, String token) {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + shortCode), token);
+    }
+
+    // Polls until the probe returns a value or the wait budget runs out, then returns null
+    public <T> T awaitLoad(Supplier<T> probe) {
+        long deadline = System.currentTimeMillis() + waitMillis;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(pollIntervalMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+
+            T value = probe.get();
+            if (value != null) return value;
+        }
+        return null;
+    }
+}
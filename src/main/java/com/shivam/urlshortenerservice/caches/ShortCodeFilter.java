@@ -0,0 +1,167 @@
+package com.shivam.urlshortenerservice.caches;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.shivam.urlshortenerservice.repositories.ShortUrlJdbcRepository;
+import com.shivam.urlshortenerservice.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+// Answers "can this short code exist?" without touching MySQL. A Bloom filter over active
+// codes rejects unknown codes outright, and tombstones remember codes that recently turned
+// out to be missing, deleted or expired so repeat hits are answered from memory as well.
+@Component
+public class ShortCodeFilter {
+
+    public static final String CREATED_CHANNEL = "short-url:created";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShortCodeFilter.class);
+    private static final int REBUILD_CHUNK_SIZE = 10000;
+
+    public enum Tombstone {
+        NOT_FOUND,
+        EXPIRED
+    }
+
+    private final ShortUrlJdbcRepository shortUrlJdbcRepository;
+    private final ShardRouter shardRouter;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker redisBreaker;
+    private final Cache<String, Tombstone> tombstones;
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private final Counter negativeCounter;
+    private final Counter falsePositiveCounter;
+
+    private volatile BloomFilter<CharSequence> bloomFilter;
+    private volatile BloomFilter<CharSequence> rebuildingFilter;
+
+    public ShortCodeFilter(ShortUrlJdbcRepository shortUrlJdbcRepository, ShardRouter shardRouter, StringRedisTemplate redisTemplate,
+                           RedisCircuitBreaker redisBreaker, MeterRegistry meterRegistry,
+                           @Value("${shortener.filter.expected-insertions:1000000}") long expectedInsertions,
+                           @Value("${shortener.filter.false-positive-probability:0.01}") double falsePositiveProbability,
+                           @Value("${shortener.filter.tombstone-maximum-size:100000}") long tombstoneMaximumSize,
+                           @Value("${shortener.filter.tombstone-ttl-seconds:300}") long tombstoneTtlSeconds) {
+        this.shortUrlJdbcRepository = shortUrlJdbcRepository;
+        this.shardRouter = shardRouter;
+        this.redisTemplate = redisTemplate;
+        this.redisBreaker = redisBreaker;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.tombstones = Caffeine.newBuilder()
+                .maximumSize(tombstoneMaximumSize)
+                .expireAfterWrite(tombstoneTtlSeconds, TimeUnit.SECONDS)
+                .build();
+
+        this.negativeCounter = meterRegistry.counter("redirect.filter.lookups", "result", "negative");
+        this.falsePositiveCounter = meterRegistry.counter("redirect.filter.lookups", "result", "false_positive");
+        Gauge.builder("redirect.filter.false-positive-rate", this, ShortCodeFilter::observedFalsePositiveRate)
+                .register(meterRegistry);
+        Gauge.builder("redirect.filter.expected-fpp", this, ShortCodeFilter::expectedFalsePositiveRate)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        long activeCount = shardRouter.onEachShard(shortUrlJdbcRepository::countActive).stream().mapToLong(Long::longValue).sum();
+
+        BloomFilter<CharSequence> next = newFilter(Math.max(expectedInsertions, activeCount * 2));
+        rebuildingFilter = next;
+        try {
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                shardRouter.runOnShard(shard, () -> shortUrlJdbcRepository.forEachActiveShortCode(REBUILD_CHUNK_SIZE, next::put));
+            }
+            bloomFilter = next;
+        } finally {
+            rebuildingFilter = null;
+        }
+
+        LOGGER.info("Rebuilt short code filter with {} codes in {} ms", activeCount, System.currentTimeMillis() - started);
+    }
+
+    // Until the first rebuild completes every code is treated as possibly present
+    public boolean mightExist(String shortCode) {
+        BloomFilter<CharSequence> filter = bloomFilter;
+        if (filter == null || filter.mightContain(shortCode)) return true;
+
+        negativeCounter.increment();
+        return false;
+    }
+
+    public Tombstone getTombstone(String shortCode) {
+        return tombstones.getIfPresent(shortCode);
+    }
+
+    // Called after MySQL had no row for a code the filter let through. A code already tombstoned
+    // was deleted rather than never created, so it does not count as a false positive
+    public void markNotFound(String shortCode) {
+        if (bloomFilter != null && tombstones.getIfPresent(shortCode) == null) falsePositiveCounter.increment();
+        tombstones.put(shortCode, Tombstone.NOT_FOUND);
+    }
+
+    public void markExpired(String shortCode) {
+        tombstones.put(shortCode, Tombstone.EXPIRED);
+    }
+
+    // Local only; other nodes tombstone the code when the deletion's cache invalidation reaches them
+    public void markDeleted(String shortCode) {
+        tombstones.put(shortCode, Tombstone.NOT_FOUND);
+    }
+
+    // Adds the code here and on every other node, clearing any tombstone left for it
+    public void add(String shortCode) {
+        addLocally(shortCode);
+        redisBreaker.write(CREATED_CHANNEL + ":" + shortCode,
+                () -> redisTemplate.convertAndSend(CREATED_CHANNEL, shortCode));
+    }
+
+    // Same as add for many codes, announced to the other nodes in a single newline separated message
+    public void addAll(Collection<String> shortCodes) {
+        if (shortCodes.isEmpty()) return;
+        shortCodes.forEach(this::addLocally);
+        String message = String.join("\n", shortCodes);
+        redisBreaker.write(CREATED_CHANNEL + ":" + message.hashCode(),
+                () -> redisTemplate.convertAndSend(CREATED_CHANNEL, message));
+    }
+
+    void addLocally(String shortCode) {
+        BloomFilter<CharSequence> filter = bloomFilter;
+        if (filter != null) filter.put(shortCode);
+
+        BloomFilter<CharSequence> next = rebuildingFilter;
+        if (next != null) next.put(shortCode);
+
+        tombstones.invalidate(shortCode);
+    }
+
+    private BloomFilter<CharSequence> newFilter(long expectedInsertions) {
+        return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expectedInsertions, falsePositiveProbability);
+    }
+
+    // Share of lookups for codes that do not exist which the Bloom filter let through to MySQL
+    private double observedFalsePositiveRate() {
+        double falsePositives = falsePositiveCounter.count();
+        double total = falsePositives + negativeCounter.count();
+        return total == 0 ? 0 : falsePositives / total;
+    }
+
+    private double expectedFalsePositiveRate() {
+        BloomFilter<CharSequence> filter = bloomFilter;
+        return filter == null ? 0 : filter.expectedFpp();
+    }
+}
@@ -0,0 +1,86 @@
+package com.shivam.urlshortenerservice.caches;
+
+import com.shivam.urlshortenerservice.models.ShortUrl;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Writes or removes many short urls in Redis in one pipelined round trip (batch creates, imports,
+// cache warming, bulk deletes)
+@Component
+public class ShortUrlCacheWriter {
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker redisBreaker;
+
+    public ShortUrlCacheWriter(StringRedisTemplate redisTemplate, RedisCircuitBreaker redisBreaker) {
+        this.redisTemplate = redisTemplate;
+        this.redisBreaker = redisBreaker;
+    }
+
+    // If Redis is unavailable each entry is handed to the breaker on its own so it is replayed on recovery
+    public void cacheAll(List<ShortUrl> shortUrls) {
+        List<ShortUrl> cacheable = shortUrls.stream().filter(shortUrl -> CachedShortUrl.from(shortUrl).ttlMillis() > 0).toList();
+        if (cacheable.isEmpty()) return;
+
+        Boolean cached = redisBreaker.call(() -> {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (ShortUrl shortUrl : cacheable) {
+                    CachedShortUrl cachedShortUrl = CachedShortUrl.from(shortUrl);
+                    stringConnection.set(shortUrl.getShortCode(), cachedShortUrl.encode(),
+                            Expiration.milliseconds(cachedShortUrl.ttlMillis()), SetOption.upsert());
+                }
+                return null;
+            });
+            return Boolean.TRUE;
+        }, () -> Boolean.FALSE);
+
+        if (!cached) {
+            cacheable.forEach(shortUrl -> {
+                String shortCode = shortUrl.getShortCode();
+                CachedShortUrl cachedShortUrl = CachedShortUrl.from(shortUrl);
+                redisBreaker.write(shortCode, () -> {
+                    long ttl = cachedShortUrl.ttlMillis();
+                    if (ttl > 0) redisTemplate.opsForValue().set(shortCode, cachedShortUrl.encode(), ttl, TimeUnit.MILLISECONDS);
+                });
+            });
+        }
+    }
+
+    // UNLINK frees the values off the Redis main thread; evictions Redis could not take are
+    // handed to the breaker one by one as critical writes so they are never dropped. Returns how
+    // many keys UNLINK actually removed now: codes with no cached value and evictions deferred to
+    // the breaker's replay are left out
+    public int evictAll(Collection<String> shortCodes) {
+        if (shortCodes.isEmpty()) return 0;
+
+        Integer evicted = redisBreaker.call(() -> {
+            List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (String shortCode : shortCodes) {
+                    stringConnection.unlink(shortCode);
+                }
+                return null;
+            });
+            return replies.stream().mapToInt(reply -> reply instanceof Number removed ? removed.intValue() : 0).sum();
+        }, () -> null);
+
+        if (evicted != null) return evicted;
+
+        int[] evictedNow = {0};
+        for (String shortCode : shortCodes) {
+            redisBreaker.writeCritical(shortCode, () -> {
+                if (Boolean.TRUE.equals(redisTemplate.unlink(shortCode))) evictedNow[0]++;
+            });
+        }
+        return evictedNow[0];
+    }
+}
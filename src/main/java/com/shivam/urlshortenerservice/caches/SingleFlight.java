@@ -0,0 +1,44 @@
+package com.shivam.urlshortenerservice.caches;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Coalesces concurrent loads of the same key: the first caller runs the loader and every
+// caller arriving while it is in flight waits for that result (or exception) instead.
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException ex) {
+            call.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            throw ex;
+        } catch (CancellationException ex) {
+            throw new IllegalStateException("Coalesced load was cancelled", ex);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.shivam.urlshortenerservice.configs;
+
+import com.shivam.urlshortenerservice.workloads.Workload;
+import com.shivam.urlshortenerservice.workloads.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Builds the pools for a database (a shard, a replica or the primary) with the credentials and
+// driver of spring.datasource. With shortener.pools.enabled each database gets a pool per
+// workload instead of one pool; Hikari metrics carry the pool name, e.g. shard-0-analytics.
+@Component
+public class HikariPoolFactory {
+
+    private final String username;
+    private final String password;
+    private final String driverClassName;
+    private final boolean workloadPools;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    public HikariPoolFactory(@Value("${spring.datasource.username}") String username,
+                             @Value("${spring.datasource.password}") String password,
+                             @Value("${spring.datasource.driver-class-name}") String driverClassName,
+                             @Value("${shortener.pools.enabled:false}") boolean workloadPools,
+                             Environment environment, MeterRegistry meterRegistry) {
+        this.username = username;
+        this.password = password;
+        this.driverClassName = driverClassName;
+        this.workloadPools = workloadPools;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public DataSource create(String name, String url, int poolSize) {
+        return workloadPools ? createWorkloadPools(name, url) : pool(name, url, poolSize);
+    }
+
+    public WorkloadRoutingDataSource createWorkloadPools(String name, String url) {
+        Map<Workload, DataSource> pools = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            pools.put(workload, workloadPool(name, url, workload));
+        }
+        return new WorkloadRoutingDataSource(pools);
+    }
+
+    private HikariDataSource workloadPool(String name, String url, Workload workload) {
+        String prefix = "shortener.pools." + workload.key() + ".";
+        int size = environment.getProperty(prefix + "size", Integer.class, workload.defaultSize());
+        long connectionTimeout = environment.getProperty(prefix + "connection-timeout-ms", Long.class, workload.defaultConnectionTimeoutMillis());
+        long statementTimeout = environment.getProperty(prefix + "statement-timeout-ms", Long.class, workload.defaultStatementTimeoutMillis());
+
+        HikariDataSource pool = pool(name + "-" + workload.key(), url, size);
+        pool.setConnectionTimeout(connectionTimeout);
+        // MySQL aborts SELECTs running longer than this on the pool's connections
+        if (statementTimeout > 0) pool.setConnectionInitSql("SET SESSION max_execution_time = " + statementTimeout);
+
+        Gauge.builder("db.pool.saturation", pool, HikariPoolFactory::saturation)
+                .tag("pool", pool.getPoolName())
+                .tag("workload", workload.key())
+                .register(meterRegistry);
+        return pool;
+    }
+
+    private HikariDataSource pool(String poolName, String url, int poolSize) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(poolName);
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        pool.setDriverClassName(driverClassName);
+        pool.setMaximumPoolSize(poolSize);
+        pool.addDataSourceProperty("rewriteBatchedStatements", "true");
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+
+    // Share of the pool's connections in use; above 1 when threads are waiting for one
+    private static double saturation(HikariDataSource pool) {
+        HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+        if (mxBean == null) return 0;
+        return (double) (mxBean.getActiveConnections() + mxBean.getThreadsAwaitingConnection()) / pool.getMaximumPoolSize();
+    }
+}
@@ -0,0 +1,24 @@
+package com.shivam.urlshortenerservice.configs;
+
+import com.shivam.urlshortenerservice.filters.RedirectFastPathFilter;
+import com.shivam.urlshortenerservice.services.IRedirectService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "shortener.redirect.fast-path.enabled", havingValue = "true", matchIfMissing = true)
+public class RedirectFastPathConfig {
+
+    // Registered ahead of springSecurityFilterChain (order -100) so redirects never enter it
+    @Bean
+    public FilterRegistrationBean<RedirectFastPathFilter> redirectFastPathFilter(IRedirectService redirectService) {
+        FilterRegistrationBean<RedirectFastPathFilter> registration =
+                new FilterRegistrationBean<>(new RedirectFastPathFilter(redirectService));
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,27 @@
+package com.shivam.urlshortenerservice.configs;
+
+import com.shivam.urlshortenerservice.caches.CacheInvalidationListener;
+import com.shivam.urlshortenerservice.caches.LocalShortUrlCache;
+import com.shivam.urlshortenerservice.caches.ShortCodeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.List;
+
+@Configuration
+public class RedisPubSubConfig {
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       CacheInvalidationListener invalidationListener) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(invalidationListener, List.of(
+                new ChannelTopic(LocalShortUrlCache.INVALIDATION_CHANNEL),
+                new ChannelTopic(ShortCodeFilter.CREATED_CHANNEL)));
+        return container;
+    }
+}
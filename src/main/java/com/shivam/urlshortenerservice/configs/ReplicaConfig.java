@@ -0,0 +1,39 @@
+package com.shivam.urlshortenerservice.configs;
+
+import com.shivam.urlshortenerservice.replication.ReplicaLagMonitor;
+import com.shivam.urlshortenerservice.replication.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Puts the primary and one pool per shortener.replicas.urls entry behind a routing datasource.
+// Flyway and every write use the primary. Not available together with sharding.
+@Configuration
+@ConditionalOnExpression("${shortener.replicas.enabled:false} and !${shortener.sharding.enabled:false}")
+public class ReplicaConfig {
+
+    @Bean
+    @Primary
+    public ReplicaRoutingDataSource dataSource(HikariPoolFactory poolFactory, MeterRegistry meterRegistry,
+                                               @Value("${spring.datasource.url}") String primaryUrl,
+                                               @Value("${shortener.replicas.urls}") List<String> urls,
+                                               @Value("${shortener.replicas.pool-size:10}") int poolSize,
+                                               @Value("${shortener.replicas.primary-pool-size:10}") int primaryPoolSize,
+                                               @Value("${shortener.replicas.max-lag-ms:1000}") long maxLagMillis,
+                                               @Value("${shortener.replicas.lag-check-interval-ms:1000}") long lagCheckIntervalMillis,
+                                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        List<DataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            replicas.add(poolFactory.create("replica-" + i, urls.get(i), poolSize));
+        }
+        ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(replicas, maxLagMillis, lagCheckIntervalMillis, virtualThreads, meterRegistry);
+        return new ReplicaRoutingDataSource(poolFactory.create("primary", primaryUrl, primaryPoolSize), replicas, lagMonitor);
+    }
+}
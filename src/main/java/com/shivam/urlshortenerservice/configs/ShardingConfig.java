@@ -0,0 +1,43 @@
+package com.shivam.urlshortenerservice.configs;
+
+import com.shivam.urlshortenerservice.sharding.ShardRoutingDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Replaces the single datasource with one pool per shard URL behind a routing datasource.
+// Shard 0 must be the existing database: it keeps the users, roles and job tables.
+// Every shard gets the full schema, so Flyway migrates each of them.
+@Configuration
+@ConditionalOnProperty(name = "shortener.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    public ShardRoutingDataSource dataSource(HikariPoolFactory poolFactory,
+                                             @Value("${shortener.sharding.urls}") List<String> urls,
+                                             @Value("${shortener.sharding.pool-size:10}") int poolSize) {
+        List<DataSource> shards = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            shards.add(poolFactory.create("shard-" + i, urls.get(i), poolSize));
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    public FlywayMigrationStrategy shardedMigrationStrategy(ShardRoutingDataSource dataSource) {
+        return flyway -> dataSource.getShards().forEach(shard -> Flyway.configure()
+                .configuration(flyway.getConfiguration())
+                .dataSource(shard)
+                .load()
+                .migrate());
+    }
+}
@@ -0,0 +1,104 @@
+package com.shivam.urlshortenerservice.configs;
+
+import com.shivam.urlshortenerservice.caches.RedisCircuitBreaker;
+import com.shivam.urlshortenerservice.generators.*;
+import com.shivam.urlshortenerservice.repositories.ShortCodeRangeJdbcRepository;
+import com.shivam.urlshortenerservice.repositories.ShortUrlRepository;
+import com.shivam.urlshortenerservice.sharding.ShardRouter;
+import com.shivam.urlshortenerservice.utils.ShortUrlUtil;
+import com.shivam.urlshortenerservice.utils.StringUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@Configuration
+public class ShortCodeGeneratorConfig {
+
+    private final ShortCodeGeneratorType type;
+    private final int length;
+    private final IdRangeSourceType rangeSourceType;
+    private final long blockSize;
+    private final boolean permute;
+    private final String permutationKey;
+
+    private final boolean poolEnabled;
+    private final int poolSize;
+    private final int poolLowWatermark;
+    private final long poolRefillIntervalMillis;
+    private final boolean poolRedisEnabled;
+    private final long poolRedisSize;
+    private final boolean virtualThreads;
+
+    public ShortCodeGeneratorConfig(@Value("${shortener.codes.generator:RANDOM}") ShortCodeGeneratorType type,
+                                    @Value("${shortener.codes.length:7}") int length,
+                                    @Value("${shortener.codes.range-source:DATABASE}") IdRangeSourceType rangeSourceType,
+                                    @Value("${shortener.codes.block-size:1000}") long blockSize,
+                                    @Value("${shortener.codes.permute:true}") boolean permute,
+                                    @Value("${shortener.codes.permutation-key:}") String permutationKey,
+                                    @Value("${shortener.codes.pool.enabled:false}") boolean poolEnabled,
+                                    @Value("${shortener.codes.pool.size:1000}") int poolSize,
+                                    @Value("${shortener.codes.pool.low-watermark:200}") int poolLowWatermark,
+                                    @Value("${shortener.codes.pool.refill-interval-ms:1000}") long poolRefillIntervalMillis,
+                                    @Value("${shortener.codes.pool.redis-enabled:false}") boolean poolRedisEnabled,
+                                    @Value("${shortener.codes.pool.redis-size:10000}") long poolRedisSize,
+                                    @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.type = type;
+        this.length = length;
+        this.rangeSourceType = rangeSourceType;
+        this.blockSize = blockSize;
+        this.permute = permute;
+        this.permutationKey = permutationKey;
+        this.poolEnabled = poolEnabled;
+        this.poolSize = poolSize;
+        this.poolLowWatermark = poolLowWatermark;
+        this.poolRefillIntervalMillis = poolRefillIntervalMillis;
+        this.poolRedisEnabled = poolRedisEnabled;
+        this.poolRedisSize = poolRedisSize;
+        this.virtualThreads = virtualThreads;
+    }
+
+    @Bean
+    public ShortCodeGenerator shortCodeGenerator(ShortUrlRepository shortUrlRepository, ShardRouter shardRouter,
+                                                 ShortCodeRangeJdbcRepository shortCodeRangeRepository,
+                                                 StringRedisTemplate redisTemplate, RedisCircuitBreaker redisBreaker,
+                                                 MeterRegistry meterRegistry) {
+        ShortCodeGenerator generator = baseGenerator(shortUrlRepository, shardRouter, shortCodeRangeRepository, redisTemplate);
+        if (!poolEnabled) return generator;
+
+        PooledShortCodeGenerator pooled = new PooledShortCodeGenerator(generator, redisTemplate, redisBreaker, meterRegistry,
+                poolSize, poolLowWatermark, poolRefillIntervalMillis, poolRedisEnabled, poolRedisSize, virtualThreads);
+        pooled.start();
+        return pooled;
+    }
+
+    private ShortCodeGenerator baseGenerator(ShortUrlRepository shortUrlRepository, ShardRouter shardRouter,
+                                             ShortCodeRangeJdbcRepository shortCodeRangeRepository,
+                                             StringRedisTemplate redisTemplate) {
+        if (type == ShortCodeGeneratorType.RANDOM) return new RandomShortCodeGenerator(shortUrlRepository, shardRouter, 6);
+
+        IdRangeSource rangeSource = rangeSourceType == IdRangeSourceType.REDIS
+                ? new RedisIdRangeSource(redisTemplate)
+                : new DatabaseIdRangeSource(shortCodeRangeRepository);
+        FeistelPermutation permutation = permute
+                ? new FeistelPermutation(ShortUrlUtil.base62Capacity(length), requirePermutationKey())
+                : null;
+
+        return new CounterShortCodeGenerator(rangeSource, blockSize, length, permutation);
+    }
+
+    // The algorithm is public, so the key is all that keeps the codes from being predicted. It is not
+    // generated here: every node must permute with the same key or their codes would collide
+    private long requirePermutationKey() {
+        if (StringUtils.isEmpty(permutationKey)) {
+            throw new IllegalStateException("shortener.codes.permutation-key (SHORT_CODE_PERMUTATION_KEY) must be set "
+                    + "when COUNTER codes are permuted");
+        }
+        try {
+            return Long.parseLong(permutationKey.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("shortener.codes.permutation-key must be a 64-bit integer");
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.shivam.urlshortenerservice.configs;
+
+import com.shivam.urlshortenerservice.workloads.WorkloadRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+// Workload pools for the single database; with sharding or replicas their configs build the
+// pools for every database through the same HikariPoolFactory
+@Configuration
+@ConditionalOnExpression("${shortener.pools.enabled:false} and !${shortener.sharding.enabled:false} and !${shortener.replicas.enabled:false}")
+public class WorkloadPoolConfig {
+
+    @Bean
+    @Primary
+    public WorkloadRoutingDataSource dataSource(HikariPoolFactory poolFactory, @Value("${spring.datasource.url}") String url) {
+        return poolFactory.createWorkloadPools("primary", url);
+    }
+}
@@ -1,21 +1,19 @@
 package com.shivam.urlshortenerservice.controllers;
 
 import com.shivam.urlshortenerservice.dtos.AnalyticsResponse;
-import com.shivam.urlshortenerservice.dtos.ClickEventResponse;
+import com.shivam.urlshortenerservice.dtos.ClickEventSliceResponse;
 import com.shivam.urlshortenerservice.dtos.ClickStatsResponse;
 import com.shivam.urlshortenerservice.dtos.TopClickedResponse;
+import com.shivam.urlshortenerservice.dtos.UniqueVisitorsResponse;
 import com.shivam.urlshortenerservice.exceptions.InvalidRequestException;
-import com.shivam.urlshortenerservice.models.ClickEvent;
 import com.shivam.urlshortenerservice.services.IAnalyticsService;
 import com.shivam.urlshortenerservice.utils.DateUtils;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.text.SimpleDateFormat;
 import java.util.List;
 
 @RestController
@@ -39,9 +37,9 @@ public class AnalyticsController {
     }
 
     @GetMapping("/{shortCode}/click-events")
-    public ResponseEntity<Page<ClickEventResponse>> getFilteredClickEvents(
+    public ResponseEntity<ClickEventSliceResponse> getFilteredClickEvents(
             @PathVariable String shortCode,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor, // nextCursor of the previous page
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "clickedAt") String sort,
             @RequestParam(defaultValue = "desc") String direction,
@@ -50,26 +48,15 @@ public class AnalyticsController {
             @RequestParam(required = false) String browser,
             @RequestParam(required = false) String os,
             @RequestParam(required = false) String deviceType,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
             Authentication authentication
     ) {
         String email = authentication.getName();
-        Page<ClickEvent> clickEvents = analyticsService
+        ClickEventSliceResponse clickEvents = analyticsService
                 .getFilteredClickEvents(shortCode, startDate, endDate, browser, os, deviceType,
-                        page, size, sort, direction,email);
+                        cursor, size, sort, direction, includeTotal, email);
 
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
-        Page<ClickEventResponse> responsePage = clickEvents.map(event ->
-                new ClickEventResponse(
-                        event.getIpAddress(),
-                        event.getBrowser(),
-                        event.getOperatingSystem(),
-                        event.getDeviceType(),
-                        event.getReferrer(),
-                        formatter.format(event.getClickedAt())
-                ));
-
-        return new ResponseEntity<>(responsePage, HttpStatus.OK);
+        return new ResponseEntity<>(clickEvents, HttpStatus.OK);
     }
 
     @GetMapping("/{shortCode}/click-events/daily")
@@ -98,10 +85,32 @@ public class AnalyticsController {
         return new ResponseEntity<>(clickStats, HttpStatus.OK);
     }
 
+    @GetMapping("/{shortCode}/unique-visitors")
+    public ResponseEntity<UniqueVisitorsResponse> getUniqueVisitors(
+            @PathVariable String shortCode,
+            @RequestParam(required = false) String startDate, // Format : yyyy-MM-dd
+            @RequestParam(required = false) String endDate, // Format : yyyy-MM-dd
+            Authentication authentication
+    ) {
+        if ((startDate == null) != (endDate == null))
+            throw new InvalidRequestException("Provide both start and end date, or neither");
+        if (startDate != null) {
+            if (!DateUtils.validDate(startDate)) throw new InvalidRequestException("Invalid start date");
+            if (!DateUtils.validDate(endDate)) throw new InvalidRequestException("Invalid end date");
+            if (!DateUtils.isDateRangeValid(startDate,endDate))
+                throw new InvalidRequestException("Invalid start or end date");
+        }
+
+        String email = authentication.getName();
+        return ResponseEntity.ok(analyticsService.getUniqueVisitors(shortCode, startDate, endDate, email));
+    }
+
     @GetMapping("/admin/top-clicked")
     public ResponseEntity<List<TopClickedResponse>> getTopClickedUrls(
-            @RequestParam(defaultValue = "5") int count) {
-        return ResponseEntity.ok(analyticsService.getTopClickedUrls(count));
+            @RequestParam(defaultValue = "5") int count,
+            @RequestParam(defaultValue = "false") boolean exact) {
+        // exact runs the GROUP BY over click_events, for audits of the sketch
+        return ResponseEntity.ok(exact ? analyticsService.getExactTopClickedUrls(count) : analyticsService.getTopClickedUrls(count));
     }
 }
 
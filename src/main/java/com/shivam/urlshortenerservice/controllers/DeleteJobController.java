@@ -0,0 +1,68 @@
+package com.shivam.urlshortenerservice.controllers;
+
+import com.shivam.urlshortenerservice.dtos.BulkDeleteRequest;
+import com.shivam.urlshortenerservice.dtos.DeleteJobResponse;
+import com.shivam.urlshortenerservice.models.DeleteJob;
+import com.shivam.urlshortenerservice.services.IDeleteJobService;
+import com.shivam.urlshortenerservice.utils.DateUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+public class DeleteJobController {
+
+    private final IDeleteJobService deleteJobService;
+
+    public DeleteJobController(IDeleteJobService deleteJobService) {
+        this.deleteJobService = deleteJobService;
+    }
+
+    @PostMapping("/shorten/delete-jobs")
+    public ResponseEntity<DeleteJobResponse> createDeleteJob(@RequestBody BulkDeleteRequest request,
+                                                             Authentication authentication) {
+        String email = authentication.getName();
+
+        DeleteJob deleteJob = deleteJobService.createDeleteJob(request, email);
+        return new ResponseEntity<>(from(deleteJob), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/shorten/delete-jobs/{id}")
+    public ResponseEntity<DeleteJobResponse> getDeleteJob(@PathVariable Long id,
+                                                          Authentication authentication) {
+        String email = authentication.getName();
+        return ResponseEntity.ok(from(deleteJobService.getDeleteJob(id, email)));
+    }
+
+    @PostMapping("/shorten/admin/delete-jobs")
+    public ResponseEntity<DeleteJobResponse> createDeleteJobAsAdmin(@RequestBody BulkDeleteRequest request,
+                                                                    Authentication authentication) {
+        String adminEmail = authentication.getName();
+
+        DeleteJob deleteJob = deleteJobService.createDeleteJobAsAdmin(request, adminEmail);
+        return new ResponseEntity<>(from(deleteJob), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/shorten/admin/delete-jobs/{id}")
+    public ResponseEntity<DeleteJobResponse> getDeleteJobAsAdmin(@PathVariable Long id) {
+        return ResponseEntity.ok(from(deleteJobService.getDeleteJobAsAdmin(id)));
+    }
+
+    @PostMapping("/shorten/admin/delete-jobs/{id}/resume")
+    public ResponseEntity<DeleteJobResponse> resumeDeleteJob(@PathVariable Long id) {
+        return new ResponseEntity<>(from(deleteJobService.resumeDeleteJob(id)), HttpStatus.ACCEPTED);
+    }
+
+    private static DeleteJobResponse from(DeleteJob deleteJob) {
+        return new DeleteJobResponse(
+                deleteJob.getId(),
+                deleteJob.getStatus().name(),
+                deleteJob.isHardDelete(),
+                deleteJob.getRowsDeleted(),
+                deleteJob.getKeysEvicted(),
+                DateUtils.formatDate(deleteJob.getStartedAt()),
+                DateUtils.formatDate(deleteJob.getFinishedAt()),
+                deleteJob.getLastError());
+    }
+}
@@ -0,0 +1,81 @@
+package com.shivam.urlshortenerservice.controllers;
+
+import com.shivam.urlshortenerservice.dtos.ImportJobResponse;
+import com.shivam.urlshortenerservice.exceptions.InvalidRequestException;
+import com.shivam.urlshortenerservice.models.ImportFormat;
+import com.shivam.urlshortenerservice.models.ImportJob;
+import com.shivam.urlshortenerservice.services.IImportJobService;
+import com.shivam.urlshortenerservice.utils.DateUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Date;
+
+@RestController
+@RequestMapping("/shorten/admin/imports")
+public class ImportJobController {
+
+    private static final String CSV_MEDIA_TYPE = "text/csv";
+    private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    private final IImportJobService importJobService;
+
+    public ImportJobController(IImportJobService importJobService) {
+        this.importJobService = importJobService;
+    }
+
+    // The file is the raw request body, streamed to disk by the service, so no multipart size
+    // limit has to be raised for it
+    @PostMapping(consumes = {CSV_MEDIA_TYPE, NDJSON_MEDIA_TYPE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ImportJobResponse> createImportJob(HttpServletRequest request,
+                                                             @RequestParam(required = false) ImportFormat format,
+                                                             @RequestParam(defaultValue = "false") boolean warmCache,
+                                                             Authentication authentication) throws IOException {
+        ImportFormat importFormat = format != null ? format : formatFromContentType(request.getContentType());
+        String email = authentication.getName();
+
+        ImportJob importJob = importJobService.createImportJob(request.getInputStream(), importFormat, warmCache, email);
+        return new ResponseEntity<>(from(importJob), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobResponse> getImportJob(@PathVariable Long id) {
+        return ResponseEntity.ok(from(importJobService.getImportJob(id)));
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<ImportJobResponse> resumeImportJob(@PathVariable Long id) {
+        return new ResponseEntity<>(from(importJobService.resumeImportJob(id)), HttpStatus.ACCEPTED);
+    }
+
+    private static ImportFormat formatFromContentType(String contentType) {
+        MediaType mediaType = contentType != null ? MediaType.parseMediaType(contentType) : MediaType.APPLICATION_OCTET_STREAM;
+        if (mediaType.isCompatibleWith(MediaType.parseMediaType(CSV_MEDIA_TYPE))) return ImportFormat.CSV;
+        if (mediaType.isCompatibleWith(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))) return ImportFormat.NDJSON;
+        throw new InvalidRequestException("Unknown import format, send text/csv or application/x-ndjson, or pass format=CSV or format=NDJSON");
+    }
+
+    private static ImportJobResponse from(ImportJob importJob) {
+        Date startedAt = importJob.getStartedAt();
+        Date until = importJob.getImportCompletedAt() != null ? importJob.getImportCompletedAt() : importJob.getLastModifiedAt();
+        double seconds = startedAt != null && until != null ? (until.getTime() - startedAt.getTime()) / 1000.0 : 0;
+
+        return new ImportJobResponse(
+                importJob.getId(),
+                importJob.getStatus().name(),
+                importJob.getFormat().name(),
+                importJob.getRowsProcessed(),
+                importJob.getRowsImported(),
+                importJob.getRowsFailed(),
+                importJob.getRowsWarmed(),
+                seconds > 0 ? importJob.getRowsProcessed() / seconds : 0,
+                DateUtils.formatDate(startedAt),
+                DateUtils.formatDate(importJob.getFinishedAt()),
+                importJob.getLastError());
+    }
+}
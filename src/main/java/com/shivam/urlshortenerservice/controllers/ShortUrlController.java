@@ -1,10 +1,11 @@
 package com.shivam.urlshortenerservice.controllers;
 
+import com.shivam.urlshortenerservice.dtos.BatchShortUrlResult;
 import com.shivam.urlshortenerservice.dtos.ShortUrlRequest;
 import com.shivam.urlshortenerservice.dtos.ShortUrlResponse;
 import com.shivam.urlshortenerservice.exceptions.InvalidRequestException;
 import com.shivam.urlshortenerservice.models.ShortUrl;
-import com.shivam.urlshortenerservice.services.IAnalyticsService;
+import com.shivam.urlshortenerservice.services.IRedirectService;
 import com.shivam.urlshortenerservice.services.IShortUrlService;
 import com.shivam.urlshortenerservice.utils.ShortUrlUtil;
 import com.shivam.urlshortenerservice.utils.StringUtils;
@@ -13,21 +14,21 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 import static com.shivam.urlshortenerservice.utils.ShortUrlUtil.from;
 
 @RestController
 public class ShortUrlController {
 
     private final IShortUrlService shortUrlService;
-    private final IAnalyticsService analyticsService;
+    private final IRedirectService redirectService;
 
-    public ShortUrlController(IShortUrlService shortUrlService, IAnalyticsService analyticsService) {
+    public ShortUrlController(IShortUrlService shortUrlService, IRedirectService redirectService) {
         this.shortUrlService = shortUrlService;
-        this.analyticsService = analyticsService;
+        this.redirectService = redirectService;
     }
 
     @PostMapping("/shorten")
@@ -43,23 +44,29 @@ public class ShortUrlController {
         return new ResponseEntity<>(from(shortUrl), HttpStatus.CREATED);
     }
 
+    @PostMapping("/shorten/batch")
+    public ResponseEntity<List<BatchShortUrlResult>> shortenUrls(@RequestBody List<ShortUrlRequest> requests,
+                                                                 Authentication authentication) {
+        String email = authentication.getName();
+
+        List<BatchShortUrlResult> results = shortUrlService.createShortUrls(requests, email);
+
+        return ResponseEntity.ok(results);
+    }
+
+    // Only reached when the redirect fast path filter is disabled or passes the request on
     @GetMapping("/{shortCode}")
-    public ResponseEntity<String> redirectToOriginalUrl(@PathVariable String shortCode,
+    public ResponseEntity<Void> redirectToOriginalUrl(@PathVariable String shortCode,
                                                         HttpServletRequest request) {
         if (StringUtils.isEmpty(shortCode)) throw new InvalidRequestException("Invalid short url");
 
-        String originalUrl = shortUrlService.getOriginalUrl(shortCode);
-
         String ipAddress = request.getRemoteAddr();
         String userAgent = request.getHeader("User-Agent");
         String referrer = request.getHeader("Referer");
 
-        analyticsService.logClick(shortCode,ipAddress,userAgent,referrer);
-
-        MultiValueMap<String,String> headers = new LinkedMultiValueMap<>();
-        headers.add("Location", originalUrl);
+        String originalUrl = redirectService.redirect(shortCode,ipAddress,userAgent,referrer);
 
-        return new ResponseEntity<>("Redirecting to: " + originalUrl, headers, HttpStatus.FOUND);
+        return ResponseEntity.status(HttpStatus.FOUND).header("Location", originalUrl).build();
     }
 
     @GetMapping("/shorten/{shortCode}")
@@ -0,0 +1,14 @@
+package com.shivam.urlshortenerservice.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchShortUrlResult {
+    private int index; // position in the request list
+    private ShortUrlResponse shortUrl; // null when the item failed
+    private String error;
+}
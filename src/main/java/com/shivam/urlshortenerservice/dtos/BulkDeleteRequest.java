@@ -0,0 +1,22 @@
+package com.shivam.urlshortenerservice.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Either a list of short codes or a filter; users are always limited to their own links,
+// ownerEmail and purge are only honoured on the admin endpoint
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteRequest {
+    private List<String> shortCodes; // optional
+    private String ownerEmail; // optional, admin only
+    // format: yyyy-MM-dd
+    private String createdAfter; // optional
+    private String createdBefore; // optional
+    private boolean expiredOnly;
+    private boolean purge; // admin only
+}
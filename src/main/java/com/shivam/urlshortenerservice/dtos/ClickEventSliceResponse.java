@@ -0,0 +1,19 @@
+package com.shivam.urlshortenerservice.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClickEventSliceResponse {
+    private List<ClickEventResponse> content;
+    // Pass back as cursor for the next page; null on the last page
+    private String nextCursor;
+    private boolean hasNext;
+    // All clicks of the link, ignoring filters; only set when asked for
+    private Long totalClicks;
+}
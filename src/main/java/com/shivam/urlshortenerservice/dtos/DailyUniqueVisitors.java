@@ -0,0 +1,13 @@
+package com.shivam.urlshortenerservice.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyUniqueVisitors {
+    private String date;
+    private long uniqueVisitors;
+}
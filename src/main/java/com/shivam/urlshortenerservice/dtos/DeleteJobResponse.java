@@ -0,0 +1,19 @@
+package com.shivam.urlshortenerservice.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeleteJobResponse {
+    private Long id;
+    private String status;
+    private boolean purge;
+    private long rowsDeleted;
+    private long keysEvicted;
+    private String startedAt;
+    private String finishedAt;
+    private String lastError;
+}
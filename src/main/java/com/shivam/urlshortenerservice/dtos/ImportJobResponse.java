@@ -0,0 +1,22 @@
+package com.shivam.urlshortenerservice.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobResponse {
+    private Long id;
+    private String status;
+    private String format;
+    private long rowsProcessed;
+    private long rowsImported;
+    private long rowsFailed;
+    private long rowsWarmed;
+    private double rowsPerSecond;
+    private String startedAt;
+    private String finishedAt;
+    private String lastError;
+}
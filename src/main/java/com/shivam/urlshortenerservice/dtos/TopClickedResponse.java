@@ -12,4 +12,10 @@ import lombok.Setter;
 public class TopClickedResponse {
     private String shortCode;
     private long count;
+    // count is an upper bound; the true count is at least count - error
+    private long error;
+
+    public TopClickedResponse(String shortCode, long count) {
+        this(shortCode, count, 0);
+    }
 }
@@ -0,0 +1,21 @@
+package com.shivam.urlshortenerservice.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Counts are HyperLogLog estimates, within about 1% of the exact number of distinct IP addresses
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UniqueVisitorsResponse {
+    private String shortCode;
+    private long allTimeUniqueVisitors;
+    private String startDate;
+    private String endDate;
+    // Visitors seen on any day of the range, each counted once; null without a range
+    private Long uniqueVisitors;
+    private List<DailyUniqueVisitors> daily;
+}
@@ -0,0 +1,7 @@
+package com.shivam.urlshortenerservice.exceptions;
+
+public class AnalyticsUnavailableException extends RuntimeException {
+    public AnalyticsUnavailableException(String message) {
+        super(message);
+    }
+}
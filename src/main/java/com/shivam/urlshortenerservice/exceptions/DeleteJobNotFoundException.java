@@ -0,0 +1,7 @@
+package com.shivam.urlshortenerservice.exceptions;
+
+public class DeleteJobNotFoundException extends RuntimeException {
+    public DeleteJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,94 @@
+package com.shivam.urlshortenerservice.filters;
+
+import com.shivam.urlshortenerservice.exceptions.ExpiredShortCodeException;
+import com.shivam.urlshortenerservice.exceptions.ShortCodeNotFoundException;
+import com.shivam.urlshortenerservice.services.IRedirectService;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+// Serves GET /{shortCode} ahead of the security filter chain and the DispatcherServlet.
+// The route is permitAll anyway, so the only work left is resolve, log and a body-less 302.
+// Anything that does not look like a short code falls through to the normal chain.
+public class RedirectFastPathFilter implements Filter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedirectFastPathFilter.class);
+    private static final Set<String> RESERVED_PATHS = Set.of("shorten", "analytics", "auth", "actuator", "error");
+    private static final String TEXT_PLAIN = "text/plain;charset=UTF-8";
+    private static final byte[] NOT_FOUND_BODY = "Short URL does not exist or deleted".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EXPIRED_BODY = "Short URL has expired".getBytes(StandardCharsets.UTF_8);
+
+    private final IRedirectService redirectService;
+
+    public RedirectFastPathFilter(IRedirectService redirectService) {
+        this.redirectService = redirectService;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        HttpServletResponse response = (HttpServletResponse) servletResponse;
+
+        String shortCode = "GET".equals(request.getMethod()) ? extractShortCode(request) : null;
+        if (shortCode == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String originalUrl;
+        try {
+            originalUrl = redirectService.redirect(shortCode, request.getRemoteAddr(),
+                    request.getHeader("User-Agent"), request.getHeader("Referer"));
+        } catch (ShortCodeNotFoundException ex) {
+            writeBody(response, HttpServletResponse.SC_NOT_FOUND, NOT_FOUND_BODY);
+            return;
+        } catch (ExpiredShortCodeException ex) {
+            writeBody(response, HttpServletResponse.SC_GONE, EXPIRED_BODY);
+            return;
+        } catch (RuntimeException ex) {
+            // Same response GlobalExceptionHandler gives, which this filter runs ahead of
+            LOGGER.error("Redirect of {} failed", shortCode, ex);
+            String message = ex.getMessage() != null ? ex.getMessage() : "";
+            writeBody(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, message.getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_FOUND);
+        response.setHeader("Location", originalUrl);
+        response.setContentLength(0);
+    }
+
+    // A single path segment of [A-Za-z0-9_-] that is not one of the application's own routes
+    private static String extractShortCode(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        int contextLength = request.getContextPath().length();
+        if (path.length() <= contextLength + 1 || path.charAt(contextLength) != '/') return null;
+
+        for (int i = contextLength + 1; i < path.length(); i++) {
+            char c = path.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+            if (!allowed) return null;
+        }
+
+        String shortCode = path.substring(contextLength + 1);
+        return RESERVED_PATHS.contains(shortCode) ? null : shortCode;
+    }
+
+    private static void writeBody(HttpServletResponse response, int status, byte[] body) throws IOException {
+        response.setStatus(status);
+        response.setContentType(TEXT_PLAIN);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
@@ -0,0 +1,49 @@
+package com.shivam.urlshortenerservice.generators;
+
+import com.shivam.urlshortenerservice.utils.ShortUrlUtil;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// Leases blocks of ids and encodes each as a fixed-length base62 code, so codes are unique
+// without a database check. With a permutation the codes do not reveal creation order.
+public class CounterShortCodeGenerator implements ShortCodeGenerator {
+
+    private final IdRangeSource rangeSource;
+    private final long blockSize;
+    private final int length;
+    private final long domain;
+    private final FeistelPermutation permutation;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long next;
+    private long end;
+
+    public CounterShortCodeGenerator(IdRangeSource rangeSource, long blockSize, int length, FeistelPermutation permutation) {
+        if (length < 1 || length > 10) throw new IllegalArgumentException("Short code length must be between 1 and 10");
+
+        this.rangeSource = rangeSource;
+        this.blockSize = blockSize;
+        this.length = length;
+        this.domain = ShortUrlUtil.base62Capacity(length);
+        this.permutation = permutation;
+    }
+
+    @Override
+    public String nextCode() {
+        long id;
+        lock.lock();
+        try {
+            if (next >= end) {
+                next = rangeSource.reserve(blockSize);
+                end = next + blockSize;
+            }
+            id = next++;
+        } finally {
+            lock.unlock();
+        }
+
+        if (id >= domain) throw new IllegalStateException("All " + length + " character short codes are used up");
+
+        return ShortUrlUtil.toBase62(permutation != null ? permutation.permute(id) : id, length);
+    }
+}
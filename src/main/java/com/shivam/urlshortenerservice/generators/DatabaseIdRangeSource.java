@@ -0,0 +1,19 @@
+package com.shivam.urlshortenerservice.generators;
+
+import com.shivam.urlshortenerservice.repositories.ShortCodeRangeJdbcRepository;
+
+public class DatabaseIdRangeSource implements IdRangeSource {
+
+    private static final String RANGE_NAME = "short_code";
+
+    private final ShortCodeRangeJdbcRepository shortCodeRangeRepository;
+
+    public DatabaseIdRangeSource(ShortCodeRangeJdbcRepository shortCodeRangeRepository) {
+        this.shortCodeRangeRepository = shortCodeRangeRepository;
+    }
+
+    @Override
+    public long reserve(long size) {
+        return shortCodeRangeRepository.increment(RANGE_NAME, size) - size;
+    }
+}
@@ -0,0 +1,73 @@
+package com.shivam.urlshortenerservice.generators;
+
+// Keyed bijection on [0, domain): a balanced Feistel network over the smallest even bit width
+// covering the domain, with cycle-walking to stay inside it. Sequential ids come out looking
+// random, yet two ids can never map to the same value.
+public class FeistelPermutation {
+
+    private static final int ROUNDS = 4;
+
+    private final long domain;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] roundKeys = new long[ROUNDS];
+
+    public FeistelPermutation(long domain, long key) {
+        int bits = 64 - Long.numberOfLeadingZeros(domain - 1);
+        if (bits % 2 == 1) bits++;
+
+        this.domain = domain;
+        this.halfBits = bits / 2;
+        this.halfMask = (1L << halfBits) - 1;
+        for (int i = 0; i < ROUNDS; i++) {
+            roundKeys[i] = mix(key + i);
+        }
+    }
+
+    public long permute(long value) {
+        long result = value;
+        do {
+            result = encrypt(result);
+        } while (result >= domain);
+        return result;
+    }
+
+    // Maps a permuted value back to the value it came from
+    public long inverse(long value) {
+        long result = value;
+        do {
+            result = decrypt(result);
+        } while (result >= domain);
+        return result;
+    }
+
+    private long encrypt(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (long roundKey : roundKeys) {
+            long next = left ^ (mix(right ^ roundKey) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private long decrypt(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (int i = ROUNDS - 1; i >= 0; i--) {
+            long previous = right ^ (mix(left ^ roundKeys[i]) & halfMask);
+            right = left;
+            left = previous;
+        }
+        return (left << halfBits) | right;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,7 @@
+package com.shivam.urlshortenerservice.generators;
+
+// Hands out disjoint blocks of ids shared by every node
+public interface IdRangeSource {
+    // Returns the first id of a newly reserved block of size ids
+    long reserve(long size);
+}
@@ -0,0 +1,141 @@
+package com.shivam.urlshortenerservice.generators;
+
+import com.shivam.urlshortenerservice.caches.RedisCircuitBreaker;
+import com.shivam.urlshortenerservice.utils.ThreadUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Keeps codes from the wrapped generator ready in memory so a create just pops one. A
+// background filler tops the pool back up to size whenever it drops below lowWatermark (and
+// on every refill interval). With a shared Redis set, nodes fill it up to redisSize and take
+// codes from it with SPOP, which never hands the same code to two nodes. When the pool is
+// empty the code is generated inline as before.
+public class PooledShortCodeGenerator implements ShortCodeGenerator, AutoCloseable {
+
+    public static final String REDIS_POOL_KEY = "short-code:pool";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PooledShortCodeGenerator.class);
+    private static final int REFILL_BATCH_SIZE = 500;
+
+    private final ShortCodeGenerator delegate;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker redisBreaker;
+    private final int size;
+    private final int lowWatermark;
+    private final long refillIntervalMillis;
+    private final boolean redisEnabled;
+    private final long redisSize;
+
+    private final BlockingQueue<String> pool;
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final Counter fallbackCounter;
+    private final ScheduledExecutorService executor;
+
+    public PooledShortCodeGenerator(ShortCodeGenerator delegate, StringRedisTemplate redisTemplate,
+                                    RedisCircuitBreaker redisBreaker, MeterRegistry meterRegistry,
+                                    int size, int lowWatermark, long refillIntervalMillis,
+                                    boolean redisEnabled, long redisSize, boolean virtualThreads) {
+        this.delegate = delegate;
+        this.redisTemplate = redisTemplate;
+        this.redisBreaker = redisBreaker;
+        this.size = size;
+        this.lowWatermark = lowWatermark;
+        this.refillIntervalMillis = refillIntervalMillis;
+        this.redisEnabled = redisEnabled;
+        this.redisSize = redisSize;
+        this.pool = new ArrayBlockingQueue<>(size);
+        this.executor = Executors.newSingleThreadScheduledExecutor(ThreadUtils.newThreadFactory("short-code-pool-", virtualThreads));
+
+        this.fallbackCounter = meterRegistry.counter("short-codes.pool.fallback");
+        Gauge.builder("short-codes.pool.depth", pool, BlockingQueue::size).register(meterRegistry);
+        if (redisEnabled) {
+            Gauge.builder("short-codes.pool.redis-depth", this, PooledShortCodeGenerator::redisDepth).register(meterRegistry);
+        }
+    }
+
+    public void start() {
+        executor.scheduleWithFixedDelay(this::refill, 0, refillIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String nextCode() {
+        String code = pool.poll();
+        if (pool.size() < lowWatermark && !refilling.get() && !executor.isShutdown()) {
+            try {
+                executor.execute(this::refill);
+            } catch (RejectedExecutionException ex) {
+                // Closed in the meantime; codes are generated inline from now on
+            }
+        }
+
+        if (code != null) return code;
+
+        fallbackCounter.increment();
+        return delegate.nextCode();
+    }
+
+    private void refill() {
+        if (!refilling.compareAndSet(false, true)) return;
+        try {
+            if (redisEnabled) topUpRedis();
+
+            int missing = size - pool.size();
+            while (missing > 0) {
+                List<String> codes = takeCodes(Math.min(missing, REFILL_BATCH_SIZE));
+                for (String code : codes) {
+                    if (!pool.offer(code)) break;
+                }
+                missing = size - pool.size();
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Could not refill the short code pool", ex);
+        } finally {
+            refilling.set(false);
+        }
+    }
+
+    private List<String> takeCodes(int count) {
+        if (redisEnabled) {
+            List<String> codes = redisBreaker.call(() -> redisTemplate.opsForSet().pop(REDIS_POOL_KEY, count), () -> null);
+            if (codes != null && !codes.isEmpty()) return codes;
+        }
+        return delegate.nextCodes(count);
+    }
+
+    private void topUpRedis() {
+        Long depth = redisBreaker.call(() -> redisTemplate.opsForSet().size(REDIS_POOL_KEY), () -> null);
+        if (depth == null) return;
+
+        long missing = redisSize - depth;
+        while (missing > 0) {
+            String[] codes = delegate.nextCodes((int) Math.min(missing, REFILL_BATCH_SIZE)).toArray(String[]::new);
+            Long added = redisBreaker.call(() -> redisTemplate.opsForSet().add(REDIS_POOL_KEY, codes), () -> null);
+            if (added == null) return;
+            missing -= codes.length;
+        }
+    }
+
+    // Read on every scrape, as other nodes SPOP from the set between refills
+    private double redisDepth() {
+        Long depth = redisBreaker.call(() -> redisTemplate.opsForSet().size(REDIS_POOL_KEY), () -> null);
+        return depth != null ? depth : Double.NaN;
+    }
+}
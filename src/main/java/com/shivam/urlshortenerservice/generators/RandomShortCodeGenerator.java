@@ -0,0 +1,56 @@
+package com.shivam.urlshortenerservice.generators;
+
+import com.shivam.urlshortenerservice.repositories.ShortUrlRepository;
+import com.shivam.urlshortenerservice.sharding.ShardRouter;
+import com.shivam.urlshortenerservice.utils.ShortUrlUtil;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Random codes checked against MySQL, retrying until a free one turns up
+public class RandomShortCodeGenerator implements ShortCodeGenerator {
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final ShardRouter shardRouter;
+    private final int length;
+
+    public RandomShortCodeGenerator(ShortUrlRepository shortUrlRepository, ShardRouter shardRouter, int length) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.shardRouter = shardRouter;
+        this.length = length;
+    }
+
+    @Override
+    public String nextCode() {
+        String code;
+        do {
+            code = ShortUrlUtil.generateRandomCode(length);
+        } while (exists(code));
+        return code;
+    }
+
+    // Checks a whole batch of candidates with one query instead of one round trip per code
+    @Override
+    public List<String> nextCodes(int count) {
+        Set<String> codes = new LinkedHashSet<>(count);
+        while (codes.size() < count) {
+            Set<String> candidates = new LinkedHashSet<>();
+            while (candidates.size() < count - codes.size()) {
+                candidates.add(ShortUrlUtil.generateRandomCode(length));
+            }
+            // A code can only clash on the shard it routes to
+            for (Map.Entry<Integer, List<String>> group : shardRouter.groupByShard(candidates, code -> code).entrySet()) {
+                candidates.removeAll(shardRouter.onShard(group.getKey(), () -> shortUrlRepository.findExistingShortCodes(group.getValue())));
+            }
+            codes.addAll(candidates);
+        }
+        return new ArrayList<>(codes);
+    }
+
+    private boolean exists(String code) {
+        return shardRouter.onShardFor(code, () -> shortUrlRepository.existsByShortCode(code));
+    }
+}
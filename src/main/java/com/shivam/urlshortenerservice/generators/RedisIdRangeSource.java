@@ -0,0 +1,22 @@
+package com.shivam.urlshortenerservice.generators;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+// The counter key must survive restarts (AOF/RDB persistence), or blocks would be handed out twice
+public class RedisIdRangeSource implements IdRangeSource {
+
+    private static final String COUNTER_KEY = "short-code:counter";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisIdRangeSource(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public long reserve(long size) {
+        Long end = redisTemplate.opsForValue().increment(COUNTER_KEY, size);
+        if (end == null) throw new IllegalStateException("Could not reserve a short code range from Redis");
+        return end - size;
+    }
+}
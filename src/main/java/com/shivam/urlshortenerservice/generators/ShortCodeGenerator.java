@@ -0,0 +1,16 @@
+package com.shivam.urlshortenerservice.generators;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public interface ShortCodeGenerator {
+    String nextCode();
+
+    default List<String> nextCodes(int count) {
+        List<String> codes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            codes.add(nextCode());
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,6 @@
+package com.shivam.urlshortenerservice.generators;
+
+public enum ShortCodeGeneratorType {
+    RANDOM,
+    COUNTER
+}
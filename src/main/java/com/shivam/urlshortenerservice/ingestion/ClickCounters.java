@@ -0,0 +1,176 @@
+package com.shivam.urlshortenerservice.ingestion;
+
+import com.shivam.urlshortenerservice.caches.RedisCircuitBreaker;
+import com.shivam.urlshortenerservice.repositories.ClickCounterJdbcRepository;
+import com.shivam.urlshortenerservice.sharding.ShardRouter;
+import com.shivam.urlshortenerservice.utils.ThreadUtils;
+import com.shivam.urlshortenerservice.workloads.Workload;
+import com.shivam.urlshortenerservice.workloads.WorkloadRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Per-link click totals kept current as clicks are ingested, so reading one is a Redis HGET
+// instead of a COUNT over click_events. Written clicks go to a striped LongAdder per link; every
+// flush interval the deltas are added to click_counters on the link's shard (the source of truth)
+// and the new totals are copied into the click:totals hash. Clicks a node counted but had not
+// flushed when it died are missing from the totals until ClickCounterReconciler repairs them.
+@Component
+public class ClickCounters {
+
+    public static final String REDIS_KEY = "click:totals";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClickCounters.class);
+
+    private final ClickCounterJdbcRepository clickCounterJdbcRepository;
+    private final ShardRouter shardRouter;
+    private final WorkloadRouter workloadRouter;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker redisBreaker;
+    private final long flushIntervalMillis;
+    private final boolean virtualThreads;
+    private final Counter flushedCounter;
+    private final Counter flushFailedCounter;
+    private final ConcurrentHashMap<Long, PendingClicks> pending = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService executor;
+
+    public ClickCounters(ClickCounterJdbcRepository clickCounterJdbcRepository, ShardRouter shardRouter,
+                         WorkloadRouter workloadRouter, StringRedisTemplate redisTemplate,
+                         RedisCircuitBreaker redisBreaker, MeterRegistry meterRegistry,
+                         @Value("${shortener.click-counters.flush-interval-ms:1000}") long flushIntervalMillis,
+                         @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.clickCounterJdbcRepository = clickCounterJdbcRepository;
+        this.shardRouter = shardRouter;
+        this.workloadRouter = workloadRouter;
+        this.redisTemplate = redisTemplate;
+        this.redisBreaker = redisBreaker;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.virtualThreads = virtualThreads;
+        this.flushedCounter = meterRegistry.counter("clicks.counters.flushed");
+        this.flushFailedCounter = meterRegistry.counter("clicks.counters.flush-failed");
+        Gauge.builder("clicks.counters.pending-links", pending, Map::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(ThreadUtils.newThreadFactory("click-counters-", virtualThreads));
+        executor.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Click ingestion stops before this bean is destroyed, so the last flush sees every written click
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    public void add(String shortCode, long shortUrlId, long clicks) {
+        pending.computeIfAbsent(shortUrlId, id -> new PendingClicks(shortCode)).clicks().add(clicks);
+    }
+
+    // loadCount reads the link's row from click_counters when the hash does not have it
+    public long get(String shortCode, LongSupplier loadCount) {
+        String cached = redisBreaker.call(() -> redisTemplate.<String, String>opsForHash().get(REDIS_KEY, shortCode), () -> null);
+        if (cached != null) return Long.parseLong(cached);
+
+        long count = loadCount.getAsLong();
+        redisBreaker.write(REDIS_KEY + ":" + shortCode, () -> redisTemplate.opsForHash().putIfAbsent(REDIS_KEY, shortCode, String.valueOf(count)));
+        return count;
+    }
+
+    // For links whose rows were purged or archived, so a reused code does not inherit their total
+    public void forget(Collection<String> shortCodes) {
+        if (shortCodes.isEmpty()) return;
+        redisBreaker.writeCritical(REDIS_KEY + ":" + String.join(",", shortCodes),
+                () -> redisTemplate.opsForHash().delete(REDIS_KEY, shortCodes.toArray()));
+    }
+
+    void flush() {
+        Map<Long, PendingClicks> links = new HashMap<>();
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Map.Entry<Long, PendingClicks> entry : pending.entrySet()) {
+            PendingClicks link = entry.getValue();
+            long clicks = link.clicks().sumThenReset();
+            if (clicks == 0) {
+                // Idle for a whole interval: drop the entry, keeping anything added while it was removed
+                if (!pending.remove(entry.getKey(), link)) continue;
+                clicks = link.clicks().sumThenReset();
+                if (clicks == 0) continue;
+            }
+            links.put(entry.getKey(), link);
+            deltas.put(entry.getKey(), clicks);
+        }
+        if (deltas.isEmpty()) return;
+
+        shardRouter.groupByShard(deltas.keySet(), id -> links.get(id).shortCode()).forEach((shard, ids) -> {
+            Map<Long, Long> shardDeltas = new HashMap<>();
+            ids.forEach(id -> shardDeltas.put(id, deltas.get(id)));
+            try {
+                Map<Long, Long> totals = shardRouter.onShard(shard, () -> workloadRouter.call(Workload.INGESTION, () -> {
+                    clickCounterJdbcRepository.add(shardDeltas);
+                    return clickCounterJdbcRepository.findCounts(shardDeltas.keySet());
+                }));
+                flushedCounter.increment(shardDeltas.values().stream().mapToLong(Long::longValue).sum());
+                cacheTotals(totals, links);
+            } catch (RuntimeException ex) {
+                // Put the clicks back so the next flush retries them
+                flushFailedCounter.increment();
+                LOGGER.warn("Could not flush click counters for {} links on shard {}", shardDeltas.size(), shard, ex);
+                shardDeltas.forEach((id, clicks) -> add(links.get(id).shortCode(), id, clicks));
+            }
+        });
+    }
+
+    // Totals are read back from the table rather than incremented in Redis, so a hash that missed
+    // an update (or was flushed) is corrected by the link's next flush
+    private void cacheTotals(Map<Long, Long> totals, Map<Long, PendingClicks> links) {
+        List<Map.Entry<String, String>> entries = new ArrayList<>(totals.size());
+        totals.forEach((id, total) -> entries.add(Map.entry(links.get(id).shortCode(), String.valueOf(total))));
+
+        Boolean cached = redisBreaker.call(() -> {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (Map.Entry<String, String> entry : entries) {
+                    stringConnection.hSet(REDIS_KEY, entry.getKey(), entry.getValue());
+                }
+                return null;
+            });
+            return Boolean.TRUE;
+        }, () -> Boolean.FALSE);
+
+        if (!cached) {
+            entries.forEach(entry -> redisBreaker.write(REDIS_KEY + ":" + entry.getKey(),
+                    () -> redisTemplate.opsForHash().put(REDIS_KEY, entry.getKey(), entry.getValue())));
+        }
+    }
+
+    private record PendingClicks(String shortCode, LongAdder clicks) {
+
+        PendingClicks(String shortCode) {
+            this(shortCode, new LongAdder());
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.shivam.urlshortenerservice.ingestion;
+
+import com.shivam.urlshortenerservice.ingestion.UniqueVisitors.Visit;
+import com.shivam.urlshortenerservice.models.ClickEvent;
+import com.shivam.urlshortenerservice.models.ShortUrl;
+import com.shivam.urlshortenerservice.models.State;
+import com.shivam.urlshortenerservice.repositories.ClickEventJdbcRepository;
+import com.shivam.urlshortenerservice.repositories.ShortUrlRepository;
+import com.shivam.urlshortenerservice.sharding.ShardRouter;
+import com.shivam.urlshortenerservice.workloads.Workload;
+import com.shivam.urlshortenerservice.workloads.WorkloadRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import nl.basjes.parse.useragent.UserAgent;
+import nl.basjes.parse.useragent.UserAgentAnalyzer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+public class ClickEventWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClickEventWriter.class);
+    private static final int MAX_COLUMN_LENGTH = 255;
+    // A link may expire between its redirect and the write; its clicks still count
+    private static final List<State> CLICKABLE_STATES = List.of(State.ACTIVE, State.EXPIRED);
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final ClickEventJdbcRepository clickEventJdbcRepository;
+    private final UserAgentAnalyzer userAgentAnalyzer;
+    private final ShardRouter shardRouter;
+    private final WorkloadRouter workloadRouter;
+    private final ClickCounters clickCounters;
+    private final TopClickedSketch topClickedSketch;
+    private final UniqueVisitors uniqueVisitors;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+
+    public ClickEventWriter(ShortUrlRepository shortUrlRepository, ClickEventJdbcRepository clickEventJdbcRepository,
+                            UserAgentAnalyzer userAgentAnalyzer, ShardRouter shardRouter, WorkloadRouter workloadRouter, ClickCounters clickCounters,
+                            TopClickedSketch topClickedSketch, UniqueVisitors uniqueVisitors, MeterRegistry meterRegistry) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.clickEventJdbcRepository = clickEventJdbcRepository;
+        this.userAgentAnalyzer = userAgentAnalyzer;
+        this.shardRouter = shardRouter;
+        this.workloadRouter = workloadRouter;
+        this.clickCounters = clickCounters;
+        this.topClickedSketch = topClickedSketch;
+        this.uniqueVisitors = uniqueVisitors;
+        this.writtenCounter = meterRegistry.counter("clicks.ingest.written");
+        this.failedCounter = meterRegistry.counter("clicks.ingest.failed");
+    }
+
+    // Clicks are written to their link's shard, where the short_url_id they carry belongs,
+    // through the ingestion pool so a click backlog cannot take the redirects' connections
+    public void write(List<RawClick> clicks) {
+        for (Map.Entry<Integer, List<RawClick>> group : shardRouter.groupByShard(clicks, RawClick::shortCode).entrySet()) {
+            shardRouter.runOnShard(group.getKey(), () -> workloadRouter.run(Workload.INGESTION, () -> writeShard(group.getValue())));
+        }
+    }
+
+    private void writeShard(List<RawClick> clicks) {
+        Map<String, Long> shortUrlIds = resolveShortUrlIds(clicks);
+
+        List<ClickEvent> clickEvents = new ArrayList<>(clicks.size());
+        List<String> shortCodes = new ArrayList<>(clicks.size());
+        for (RawClick click : clicks) {
+            Long shortUrlId = shortUrlIds.get(click.shortCode());
+            if (shortUrlId == null || (click.shortUrlId() != null && !click.shortUrlId().equals(shortUrlId))) {
+                LOGGER.debug("Skipping click for unknown, deleted or replaced short code {}", click.shortCode());
+                continue;
+            }
+            clickEvents.add(toClickEvent(click, shortUrlId));
+            shortCodes.add(click.shortCode());
+        }
+
+        if (clickEvents.isEmpty()) return;
+
+        List<Integer> stored = insert(clickEvents);
+        if (stored.isEmpty()) return;
+
+        // The events are stored by now, so a failure below must not count them as failed or get the
+        // batch written again; each side effect is tried on its own and only logged
+        Map<String, Long> clicksPerCode = new HashMap<>();
+        List<Visit> visits = new ArrayList<>(stored.size());
+        for (int i : stored) {
+            clicksPerCode.merge(shortCodes.get(i), 1L, Long::sum);
+            ClickEvent clickEvent = clickEvents.get(i);
+            visits.add(new Visit(shortCodes.get(i), clickEvent.getIpAddress(),
+                    clickEvent.getClickedAt().toInstant().atZone(ZoneId.systemDefault()).toLocalDate()));
+        }
+        try {
+            for (int i : stored) {
+                clickCounters.add(shortCodes.get(i), clickEvents.get(i).getShortUrl().getId(), 1);
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Could not count {} written clicks", stored.size(), ex);
+        }
+        try {
+            // One offer per link per batch keeps the sketch's lock out of the per-click path
+            clicksPerCode.forEach(topClickedSketch::add);
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Could not add {} written clicks to the top clicked sketch", stored.size(), ex);
+        }
+        try {
+            uniqueVisitors.add(visits);
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Could not record unique visitors for {} written clicks", stored.size(), ex);
+        }
+    }
+
+    // Returns the indexes of the events stored. A link removed after the id lookup fails the whole
+    // batch on the click_events foreign key, which rolls it back, so the batch is retried row by
+    // row and only that link's clicks are dropped
+    private List<Integer> insert(List<ClickEvent> clickEvents) {
+        List<Integer> stored = new ArrayList<>(clickEvents.size());
+        try {
+            clickEventJdbcRepository.batchInsert(clickEvents);
+            for (int i = 0; i < clickEvents.size(); i++) stored.add(i);
+        } catch (DataIntegrityViolationException ex) {
+            LOGGER.warn("Click batch of {} violated a constraint, writing it row by row", clickEvents.size(), ex);
+            try {
+                for (int i = 0; i < clickEvents.size(); i++) {
+                    try {
+                        clickEventJdbcRepository.batchInsert(List.of(clickEvents.get(i)));
+                        stored.add(i);
+                    } catch (DataIntegrityViolationException rowEx) {
+                        LOGGER.debug("Dropping click for short url {}", clickEvents.get(i).getShortUrl().getId(), rowEx);
+                    }
+                }
+            } finally {
+                writtenCounter.increment(stored.size());
+                failedCounter.increment(clickEvents.size() - stored.size());
+            }
+            return stored;
+        } catch (RuntimeException ex) {
+            failedCounter.increment(clickEvents.size());
+            throw ex;
+        }
+        writtenCounter.increment(stored.size());
+        return stored;
+    }
+
+    // Every code in the batch is looked up with one query, also those whose click carries the id
+    // from the cache entry: a link purged or archived after it was cached would otherwise fail the
+    // whole multi-row insert on the click_events foreign key
+    private Map<String, Long> resolveShortUrlIds(List<RawClick> clicks) {
+        Set<String> shortCodes = clicks.stream()
+                .map(RawClick::shortCode)
+                .collect(Collectors.toSet());
+
+        Map<String, Long> shortUrlIds = new HashMap<>();
+        if (shortCodes.isEmpty()) return shortUrlIds;
+
+        for (Object[] row : shortUrlRepository.findIdsByShortCodes(shortCodes, CLICKABLE_STATES)) {
+            shortUrlIds.put((String) row[0], (Long) row[1]);
+        }
+        return shortUrlIds;
+    }
+
+    private ClickEvent toClickEvent(RawClick click, long shortUrlId) {
+        UserAgent userAgent = userAgentAnalyzer.parse(click.userAgent());
+        String referrer = (click.referrer() == null || click.referrer().isBlank()) ? "Direct" : click.referrer();
+
+        ShortUrl shortUrl = new ShortUrl();
+        shortUrl.setId(shortUrlId);
+
+        return ClickEvent.builder()
+                .clickedAt(click.clickedAt())
+                .ipAddress(truncate(click.ipAddress()))
+                .browser(truncate(userAgent.getValue(UserAgent.AGENT_NAME)))
+                .operatingSystem(truncate(userAgent.getValue(UserAgent.OPERATING_SYSTEM_NAME)))
+                .deviceType(truncate(userAgent.getValue(UserAgent.DEVICE_CLASS)))
+                .referrer(truncate(referrer))
+                .shortUrl(shortUrl)
+                .build();
+    }
+
+    // A single oversized value would otherwise fail the whole multi-row insert
+    private static String truncate(String value) {
+        return value != null && value.length() > MAX_COLUMN_LENGTH ? value.substring(0, MAX_COLUMN_LENGTH) : value;
+    }
+}
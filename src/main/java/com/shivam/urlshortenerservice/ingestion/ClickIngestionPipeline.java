@@ -0,0 +1,150 @@
+package com.shivam.urlshortenerservice.ingestion;
+
+import com.shivam.urlshortenerservice.utils.ThreadUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Takes clicks off the redirect path: requests only enqueue, background workers drain
+// the queue and hand batches of up to flushSize (or whatever arrived within flushInterval)
+// to the writer.
+@Component
+public class ClickIngestionPipeline {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClickIngestionPipeline.class);
+
+    private final ClickEventWriter clickEventWriter;
+    private final BlockingQueue<RawClick> queue;
+    private final int workers;
+    private final int flushSize;
+    private final long flushIntervalNanos;
+    private final QueueFullPolicy queueFullPolicy;
+    private final long blockTimeoutMillis;
+    private final long shutdownTimeoutMillis;
+    private final boolean virtualThreads;
+    private final Counter droppedCounter;
+
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    public ClickIngestionPipeline(ClickEventWriter clickEventWriter, MeterRegistry meterRegistry,
+                                  @Value("${shortener.clicks.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${shortener.clicks.workers:2}") int workers,
+                                  @Value("${shortener.clicks.flush-size:500}") int flushSize,
+                                  @Value("${shortener.clicks.flush-interval-ms:1000}") long flushIntervalMillis,
+                                  @Value("${shortener.clicks.queue-full-policy:DROP}") QueueFullPolicy queueFullPolicy,
+                                  @Value("${shortener.clicks.block-timeout-ms:50}") long blockTimeoutMillis,
+                                  @Value("${shortener.clicks.shutdown-timeout-ms:10000}") long shutdownTimeoutMillis,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.clickEventWriter = clickEventWriter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workers = workers;
+        this.flushSize = flushSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.queueFullPolicy = queueFullPolicy;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.virtualThreads = virtualThreads;
+
+        this.droppedCounter = meterRegistry.counter("clicks.ingest.dropped");
+        Gauge.builder("clicks.ingest.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        executor = Executors.newFixedThreadPool(workers, ThreadUtils.newThreadFactory("click-ingest-", virtualThreads));
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::runWorker);
+        }
+    }
+
+    public void submit(RawClick click) {
+        if (!running) {
+            droppedCounter.increment();
+            LOGGER.warn("Click ingestion is shut down, dropping click for {}", click.shortCode());
+            return;
+        }
+
+        boolean accepted;
+        if (queueFullPolicy == QueueFullPolicy.BLOCK) {
+            try {
+                accepted = queue.offer(click, blockTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+        } else {
+            accepted = queue.offer(click);
+        }
+
+        if (!accepted) {
+            droppedCounter.increment();
+            LOGGER.debug("Click queue is full, dropping click for {}", click.shortCode());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            LOGGER.warn("Click ingestion did not drain within {} ms, {} clicks lost", shutdownTimeoutMillis, queue.size());
+            executor.shutdownNow();
+        }
+    }
+
+    private void runWorker() {
+        List<RawClick> batch = new ArrayList<>(flushSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                fillBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queue.drainTo(batch);
+                flush(batch);
+                return;
+            }
+            flush(batch);
+        }
+    }
+
+    private void fillBatch(List<RawClick> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < flushSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return;
+
+            RawClick click = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (click == null) return;
+
+            batch.add(click);
+            queue.drainTo(batch, flushSize - batch.size());
+        }
+    }
+
+    private void flush(List<RawClick> batch) {
+        if (batch.isEmpty()) return;
+        try {
+            clickEventWriter.write(batch);
+        } catch (RuntimeException ex) {
+            LOGGER.error("Failed to write batch of {} clicks", batch.size(), ex);
+        } finally {
+            batch.clear();
+        }
+    }
+}
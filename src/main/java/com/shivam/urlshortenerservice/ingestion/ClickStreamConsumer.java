@@ -0,0 +1,265 @@
+package com.shivam.urlshortenerservice.ingestion;
+
+import com.shivam.urlshortenerservice.caches.CachedShortUrl;
+import com.shivam.urlshortenerservice.utils.ThreadUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Drains clicks appended to the Redis stream by the redirect script into click_events.
+// Entries are acknowledged only after they are written, and a restarted consumer first replays
+// whatever it had read but not acknowledged. A batch that fails is written again entry by entry;
+// an entry that cannot be decoded, or is still failing after max-deliveries, moves to the
+// dead-letter stream so one bad entry cannot hold up the rest. Entries left pending by consumers
+// that are gone (pods get new host names) are claimed once idle for reclaim-min-idle-ms. Runs when
+// enabled, or by default (consumer-enabled=auto) on nodes in LUA redirect mode, so the clicks they
+// stream are not lost.
+@Component
+@ConditionalOnExpression("'${shortener.clicks.stream.consumer-enabled:auto}' == 'true' or "
+        + "('${shortener.clicks.stream.consumer-enabled:auto}' == 'auto' and '${shortener.redirect.mode:STANDARD}' == 'LUA')")
+public class ClickStreamConsumer {
+
+    public static final String STREAM_KEY = "clicks:stream";
+    public static final String CONSUMER_GROUP = "click-ingest";
+    public static final String DEAD_LETTER_KEY = "clicks:stream:dead-letter";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClickStreamConsumer.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ClickEventWriter clickEventWriter;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final long maxDeliveries;
+    private final long reclaimMinIdleMillis;
+    private final long reclaimIntervalMillis;
+    private final long maxLength;
+    private final boolean virtualThreads;
+    private final Consumer consumer;
+    private final Counter deadLetteredCounter;
+
+    private ScheduledExecutorService executor;
+    private volatile boolean replayPending = true;
+    private long nextReclaimAt;
+
+    public ClickStreamConsumer(StringRedisTemplate redisTemplate, ClickEventWriter clickEventWriter, MeterRegistry meterRegistry,
+                               @Value("${shortener.clicks.stream.batch-size:500}") int batchSize,
+                               @Value("${shortener.clicks.stream.poll-interval-ms:500}") long pollIntervalMillis,
+                               @Value("${shortener.clicks.stream.max-deliveries:5}") long maxDeliveries,
+                               @Value("${shortener.clicks.stream.reclaim-min-idle-ms:300000}") long reclaimMinIdleMillis,
+                               @Value("${shortener.clicks.stream.reclaim-interval-ms:60000}") long reclaimIntervalMillis,
+                               @Value("${shortener.clicks.stream.max-length:1000000}") long maxLength,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.redisTemplate = redisTemplate;
+        this.clickEventWriter = clickEventWriter;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.maxDeliveries = maxDeliveries;
+        this.reclaimMinIdleMillis = reclaimMinIdleMillis;
+        this.reclaimIntervalMillis = reclaimIntervalMillis;
+        this.maxLength = maxLength;
+        this.virtualThreads = virtualThreads;
+        this.consumer = Consumer.from(CONSUMER_GROUP, consumerName());
+        this.deadLetteredCounter = meterRegistry.counter("clicks.stream.dead-lettered");
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            redisTemplate.opsForStream().createGroup(STREAM_KEY, ReadOffset.from("0"), CONSUMER_GROUP);
+        } catch (RedisSystemException ex) {
+            LOGGER.debug("Consumer group {} already exists", CONSUMER_GROUP);
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(ThreadUtils.newThreadFactory("click-stream-", virtualThreads));
+        executor.scheduleWithFixedDelay(this::drain, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // Keeps reading until the stream has nothing new for this consumer or an entry failed
+    void drain() {
+        try {
+            reclaimAbandoned();
+            int read;
+            do {
+                read = consumeBatch();
+            } while (read == batchSize);
+        } catch (RuntimeException ex) {
+            // The failed batch stays pending; read it again on the next poll
+            replayPending = true;
+            LOGGER.error("Failed to consume click stream", ex);
+        }
+    }
+
+    // Returns how many entries were read, or 0 when one is left pending so the next poll retries it
+    private int consumeBatch() {
+        StreamOperations<String, String, String> streamOps = redisTemplate.opsForStream();
+        boolean replay = replayPending;
+        ReadOffset offset = replay ? ReadOffset.from("0") : ReadOffset.lastConsumed();
+
+        List<MapRecord<String, String, String>> records = streamOps.read(consumer,
+                StreamReadOptions.empty().count(batchSize), StreamOffset.create(STREAM_KEY, offset));
+        if (records == null || records.isEmpty()) {
+            replayPending = false;
+            return 0;
+        }
+
+        // Only replayed entries can have been delivered before
+        Map<RecordId, Long> deliveries = replay ? deliveryCounts(streamOps, records) : Map.of();
+        List<MapRecord<String, String, String>> decoded = new ArrayList<>(records.size());
+        List<RawClick> clicks = new ArrayList<>(records.size());
+        for (MapRecord<String, String, String> record : records) {
+            long delivered = deliveries.getOrDefault(record.getId(), 1L);
+            if (delivered > maxDeliveries) {
+                deadLetter(streamOps, record, "delivered " + delivered + " times");
+                continue;
+            }
+            try {
+                clicks.add(toRawClick(record.getValue()));
+                decoded.add(record);
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Could not decode click stream entry {}", record.getId(), ex);
+                deadLetter(streamOps, record, "malformed");
+            }
+        }
+        if (clicks.isEmpty()) return records.size();
+
+        try {
+            clickEventWriter.write(clicks);
+            acknowledge(streamOps, decoded);
+            return records.size();
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Failed to write {} streamed clicks, writing them one by one", clicks.size(), ex);
+        }
+
+        boolean failed = false;
+        for (int i = 0; i < clicks.size(); i++) {
+            try {
+                clickEventWriter.write(List.of(clicks.get(i)));
+                acknowledge(streamOps, List.of(decoded.get(i)));
+            } catch (RuntimeException ex) {
+                failed = true;
+                LOGGER.warn("Failed to write streamed click {}", decoded.get(i).getId(), ex);
+            }
+        }
+        if (failed) {
+            replayPending = true;
+            return 0;
+        }
+        return records.size();
+    }
+
+    private Map<RecordId, Long> deliveryCounts(StreamOperations<String, String, String> streamOps,
+                                               List<MapRecord<String, String, String>> records) {
+        Range<String> range = Range.closed(records.get(0).getId().getValue(), records.get(records.size() - 1).getId().getValue());
+        PendingMessages pending = streamOps.pending(STREAM_KEY, consumer, range, records.size());
+
+        Map<RecordId, Long> deliveries = new HashMap<>();
+        if (pending != null) {
+            pending.forEach(message -> deliveries.put(message.getId(), message.getTotalDeliveryCount()));
+        }
+        return deliveries;
+    }
+
+    private void deadLetter(StreamOperations<String, String, String> streamOps, MapRecord<String, String, String> record, String reason) {
+        Map<String, String> fields = new HashMap<>(record.getValue());
+        fields.put("id", record.getId().getValue());
+        fields.put("reason", reason);
+        streamOps.add(DEAD_LETTER_KEY, fields, XAddOptions.maxlen(maxLength).approximateTrimming(true));
+        acknowledge(streamOps, List.of(record));
+        deadLetteredCounter.increment();
+        LOGGER.warn("Moved click stream entry {} to {}: {}", record.getId(), DEAD_LETTER_KEY, reason);
+    }
+
+    private static void acknowledge(StreamOperations<String, String, String> streamOps, List<MapRecord<String, String, String>> records) {
+        RecordId[] recordIds = records.stream().map(MapRecord::getId).toArray(RecordId[]::new);
+        streamOps.acknowledge(STREAM_KEY, CONSUMER_GROUP, recordIds);
+        streamOps.delete(STREAM_KEY, recordIds);
+    }
+
+    // XPENDING + XCLAIM (what XAUTOCLAIM does in one call): entries another consumer has held for
+    // reclaim-min-idle-ms are taken over and replayed here. XCLAIM re-checks the idle time, so two
+    // nodes claiming at once cannot both get an entry
+    private void reclaimAbandoned() {
+        long now = System.currentTimeMillis();
+        if (now < nextReclaimAt) return;
+        nextReclaimAt = now + reclaimIntervalMillis;
+
+        StreamOperations<String, String, String> streamOps = redisTemplate.opsForStream();
+        PendingMessages pending = streamOps.pending(STREAM_KEY, CONSUMER_GROUP, Range.unbounded(), batchSize);
+        if (pending == null) return;
+
+        RecordId[] abandoned = pending.stream()
+                .filter(message -> !message.getConsumerName().equals(consumer.getName()))
+                .filter(message -> message.getElapsedTimeSinceLastDelivery().toMillis() >= reclaimMinIdleMillis)
+                .map(PendingMessage::getId)
+                .toArray(RecordId[]::new);
+        if (abandoned.length == 0) return;
+
+        List<MapRecord<String, String, String>> claimed = streamOps.claim(STREAM_KEY, CONSUMER_GROUP, consumer.getName(),
+                Duration.ofMillis(reclaimMinIdleMillis), abandoned);
+        if (claimed != null && !claimed.isEmpty()) {
+            LOGGER.info("Claimed {} click stream entries left pending by other consumers", claimed.size());
+            replayPending = true;
+        }
+    }
+
+    private static RawClick toRawClick(Map<String, String> fields) {
+        CachedShortUrl cachedShortUrl = CachedShortUrl.decode(fields.get("entry"));
+        return new RawClick(
+                fields.get("code"),
+                cachedShortUrl != null ? cachedShortUrl.id() : null,
+                emptyToNull(fields.get("ip")),
+                emptyToNull(fields.get("ua")),
+                emptyToNull(fields.get("ref")),
+                new Date(Long.parseLong(fields.get("ts"))));
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static String consumerName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return UUID.randomUUID().toString();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.shivam.urlshortenerservice.ingestion;
+
+public enum QueueFullPolicy {
+    DROP,
+    BLOCK
+}
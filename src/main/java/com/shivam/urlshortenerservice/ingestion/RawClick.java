@@ -0,0 +1,10 @@
+package com.shivam.urlshortenerservice.ingestion;
+
+import java.util.Date;
+
+// A click as captured on the redirect path, before user agent parsing and persistence.
+// shortUrlId is null when the redirect did not leave the link in the local cache; the writer
+// checks it against short_urls before storing the click.
+public record RawClick(String shortCode, Long shortUrlId, String ipAddress, String userAgent, String referrer,
+                       Date clickedAt) {
+}
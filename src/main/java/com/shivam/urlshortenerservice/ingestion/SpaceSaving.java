@@ -0,0 +1,101 @@
+package com.shivam.urlshortenerservice.ingestion;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Space-Saving summary of the most frequent items in a stream, in memory bounded by capacity.
+// When full, a new item replaces the one with the smallest count and inherits that count as its
+// error, so every count is an upper bound that overestimates the true count by at most its error,
+// and an item that is not kept was seen at most as often as the smallest kept count.
+public class SpaceSaving {
+
+    private final int capacity;
+    private final Map<String, Counter> counters = new HashMap<>();
+    // Items by count, so the smallest is found in O(log capacity)
+    private final TreeMap<Long, Set<String>> byCount = new TreeMap<>();
+
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public synchronized void offer(String item, long count) {
+        offer(item, count, 0);
+    }
+
+    // error carries the overestimate of a count taken from another summary
+    public synchronized void offer(String item, long count, long error) {
+        Counter counter = counters.get(item);
+        if (counter == null && counters.size() >= capacity) {
+            Map.Entry<Long, Set<String>> smallest = byCount.firstEntry();
+            String evicted = smallest.getValue().iterator().next();
+            Counter replaced = counters.remove(evicted);
+            unindex(evicted, replaced.count);
+            counter = new Counter(replaced.count, replaced.count);
+            counters.put(item, counter);
+        } else if (counter == null) {
+            counter = new Counter(0, 0);
+            counters.put(item, counter);
+        } else {
+            unindex(item, counter.count);
+        }
+        counter.count += count;
+        counter.error += error;
+        byCount.computeIfAbsent(counter.count, c -> new LinkedHashSet<>()).add(item);
+    }
+
+    public synchronized void remove(Collection<String> items) {
+        for (String item : items) {
+            Counter counter = counters.remove(item);
+            if (counter != null) unindex(item, counter.count);
+        }
+    }
+
+    // Highest count first
+    public synchronized List<Entry> top(int limit) {
+        List<Entry> top = new ArrayList<>(Math.min(limit, counters.size()));
+        for (Map.Entry<Long, Set<String>> bucket : byCount.descendingMap().entrySet()) {
+            for (String item : bucket.getValue()) {
+                if (top.size() == limit) return top;
+                top.add(new Entry(item, bucket.getKey(), counters.get(item).error));
+            }
+        }
+        return top;
+    }
+
+    // Every entry, leaving the summary empty
+    public synchronized List<Entry> drain() {
+        List<Entry> entries = top(counters.size());
+        counters.clear();
+        byCount.clear();
+        return entries;
+    }
+
+    public synchronized int size() {
+        return counters.size();
+    }
+
+    private void unindex(String item, long count) {
+        Set<String> bucket = byCount.get(count);
+        bucket.remove(item);
+        if (bucket.isEmpty()) byCount.remove(count);
+    }
+
+    public record Entry(String item, long count, long error) {
+    }
+
+    private static final class Counter {
+        private long count;
+        private long error;
+
+        private Counter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
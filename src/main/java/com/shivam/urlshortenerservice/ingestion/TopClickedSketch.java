@@ -0,0 +1,188 @@
+package com.shivam.urlshortenerservice.ingestion;
+
+import com.shivam.urlshortenerservice.caches.RedisCircuitBreaker;
+import com.shivam.urlshortenerservice.ingestion.SpaceSaving.Entry;
+import com.shivam.urlshortenerservice.repositories.ClickCounterJdbcRepository;
+import com.shivam.urlshortenerservice.sharding.ShardRouter;
+import com.shivam.urlshortenerservice.utils.ThreadUtils;
+import com.shivam.urlshortenerservice.workloads.Workload;
+import com.shivam.urlshortenerservice.workloads.WorkloadRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Most clicked links, estimated from the click stream instead of a GROUP BY over click_events.
+// Each node counts written clicks in its own Space-Saving summary; every snapshot interval it merges
+// that summary into the shared one in Redis (a sorted set of counts plus a hash of errors) and reads
+// the merged top back into memory, which is what the admin endpoint is served from. The shared
+// summary is seeded once from click_counters, so it starts from the totals rather than from zero.
+@Component
+public class TopClickedSketch {
+
+    public static final String COUNTS_KEY = "top-clicked:counts";
+    public static final String ERRORS_KEY = "top-clicked:errors";
+    private static final String SEEDED_KEY = "top-clicked:seeded";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TopClickedSketch.class);
+    private static final RedisScript<Long> MERGE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/top_clicked_merge.lua"), Long.class);
+
+    private final ClickCounterJdbcRepository clickCounterJdbcRepository;
+    private final ShardRouter shardRouter;
+    private final WorkloadRouter workloadRouter;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker redisBreaker;
+    private final boolean enabled;
+    private final int capacity;
+    private final long snapshotIntervalMillis;
+    private final boolean virtualThreads;
+    private final Counter mergeFailedCounter;
+    private final SpaceSaving local;
+
+    // Null until the shared summary has been read once
+    private volatile List<Entry> snapshot;
+    private ScheduledExecutorService executor;
+
+    public TopClickedSketch(ClickCounterJdbcRepository clickCounterJdbcRepository, ShardRouter shardRouter,
+                            WorkloadRouter workloadRouter, StringRedisTemplate redisTemplate,
+                            RedisCircuitBreaker redisBreaker, MeterRegistry meterRegistry,
+                            @Value("${shortener.top-clicked.sketch-enabled:true}") boolean enabled,
+                            @Value("${shortener.top-clicked.capacity:1000}") int capacity,
+                            @Value("${shortener.top-clicked.snapshot-interval-ms:5000}") long snapshotIntervalMillis,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.clickCounterJdbcRepository = clickCounterJdbcRepository;
+        this.shardRouter = shardRouter;
+        this.workloadRouter = workloadRouter;
+        this.redisTemplate = redisTemplate;
+        this.redisBreaker = redisBreaker;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.snapshotIntervalMillis = snapshotIntervalMillis;
+        this.virtualThreads = virtualThreads;
+        this.mergeFailedCounter = meterRegistry.counter("clicks.top-clicked.merge-failed");
+        this.local = new SpaceSaving(capacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+        executor = Executors.newSingleThreadScheduledExecutor(ThreadUtils.newThreadFactory("top-clicked-", virtualThreads));
+        executor.execute(this::seed);
+        executor.scheduleWithFixedDelay(this::merge, snapshotIntervalMillis, snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Click ingestion stops before this bean is destroyed, so the last merge sees every written click
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (executor == null) return;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        merge();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void add(String shortCode, long clicks) {
+        if (enabled) local.offer(shortCode, clicks);
+    }
+
+    // The top links, highest count first, or null when the sketch cannot answer (disabled, not
+    // read from Redis yet, or asked for more links than it keeps)
+    public List<Entry> top(int count) {
+        List<Entry> current = snapshot;
+        if (!enabled || current == null || count > capacity) return null;
+        return current.subList(0, Math.min(count, current.size()));
+    }
+
+    // For links whose click events were purged or archived, as the exact query no longer counts them
+    public void forget(Collection<String> shortCodes) {
+        if (!enabled || shortCodes.isEmpty()) return;
+        local.remove(shortCodes);
+        redisBreaker.writeCritical(COUNTS_KEY + ":" + String.join(",", shortCodes), () -> {
+            redisTemplate.opsForZSet().remove(COUNTS_KEY, shortCodes.toArray());
+            redisTemplate.opsForHash().delete(ERRORS_KEY, shortCodes.toArray());
+        });
+    }
+
+    void merge() {
+        List<Entry> entries = local.drain();
+        if (!entries.isEmpty()) {
+            List<String> args = new ArrayList<>(1 + entries.size() * 3);
+            args.add(String.valueOf(capacity));
+            for (Entry entry : entries) {
+                args.add(entry.item());
+                args.add(String.valueOf(entry.count()));
+                args.add(String.valueOf(entry.error()));
+            }
+            Long merged = redisBreaker.call(() -> redisTemplate.execute(MERGE_SCRIPT, List.of(COUNTS_KEY, ERRORS_KEY), args.toArray()), () -> null);
+            if (merged == null) {
+                // Keep the clicks for the next merge; the summary's bounds hold for re-offered entries
+                mergeFailedCounter.increment();
+                entries.forEach(entry -> local.offer(entry.item(), entry.count(), entry.error()));
+            }
+        }
+        refreshSnapshot();
+    }
+
+    private void refreshSnapshot() {
+        List<Entry> top = redisBreaker.call(() -> {
+            Set<TypedTuple<String>> counts = redisTemplate.opsForZSet().reverseRangeWithScores(COUNTS_KEY, 0, capacity - 1);
+            if (counts == null) return null;
+
+            List<Object> codes = new ArrayList<>(counts.size());
+            counts.forEach(tuple -> codes.add(tuple.getValue()));
+            List<Object> errors = codes.isEmpty() ? List.of() : redisTemplate.opsForHash().multiGet(ERRORS_KEY, codes);
+
+            List<Entry> entries = new ArrayList<>(counts.size());
+            int i = 0;
+            for (TypedTuple<String> tuple : counts) {
+                Object error = errors.get(i++);
+                entries.add(new Entry(tuple.getValue(), tuple.getScore().longValue(), error != null ? Long.parseLong((String) error) : 0));
+            }
+            return entries;
+        }, () -> null);
+        if (top != null) snapshot = top;
+    }
+
+    // One node copies the largest click_counters of every shard into an empty shared summary; the
+    // marker has no expiry, so this runs again only if Redis loses the summary
+    private void seed() {
+        try {
+            Boolean first = redisBreaker.call(() -> redisTemplate.opsForValue().setIfAbsent(SEEDED_KEY, "1"), () -> Boolean.FALSE);
+            if (Boolean.TRUE.equals(first)) {
+                List<Map<String, Long>> shardTops = shardRouter.onEachShard(() -> workloadRouter.call(Workload.ANALYTICS,
+                        () -> clickCounterJdbcRepository.findTopCounts(capacity)));
+                shardTops.stream()
+                        .flatMap(counts -> counts.entrySet().stream())
+                        .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                        .limit(capacity)
+                        .forEach(entry -> local.offer(entry.getKey(), entry.getValue()));
+                LOGGER.info("Seeded top clicked links from click counters");
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Could not seed top clicked links", ex);
+            redisBreaker.call(() -> redisTemplate.delete(SEEDED_KEY), () -> null);
+        }
+        merge();
+    }
+}
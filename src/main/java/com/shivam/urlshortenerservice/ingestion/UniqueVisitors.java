@@ -0,0 +1,136 @@
+package com.shivam.urlshortenerservice.ingestion;
+
+import com.shivam.urlshortenerservice.caches.RedisCircuitBreaker;
+import com.shivam.urlshortenerservice.exceptions.AnalyticsUnavailableException;
+import com.shivam.urlshortenerservice.utils.DateUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Distinct visitors (IP addresses) per link, as Redis HyperLogLogs filled in when clicks are
+// written: one per link per day, kept for retention-days, and one per link for all time. Each
+// estimate takes at most 12KB and is within about 1% of the exact count; a range is the PFCOUNT
+// of its days' sketches, which Redis merges so a visitor seen on several days counts once.
+@Component
+public class UniqueVisitors {
+
+    private static final String KEY_PREFIX = "visitors:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker redisBreaker;
+    private final long retentionDays;
+    private final Counter droppedCounter;
+
+    public UniqueVisitors(StringRedisTemplate redisTemplate, RedisCircuitBreaker redisBreaker, MeterRegistry meterRegistry,
+                          @Value("${shortener.unique-visitors.retention-days:400}") long retentionDays) {
+        this.redisTemplate = redisTemplate;
+        this.redisBreaker = redisBreaker;
+        this.retentionDays = retentionDays;
+        this.droppedCounter = meterRegistry.counter("clicks.unique-visitors.dropped");
+    }
+
+    public long getRetentionDays() {
+        return retentionDays;
+    }
+
+    // Adds a batch of written clicks with one pipelined PFADD per sketch. Visits are not replayed
+    // while Redis is down, so the estimates undercount by the clicks written during an outage
+    public void add(List<Visit> visits) {
+        Map<String, Set<String>> visitorsByKey = new HashMap<>();
+        Set<String> dailyKeys = new HashSet<>();
+        for (Visit visit : visits) {
+            if (visit.visitor() == null) continue;
+            String dailyKey = dailyKey(visit.shortCode(), visit.day());
+            visitorsByKey.computeIfAbsent(dailyKey, key -> new HashSet<>()).add(visit.visitor());
+            visitorsByKey.computeIfAbsent(allTimeKey(visit.shortCode()), key -> new HashSet<>()).add(visit.visitor());
+            dailyKeys.add(dailyKey);
+        }
+        if (visitorsByKey.isEmpty()) return;
+
+        long ttlSeconds = TimeUnit.DAYS.toSeconds(retentionDays);
+        Boolean added = redisBreaker.call(() -> {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                visitorsByKey.forEach((key, visitors) -> stringConnection.pfAdd(key, visitors.toArray(String[]::new)));
+                dailyKeys.forEach(key -> stringConnection.expire(key, ttlSeconds));
+                return null;
+            });
+            return Boolean.TRUE;
+        }, () -> Boolean.FALSE);
+        if (!added) droppedCounter.increment(visits.size());
+    }
+
+    public long countAllTime(String shortCode) {
+        return count(List.of(allTimeKey(shortCode)));
+    }
+
+    // Distinct visitors over the whole range, inclusive
+    public long countRange(String shortCode, LocalDate start, LocalDate end) {
+        List<String> keys = new ArrayList<>();
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            keys.add(dailyKey(shortCode, day));
+        }
+        return count(keys);
+    }
+
+    // Distinct visitors of each day in the range, oldest first, read in one pipeline
+    public Map<LocalDate, Long> countDaily(String shortCode, LocalDate start, LocalDate end) {
+        List<LocalDate> days = new ArrayList<>();
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            days.add(day);
+        }
+
+        List<Object> counts = redisBreaker.call(() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            days.forEach(day -> stringConnection.pfCount(dailyKey(shortCode, day)));
+            return null;
+        }), () -> null);
+        if (counts == null) throw new AnalyticsUnavailableException("Unique visitors are unavailable, try again later");
+
+        Map<LocalDate, Long> daily = new LinkedHashMap<>();
+        for (int i = 0; i < days.size(); i++) {
+            daily.put(days.get(i), (Long) counts.get(i));
+        }
+        return daily;
+    }
+
+    // For links whose click events were purged or archived. Their daily sketches are left to expire,
+    // so a code reused within retention-days starts with the old link's daily visitors
+    public void forget(Collection<String> shortCodes) {
+        if (shortCodes.isEmpty()) return;
+        List<String> keys = shortCodes.stream().map(UniqueVisitors::allTimeKey).toList();
+        redisBreaker.writeCritical(KEY_PREFIX + String.join(",", shortCodes), () -> redisTemplate.delete(keys));
+    }
+
+    private long count(List<String> keys) {
+        Long count = redisBreaker.call(() -> redisTemplate.opsForHyperLogLog().size(keys.toArray(String[]::new)), () -> null);
+        if (count == null) throw new AnalyticsUnavailableException("Unique visitors are unavailable, try again later");
+        return count;
+    }
+
+    private static String allTimeKey(String shortCode) {
+        return KEY_PREFIX + "all:" + shortCode;
+    }
+
+    private static String dailyKey(String shortCode, LocalDate day) {
+        return KEY_PREFIX + DateUtils.formatterDate.format(day) + ":" + shortCode;
+    }
+
+    public record Visit(String shortCode, String visitor, LocalDate day) {
+    }
+}
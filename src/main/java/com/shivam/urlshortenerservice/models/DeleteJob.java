@@ -0,0 +1,38 @@
+package com.shivam.urlshortenerservice.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Date;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "delete_jobs")
+public class DeleteJob extends BaseModel {
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private DeleteJobStatus status;
+    private boolean hardDelete; // purge: rows and their click events are removed instead of marked DELETED
+    @Column(columnDefinition = "MEDIUMTEXT")
+    private String shortCodes; // newline separated; when null the filter below selects the rows
+    @ManyToOne
+    @JoinColumn(name = "owner_id")
+    private User owner; // [M:1]
+    private Date createdAfter;
+    private Date createdBefore;
+    private boolean expiredOnly;
+    private int codesProcessed; // checkpoint for a code list
+    private int checkpointShard; // checkpoint for a filter: shard being walked
+    private long checkpointId; // checkpoint for a filter: last short url id handled on that shard
+    private long rowsDeleted;
+    private long keysEvicted;
+    private Date startedAt;
+    private Date finishedAt;
+    @Column(length = 1024)
+    private String lastError;
+    @ManyToOne
+    @JoinColumn(name = "user_id", nullable = false)
+    private User createdBy; // [M:1]
+}
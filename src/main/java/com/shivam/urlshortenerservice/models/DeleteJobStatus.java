@@ -0,0 +1,8 @@
+package com.shivam.urlshortenerservice.models;
+
+public enum DeleteJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
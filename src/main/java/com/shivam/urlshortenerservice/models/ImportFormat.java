@@ -0,0 +1,6 @@
+package com.shivam.urlshortenerservice.models;
+
+public enum ImportFormat {
+    CSV,
+    NDJSON
+}
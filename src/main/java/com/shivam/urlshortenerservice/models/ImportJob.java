@@ -0,0 +1,38 @@
+package com.shivam.urlshortenerservice.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Date;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "import_jobs")
+public class ImportJob extends BaseModel {
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ImportJobStatus status;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ImportFormat format;
+    @Column(nullable = false, length = 1024)
+    private String filePath; // uploaded file, kept until the job completes so it can resume
+    private boolean warmCache;
+    private long rowsProcessed; // checkpoint: records of the file already committed (imported or failed)
+    private long rowsImported;
+    private long rowsFailed;
+    private long rowsWarmed;
+    private Long firstShortUrlId; // id range of the imported rows, walked by the warm phase
+    private Long lastShortUrlId;
+    private Long warmCheckpointId;
+    private Date startedAt;
+    private Date importCompletedAt;
+    private Date finishedAt;
+    @Column(length = 1024)
+    private String lastError;
+    @ManyToOne
+    @JoinColumn(name = "user_id", nullable = false)
+    private User createdBy; // [M:1]
+}
@@ -0,0 +1,9 @@
+package com.shivam.urlshortenerservice.models;
+
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    WARMING,
+    COMPLETED,
+    FAILED
+}
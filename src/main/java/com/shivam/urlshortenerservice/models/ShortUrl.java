@@ -13,7 +13,12 @@ import java.util.Date;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "short_urls", indexes = @Index(columnList = "shortCode"))
+@Table(name = "short_urls", indexes = {
+        @Index(columnList = "shortCode"),
+        @Index(name = "idx_short_urls_user_url_hash", columnList = "user_id, url_hash"),
+        @Index(name = "idx_short_urls_state_expires_at", columnList = "state, expires_at"),
+        @Index(name = "idx_short_urls_state_last_modified_at", columnList = "state, last_modified_at")
+})
 public class ShortUrl extends BaseModel {
     @Column(nullable = false, length = 2048)
     private String originalUrl;
@@ -24,6 +29,8 @@ public class ShortUrl extends BaseModel {
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
     private User createdBy; // [M:1]
+    @Column(columnDefinition = "BINARY(32)")
+    private byte[] urlHash; // SHA-256 of the normalized original url, see ShortUrlUtil.urlHash
 }
 
 
@@ -2,5 +2,6 @@ package com.shivam.urlshortenerservice.models;
 
 public enum State {
     ACTIVE,
-    DELETED
+    DELETED,
+    EXPIRED // set by the reaper once expires_at has passed
 }
@@ -0,0 +1,9 @@
+package com.shivam.urlshortenerservice.replication;
+
+// Read paths that may be served by a replica, enabled through shortener.replicas.routes
+public enum ReadRoute {
+    REDIRECT,
+    MY_URLS,
+    ALL_URLS,
+    ANALYTICS
+}
@@ -0,0 +1,23 @@
+package com.shivam.urlshortenerservice.replication;
+
+// Whether the current thread's next connection may come from a replica
+final class ReplicaContext {
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+
+    private ReplicaContext() {
+    }
+
+    static boolean isReadOnly() {
+        return Boolean.TRUE.equals(READ_ONLY.get());
+    }
+
+    static void set(Boolean readOnly) {
+        if (readOnly == null) READ_ONLY.remove();
+        else READ_ONLY.set(readOnly);
+    }
+
+    static Boolean get() {
+        return READ_ONLY.get();
+    }
+}
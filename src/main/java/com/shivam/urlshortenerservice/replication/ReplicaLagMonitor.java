@@ -0,0 +1,82 @@
+package com.shivam.urlshortenerservice.replication;
+
+import com.shivam.urlshortenerservice.utils.ThreadUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Polls SHOW REPLICA STATUS on every replica. A replica is used only while its lag is within
+// maxLagMillis; one that is unreachable, has replication stopped or has not been checked yet
+// counts as infinitely behind. MySQL reports lag in whole seconds.
+public class ReplicaLagMonitor implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    private static final long UNKNOWN = Long.MAX_VALUE;
+
+    private final List<JdbcTemplate> replicas;
+    private final long maxLagMillis;
+    private final AtomicLongArray lagMillis;
+    private final ScheduledExecutorService executor;
+
+    public ReplicaLagMonitor(List<DataSource> replicas, long maxLagMillis, long intervalMillis,
+                             boolean virtualThreads, MeterRegistry meterRegistry) {
+        this.replicas = replicas.stream().map(JdbcTemplate::new).toList();
+        this.maxLagMillis = maxLagMillis;
+        this.lagMillis = new AtomicLongArray(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            lagMillis.set(i, UNKNOWN);
+            int replica = i;
+            Gauge.builder("db.replica.lag", () -> lagMillis.get(replica) == UNKNOWN ? Double.NaN : lagMillis.get(replica))
+                    .tag("replica", String.valueOf(i))
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(ThreadUtils.newThreadFactory("replica-lag-", virtualThreads));
+        executor.scheduleWithFixedDelay(this::check, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isHealthy(int replica) {
+        return lagMillis.get(replica) <= maxLagMillis;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    void check() {
+        for (int i = 0; i < replicas.size(); i++) {
+            long lag = measure(i);
+            long previous = lagMillis.getAndSet(i, lag);
+            if ((previous <= maxLagMillis) != (lag <= maxLagMillis)) {
+                LOGGER.warn("Replica {} is now {} (lag {} ms)", i, lag <= maxLagMillis ? "in use" : "skipped", lag == UNKNOWN ? "unknown" : lag);
+            }
+        }
+    }
+
+    private long measure(int replica) {
+        try {
+            List<Long> lag = replicas.get(replica).query("SHOW REPLICA STATUS", (rs, rowNum) -> {
+                long seconds = rs.getLong("Seconds_Behind_Source");
+                return rs.wasNull() ? UNKNOWN : TimeUnit.SECONDS.toMillis(seconds);
+            });
+            // Not set up as a replica (e.g. a proxy in front of one): nothing to wait for
+            return lag.isEmpty() ? 0 : lag.get(0);
+        } catch (DataAccessException ex) {
+            LOGGER.debug("Could not read the lag of replica {}", replica, ex);
+            return UNKNOWN;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.shivam.urlshortenerservice.replication;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Sends the read paths listed in shortener.replicas.routes to a replica. Everything else, and
+// anything already inside a transaction (which holds a primary connection), stays on the primary,
+// as does every read while all replicas lag more than shortener.replicas.max-lag-ms.
+@Component
+public class ReplicaRouter {
+
+    private final ReplicaRoutingDataSource dataSource;
+    private final Set<ReadRoute> routes;
+    private final MeterRegistry meterRegistry;
+
+    public ReplicaRouter(ObjectProvider<ReplicaRoutingDataSource> dataSource,
+                         @Value("${shortener.replicas.routes:REDIRECT,MY_URLS,ANALYTICS}") List<ReadRoute> routes,
+                         MeterRegistry meterRegistry) {
+        this.dataSource = dataSource.getIfAvailable();
+        this.routes = routes.isEmpty() ? EnumSet.noneOf(ReadRoute.class) : EnumSet.copyOf(routes);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T read(ReadRoute route, Supplier<T> action) {
+        return read(route, action, result -> true);
+    }
+
+    // A replica that is behind may not have a row the caller just wrote (or that was written
+    // elsewhere moments ago); a result the caller does not accept is read again from the primary
+    public <T> T read(ReadRoute route, Supplier<T> action, Predicate<T> accept) {
+        if (dataSource == null || !routes.contains(route) || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        if (!dataSource.hasHealthyReplica()) {
+            count(route, "primary");
+            return action.get();
+        }
+
+        Boolean previous = ReplicaContext.get();
+        T result;
+        ReplicaContext.set(true);
+        try {
+            result = action.get();
+        } catch (DataAccessException ex) {
+            // The replica went away since the last lag check
+            count(route, "primary-retry");
+            ReplicaContext.set(previous);
+            return action.get();
+        } finally {
+            ReplicaContext.set(previous);
+        }
+        count(route, "replica");
+
+        if (accept.test(result)) return result;
+        count(route, "primary-retry");
+        return action.get();
+    }
+
+    private void count(ReadRoute route, String target) {
+        meterRegistry.counter("db.reads", "route", route.name(), "target", target).increment();
+    }
+}
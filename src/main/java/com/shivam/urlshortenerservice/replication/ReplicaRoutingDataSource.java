@@ -0,0 +1,64 @@
+package com.shivam.urlshortenerservice.replication;
+
+import com.shivam.urlshortenerservice.utils.PoolUtils;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hands out primary connections unless the thread is inside ReplicaRouter.read, in which case
+// the replicas within the lag limit take turns. Like the shard, the choice is made when the
+// connection is taken, so it must be set before a transaction starts.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final ReplicaLagMonitor lagMonitor;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, ReplicaLagMonitor lagMonitor) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.lagMonitor = lagMonitor;
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public boolean hasHealthyReplica() {
+        for (int i = 0; i < replicas.size(); i++) {
+            if (lagMonitor.isHealthy(i)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!ReplicaContext.isReadOnly()) return null;
+
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            int replica = (start + i) % replicas.size();
+            if (lagMonitor.isHealthy(replica)) return replica;
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        lagMonitor.close();
+        List<DataSource> pools = new ArrayList<>(replicas);
+        pools.add(primary);
+        PoolUtils.closeAll(pools);
+    }
+}
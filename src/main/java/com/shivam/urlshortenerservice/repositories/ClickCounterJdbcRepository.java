@@ -0,0 +1,86 @@
+package com.shivam.urlshortenerservice.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-link click totals in click_counters, kept next to the link's click events on its shard
+@Repository
+public class ClickCounterJdbcRepository {
+
+    private static final String ADD_SQL = "INSERT INTO click_counters (short_url_id, click_count, last_modified_at) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE click_count = click_count + VALUES(click_count), last_modified_at = VALUES(last_modified_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ClickCounterJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Adds (or, for a repair, subtracts) each delta; rows are touched in id order so concurrent
+    // flushes from several nodes lock them in the same order
+    public void add(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) return;
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Map.Entry<Long, Long>> rows = new ArrayList<>(deltas.entrySet());
+        rows.sort(Map.Entry.comparingByKey());
+        jdbcTemplate.batchUpdate(ADD_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.getKey());
+            ps.setLong(2, row.getValue());
+            ps.setTimestamp(3, now);
+        });
+    }
+
+    // Links without a row have no counted clicks and are left out
+    public Map<Long, Long> findCounts(Collection<Long> shortUrlIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (shortUrlIds.isEmpty()) return counts;
+
+        jdbcTemplate.query("SELECT short_url_id, click_count FROM click_counters WHERE short_url_id IN (" + placeholders(shortUrlIds.size()) + ")",
+                rs -> {
+                    counts.put(rs.getLong(1), rs.getLong(2));
+                }, shortUrlIds.toArray());
+        return counts;
+    }
+
+    // What the counters should be: the raw click events per link, with when the newest was written
+    public Map<Long, EventCount> countEvents(Collection<Long> shortUrlIds) {
+        Map<Long, EventCount> counts = new HashMap<>();
+        if (shortUrlIds.isEmpty()) return counts;
+
+        jdbcTemplate.query("SELECT short_url_id, COUNT(*), MAX(created_at) FROM click_events WHERE short_url_id IN (" +
+                        placeholders(shortUrlIds.size()) + ") GROUP BY short_url_id",
+                rs -> {
+                    counts.put(rs.getLong(1), new EventCount(rs.getLong(2), rs.getTimestamp(3)));
+                }, shortUrlIds.toArray());
+        return counts;
+    }
+
+    // The links with the highest counters, highest first
+    public Map<String, Long> findTopCounts(int limit) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT s.short_code, c.click_count FROM click_counters c JOIN short_urls s ON s.id = c.short_url_id " +
+                        "ORDER BY c.click_count DESC LIMIT ?",
+                rs -> {
+                    counts.put(rs.getString(1), rs.getLong(2));
+                }, limit);
+        return counts;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    public record EventCount(long count, Date lastWrittenAt) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.shivam.urlshortenerservice.repositories;
+
+import com.shivam.urlshortenerservice.models.ClickEvent;
+import com.shivam.urlshortenerservice.models.State;
+import com.shivam.urlshortenerservice.utils.ClickEventCursor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+// Bulk insert path for click events. Goes straight to JDBC because the IDENTITY ids on
+// BaseModel stop Hibernate from batching; with rewriteBatchedStatements the driver sends
+// each batch as a single multi-row INSERT and MySQL assigns the AUTO_INCREMENT ids.
+@Repository
+public class ClickEventJdbcRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO click_events " +
+            "(created_at, last_modified_at, state, ip_address, browser, operating_system, device_type, referrer, clicked_at, short_url_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ClickEventJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // One transaction, so a batch that fails stores none of its rows and can be retried row by row
+    @Transactional
+    public void batchInsert(List<ClickEvent> clickEvents) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.batchUpdate(INSERT_SQL, clickEvents, clickEvents.size(), (ps, clickEvent) -> {
+            ps.setTimestamp(1, now);
+            ps.setTimestamp(2, now);
+            ps.setInt(3, State.ACTIVE.ordinal());
+            ps.setString(4, clickEvent.getIpAddress());
+            ps.setString(5, clickEvent.getBrowser());
+            ps.setString(6, clickEvent.getOperatingSystem());
+            ps.setString(7, clickEvent.getDeviceType());
+            ps.setString(8, clickEvent.getReferrer());
+            ps.setTimestamp(9, new Timestamp(clickEvent.getClickedAt().getTime()));
+            ps.setLong(10, clickEvent.getShortUrl().getId());
+        });
+    }
+
+    // One page of a link's click events in (clicked_at, id) order, starting after the cursor. The
+    // seek on (clicked_at, id) reads one range of the (short_url_id, clicked_at, id) index, so a page
+    // deep into the listing costs the same as the first; filters left empty are not applied
+    public List<ClickEvent> findPage(long shortUrlId, Date from, Date to, String browser, String os, String deviceType,
+                                     ClickEventCursor after, boolean ascending, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT id, ip_address, browser, operating_system, device_type, referrer, clicked_at " +
+                "FROM click_events WHERE short_url_id = ?");
+        List<Object> args = new ArrayList<>(List.of(shortUrlId));
+        if (from != null) {
+            sql.append(" AND clicked_at >= ?");
+            args.add(new Timestamp(from.getTime()));
+        }
+        if (to != null) {
+            sql.append(" AND clicked_at <= ?");
+            args.add(new Timestamp(to.getTime()));
+        }
+        appendContains(sql, args, "browser", browser);
+        appendContains(sql, args, "operating_system", os);
+        appendContains(sql, args, "device_type", deviceType);
+        if (after != null) {
+            String comparison = ascending ? ">" : "<";
+            sql.append(" AND (clicked_at ").append(comparison).append(" ? OR (clicked_at = ? AND id ").append(comparison).append(" ?))");
+            Timestamp clickedAt = new Timestamp(after.clickedAt().getTime());
+            args.addAll(List.of(clickedAt, clickedAt, after.id()));
+        }
+        String direction = ascending ? "ASC" : "DESC";
+        sql.append(" ORDER BY clicked_at ").append(direction).append(", id ").append(direction).append(" LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            ClickEvent clickEvent = ClickEvent.builder()
+                    .ipAddress(rs.getString(2))
+                    .browser(rs.getString(3))
+                    .operatingSystem(rs.getString(4))
+                    .deviceType(rs.getString(5))
+                    .referrer(rs.getString(6))
+                    .clickedAt(rs.getTimestamp(7))
+                    .build();
+            clickEvent.setId(rs.getLong(1));
+            return clickEvent;
+        }, args.toArray());
+    }
+
+    // Case-insensitive substring match, as the JPQL filters did
+    private static void appendContains(StringBuilder sql, List<Object> args, String column, String value) {
+        if (value == null || value.isEmpty()) return;
+        sql.append(" AND LOWER(").append(column).append(") LIKE ?");
+        args.add("%" + value.toLowerCase() + "%");
+    }
+}
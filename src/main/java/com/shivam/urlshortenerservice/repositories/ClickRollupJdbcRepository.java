@@ -0,0 +1,96 @@
+package com.shivam.urlshortenerservice.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Clicks per link per day in click_daily_rollup, kept next to the link's click events on its shard.
+// The rollup holds every event up to the watermark in click_rollup_watermarks; events past it are
+// counted live, so a read costs one row per day plus the few events not rolled up yet.
+@Repository
+public class ClickRollupJdbcRepository {
+
+    private static final String DAILY_WATERMARK = "click_daily_rollup";
+    // Bounds of MySQL's DATE type, used when a read is open-ended
+    private static final LocalDate FIRST_DAY = LocalDate.of(1000, 1, 1);
+    private static final LocalDate LAST_DAY = LocalDate.of(9999, 12, 31);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ClickRollupJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Folds the events past the watermark into the rollup, at most chunkSize of them, and moves the
+    // watermark up in the same transaction. The watermark row stays locked until commit, so nodes
+    // rolling up at the same time take turns and every event is counted once. AUTO_INCREMENT ids are
+    // handed out before commit, so a newer event can become visible before an older one; only the run
+    // of events written before settledBefore is folded, which gives open inserts that long to commit.
+    // Returns how many ids the watermark moved.
+    @Transactional
+    public long rollUp(int chunkSize, Date settledBefore) {
+        long watermark = jdbcTemplate.queryForObject(
+                "SELECT last_event_id FROM click_rollup_watermarks WHERE name = ? FOR UPDATE", Long.class, DAILY_WATERMARK);
+
+        long upTo = jdbcTemplate.queryForObject(
+                "SELECT MAX(id), MIN(CASE WHEN created_at IS NULL OR created_at >= ? THEN id END) " +
+                        "FROM (SELECT id, created_at FROM click_events WHERE id > ? ORDER BY id LIMIT ?) c",
+                (rs, rowNum) -> {
+                    long unsettled = rs.getLong(2);
+                    if (!rs.wasNull()) return unsettled - 1;
+                    long last = rs.getLong(1);
+                    return rs.wasNull() ? watermark : last;
+                },
+                new Timestamp(settledBefore.getTime()), watermark, chunkSize);
+        if (upTo <= watermark) return 0;
+
+        jdbcTemplate.update("INSERT INTO click_daily_rollup (short_url_id, click_date, click_count) " +
+                "SELECT short_url_id, CAST(clicked_at AS DATE), COUNT(*) FROM click_events " +
+                "WHERE id > ? AND id <= ? AND short_url_id IS NOT NULL AND clicked_at IS NOT NULL " +
+                "GROUP BY short_url_id, CAST(clicked_at AS DATE) " +
+                "ON DUPLICATE KEY UPDATE click_count = click_count + VALUES(click_count)", watermark, upTo);
+        jdbcTemplate.update("UPDATE click_rollup_watermarks SET last_event_id = ?, updated_at = ? WHERE name = ?",
+                upTo, new Timestamp(System.currentTimeMillis()), DAILY_WATERMARK);
+        return upTo - watermark;
+    }
+
+    // Clicks per day between from and to (inclusive, either may be null for open-ended), oldest first.
+    // The watermark, the rollup rows and the live delta are read in one transaction so they come from
+    // the same snapshot; a rollup committed in between would otherwise count some events twice.
+    @Transactional(readOnly = true)
+    public List<DailyClicks> findDailyClicks(long shortUrlId, LocalDate from, LocalDate to) {
+        LocalDate first = from != null ? from : FIRST_DAY;
+        LocalDate last = to != null ? to : LAST_DAY;
+        long watermark = jdbcTemplate.queryForObject(
+                "SELECT last_event_id FROM click_rollup_watermarks WHERE name = ?", Long.class, DAILY_WATERMARK);
+
+        Map<LocalDate, Long> clicks = new TreeMap<>();
+        jdbcTemplate.query("SELECT click_date, click_count FROM click_daily_rollup WHERE short_url_id = ? AND click_date BETWEEN ? AND ?",
+                rs -> {
+                    clicks.merge(rs.getObject(1, LocalDate.class), rs.getLong(2), Long::sum);
+                }, shortUrlId, first, last);
+        // Read through the short_url_id index, which ends in the primary key, so only the events
+        // past the watermark are touched
+        jdbcTemplate.query("SELECT CAST(clicked_at AS DATE), COUNT(*) FROM click_events " +
+                        "WHERE short_url_id = ? AND id > ? AND clicked_at IS NOT NULL GROUP BY CAST(clicked_at AS DATE)",
+                rs -> {
+                    LocalDate day = rs.getObject(1, LocalDate.class);
+                    if (!day.isBefore(first) && !day.isAfter(last)) clicks.merge(day, rs.getLong(2), Long::sum);
+                }, shortUrlId, watermark);
+
+        List<DailyClicks> days = new ArrayList<>(clicks.size());
+        clicks.forEach((day, count) -> days.add(new DailyClicks(day, count)));
+        return days;
+    }
+
+    public record DailyClicks(LocalDate day, long clicks) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.shivam.urlshortenerservice.repositories;
+
+import com.shivam.urlshortenerservice.models.DeleteJob;
+import com.shivam.urlshortenerservice.models.DeleteJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+
+@Repository
+public interface DeleteJobRepository extends JpaRepository<DeleteJob, Long> {
+
+    // Same claim as ImportJobRepository.claim: a RUNNING job is only taken over once its checkpoint is stale
+    @Modifying
+    @Transactional
+    @Query("UPDATE DeleteJob j SET j.status = :running, j.lastModifiedAt = :now " +
+            "WHERE j.id = :id AND (j.status IN :claimable OR (j.status = :running AND j.lastModifiedAt < :staleBefore))")
+    int claim(Long id, DeleteJobStatus running, Collection<DeleteJobStatus> claimable, Date now, Date staleBefore);
+}
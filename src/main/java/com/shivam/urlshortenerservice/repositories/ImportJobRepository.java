@@ -0,0 +1,25 @@
+package com.shivam.urlshortenerservice.repositories;
+
+import com.shivam.urlshortenerservice.models.ImportJob;
+import com.shivam.urlshortenerservice.models.ImportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    // Moves a job to RUNNING unless another worker holds it. A job counts as held while it is
+    // active and its last checkpoint is newer than staleBefore, so a job orphaned by a crash can be taken over.
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.status = :running, j.lastModifiedAt = :now " +
+            "WHERE j.id = :id AND (j.status IN :claimable OR (j.status IN :active AND j.lastModifiedAt < :staleBefore))")
+    int claim(Long id, ImportJobStatus running, Collection<ImportJobStatus> claimable,
+              Collection<ImportJobStatus> active, Date now, Date staleBefore);
+}
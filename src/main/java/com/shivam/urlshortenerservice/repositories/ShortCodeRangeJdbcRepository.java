@@ -0,0 +1,37 @@
+package com.shivam.urlshortenerservice.repositories;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+@Repository
+public class ShortCodeRangeJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ShortCodeRangeJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Atomically bumps the counter by size and returns its new value. LAST_INSERT_ID(expr) is
+    // connection scoped, so both statements run on the same connection.
+    public long increment(String name, long size) {
+        Long value = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE short_code_ranges SET next_value = LAST_INSERT_ID(next_value + ?) WHERE name = ?")) {
+                update.setLong(1, size);
+                update.setString(2, name);
+                if (update.executeUpdate() != 1) throw new IllegalStateException("No short code range named " + name);
+            }
+            try (PreparedStatement select = connection.prepareStatement("SELECT LAST_INSERT_ID()");
+                 ResultSet rs = select.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        });
+        return value != null ? value : 0;
+    }
+}
@@ -0,0 +1,286 @@
+package com.shivam.urlshortenerservice.repositories;
+
+import com.shivam.urlshortenerservice.models.ShortUrl;
+import com.shivam.urlshortenerservice.models.State;
+import com.shivam.urlshortenerservice.models.User;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@Repository
+public class ShortUrlJdbcRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO short_urls " +
+            "(created_at, last_modified_at, state, original_url, short_code, expires_at, user_id, url_hash) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int CLICK_EVENT_DELETE_BATCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ShortUrlJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long countActive() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM short_urls WHERE state = ?",
+                Long.class, State.ACTIVE.ordinal());
+        return count != null ? count : 0;
+    }
+
+    // Walks every active short code in id order, chunkSize rows per query
+    public void forEachActiveShortCode(int chunkSize, Consumer<String> consumer) {
+        long lastId = 0;
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(
+                    "SELECT id, short_code FROM short_urls WHERE state = ? AND id > ? ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getString(2)},
+                    State.ACTIVE.ordinal(), lastId, chunkSize);
+
+            for (Object[] row : rows) {
+                consumer.accept((String) row[1]);
+            }
+
+            if (rows.size() < chunkSize) return;
+            lastId = (Long) rows.get(rows.size() - 1)[0];
+        }
+    }
+
+    // Active rows of ownerId with afterId < id <= toId in id order, with only the owner's id set on createdBy
+    public List<ShortUrl> findActiveInIdRange(long afterId, long toId, long ownerId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, short_code, original_url, expires_at, user_id, url_hash FROM short_urls " +
+                        "WHERE state = ? AND id > ? AND id <= ? AND user_id = ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> {
+                    User owner = new User();
+                    owner.setId(rs.getLong(5));
+                    ShortUrl shortUrl = new ShortUrl(rs.getString(3), rs.getString(2), rs.getTimestamp(4), owner, rs.getBytes(6));
+                    shortUrl.setId(rs.getLong(1));
+                    return shortUrl;
+                },
+                State.ACTIVE.ordinal(), afterId, toId, ownerId, limit);
+    }
+
+    // Rows for the given codes; active only unless anyState, and limited to ownerId when it is set
+    public List<IdAndCode> findByShortCodes(Collection<String> shortCodes, Long ownerId, boolean anyState) {
+        if (shortCodes.isEmpty()) return List.of();
+
+        StringBuilder sql = new StringBuilder("SELECT id, short_code FROM short_urls WHERE short_code IN (")
+                .append(placeholders(shortCodes.size())).append(')');
+        List<Object> args = new ArrayList<>(shortCodes);
+        appendStateAndOwner(sql, args, ownerId, anyState);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new IdAndCode(rs.getLong(1), rs.getString(2)), args.toArray());
+    }
+
+    // Keyset walk over the rows matching a bulk delete filter, in id order after afterId
+    public List<IdAndCode> findMatching(long afterId, Long ownerId, Date createdAfter, Date createdBefore,
+                                        boolean expiredOnly, boolean anyState, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT id, short_code FROM short_urls WHERE id > ?");
+        List<Object> args = new ArrayList<>(List.of(afterId));
+        appendStateAndOwner(sql, args, ownerId, anyState);
+        if (createdAfter != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(new Timestamp(createdAfter.getTime()));
+        }
+        if (createdBefore != null) {
+            sql.append(" AND created_at < ?");
+            args.add(new Timestamp(createdBefore.getTime()));
+        }
+        if (expiredOnly) {
+            sql.append(" AND expires_at < ?");
+            args.add(new Timestamp(System.currentTimeMillis()));
+        }
+        sql.append(" ORDER BY id LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new IdAndCode(rs.getLong(1), rs.getString(2)), args.toArray());
+    }
+
+    // One set-based UPDATE per chunk; rows deleted meanwhile are skipped, so a replayed chunk is harmless
+    public int markDeleted(Collection<Long> ids) {
+        if (ids.isEmpty()) return 0;
+
+        List<Object> args = new ArrayList<>(List.of(State.DELETED.ordinal(), new Timestamp(System.currentTimeMillis()), State.ACTIVE.ordinal()));
+        args.addAll(ids);
+        return jdbcTemplate.update("UPDATE short_urls SET state = ?, last_modified_at = ? WHERE state = ? AND id IN (" +
+                placeholders(ids.size()) + ")", args.toArray());
+    }
+
+    // Removes the rows and the click events pointing at them. The events go first, at most
+    // clickEventBatchSize per statement and each committed on its own, so a link with millions of
+    // clicks never holds locks on all of them at once; a purge cut short leaves the link in place
+    // to be purged again
+    public int purge(Collection<Long> ids) {
+        return purge(ids, CLICK_EVENT_DELETE_BATCH_SIZE);
+    }
+
+    int purge(Collection<Long> ids, int clickEventBatchSize) {
+        if (ids.isEmpty()) return 0;
+
+        Object[] args = ids.toArray();
+        List<Object> batchArgs = new ArrayList<>(ids);
+        batchArgs.add(clickEventBatchSize);
+        int deletedEvents;
+        do {
+            deletedEvents = jdbcTemplate.update("DELETE FROM click_events WHERE short_url_id IN (" + placeholders(ids.size()) + ") LIMIT ?",
+                    batchArgs.toArray());
+        } while (deletedEvents >= clickEventBatchSize);
+
+        jdbcTemplate.update("DELETE FROM click_counters WHERE short_url_id IN (" + placeholders(ids.size()) + ")", args);
+        jdbcTemplate.update("DELETE FROM click_daily_rollup WHERE short_url_id IN (" + placeholders(ids.size()) + ")", args);
+        return jdbcTemplate.update("DELETE FROM short_urls WHERE id IN (" + placeholders(ids.size()) + ")", args);
+    }
+
+    // Every link in any state, in id order
+    public List<IdAndCode> findIdsAndCodes(long afterId, int limit) {
+        return jdbcTemplate.query("SELECT id, short_code FROM short_urls WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new IdAndCode(rs.getLong(1), rs.getString(2)), afterId, limit);
+    }
+
+    // Oldest expired first, read through the (state, expires_at) index
+    public List<IdAndCode> findExpiredActive(Date now, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, short_code FROM short_urls WHERE state = ? AND expires_at < ? ORDER BY expires_at LIMIT ?",
+                (rs, rowNum) -> new IdAndCode(rs.getLong(1), rs.getString(2)),
+                State.ACTIVE.ordinal(), new Timestamp(now.getTime()), limit);
+    }
+
+    public int markExpired(Collection<Long> ids) {
+        if (ids.isEmpty()) return 0;
+
+        List<Object> args = new ArrayList<>(List.of(State.EXPIRED.ordinal(), new Timestamp(System.currentTimeMillis()), State.ACTIVE.ordinal()));
+        args.addAll(ids);
+        return jdbcTemplate.update("UPDATE short_urls SET state = ?, last_modified_at = ? WHERE state = ? AND id IN (" +
+                placeholders(ids.size()) + ")", args.toArray());
+    }
+
+    // Deleted or expired rows last touched before the cutoff, read through the (state, last_modified_at) index
+    public List<IdAndCode> findArchivable(Date cutoff, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, short_code FROM short_urls WHERE state IN (?, ?) AND last_modified_at < ? ORDER BY last_modified_at LIMIT ?",
+                (rs, rowNum) -> new IdAndCode(rs.getLong(1), rs.getString(2)),
+                State.DELETED.ordinal(), State.EXPIRED.ordinal(), new Timestamp(cutoff.getTime()), limit);
+    }
+
+    // Copies the rows and their click events into the archive tables and removes them from the hot
+    // tables. The events move first, clickEventBatchSize at a time with each batch committed on its
+    // own, and only the event ids a batch copied are deleted, so a click written meanwhile is never
+    // dropped unarchived. A row is archived and deleted only once no events point at it; one that
+    // got a click after its last batch stays for the next run. INSERT IGNORE keeps replays harmless
+    public int archive(Collection<Long> ids) {
+        return archive(ids, CLICK_EVENT_DELETE_BATCH_SIZE);
+    }
+
+    int archive(Collection<Long> ids, int clickEventBatchSize) {
+        if (ids.isEmpty()) return 0;
+
+        String in = placeholders(ids.size());
+        Timestamp archivedAt = new Timestamp(System.currentTimeMillis());
+        List<Object> batchArgs = new ArrayList<>(ids);
+        batchArgs.add(clickEventBatchSize);
+        List<Long> eventIds;
+        do {
+            eventIds = jdbcTemplate.queryForList("SELECT id FROM click_events WHERE short_url_id IN (" + in + ") ORDER BY id LIMIT ?",
+                    Long.class, batchArgs.toArray());
+            if (eventIds.isEmpty()) break;
+
+            String eventIn = placeholders(eventIds.size());
+            List<Object> copyArgs = new ArrayList<>(List.of(archivedAt));
+            copyArgs.addAll(eventIds);
+            jdbcTemplate.update("INSERT IGNORE INTO click_events_archive " +
+                    "(id, created_at, last_modified_at, state, ip_address, browser, operating_system, device_type, referrer, clicked_at, short_url_id, archived_at) " +
+                    "SELECT id, created_at, last_modified_at, state, ip_address, browser, operating_system, device_type, referrer, clicked_at, short_url_id, ? " +
+                    "FROM click_events WHERE id IN (" + eventIn + ")", copyArgs.toArray());
+            jdbcTemplate.update("DELETE FROM click_events WHERE id IN (" + eventIn + ")", eventIds.toArray());
+        } while (eventIds.size() >= clickEventBatchSize);
+
+        String withoutEvents = " AND NOT EXISTS (SELECT 1 FROM click_events WHERE click_events.short_url_id = short_urls.id)";
+        List<Object> args = new ArrayList<>(List.of(archivedAt));
+        args.addAll(ids);
+        jdbcTemplate.update("INSERT IGNORE INTO short_urls_archive " +
+                "(id, created_at, last_modified_at, state, original_url, short_code, expires_at, user_id, url_hash, archived_at) " +
+                "SELECT id, created_at, last_modified_at, state, original_url, short_code, expires_at, user_id, url_hash, ? " +
+                "FROM short_urls WHERE id IN (" + in + ")" + withoutEvents, args.toArray());
+
+        Object[] idArgs = ids.toArray();
+        int archived = jdbcTemplate.update("DELETE FROM short_urls WHERE id IN (" + in + ")" + withoutEvents, idArgs);
+
+        // Counters and rollups go only for the rows actually removed
+        jdbcTemplate.update("DELETE FROM click_counters WHERE short_url_id IN (" + in + ") " +
+                "AND NOT EXISTS (SELECT 1 FROM short_urls WHERE short_urls.id = click_counters.short_url_id)", idArgs);
+        jdbcTemplate.update("DELETE FROM click_daily_rollup WHERE short_url_id IN (" + in + ") " +
+                "AND NOT EXISTS (SELECT 1 FROM short_urls WHERE short_urls.id = click_daily_rollup.short_url_id)", idArgs);
+        return archived;
+    }
+
+    // Inserts all rows in one transaction as a JDBC batch (a multi-row INSERT with
+    // rewriteBatchedStatements) and copies the generated ids and audit dates back onto the entities
+    @Transactional
+    public void batchInsert(List<ShortUrl> shortUrls) {
+        Date now = new Date();
+        Timestamp timestamp = new Timestamp(now.getTime());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ShortUrl shortUrl = shortUrls.get(i);
+                        ps.setTimestamp(1, timestamp);
+                        ps.setTimestamp(2, timestamp);
+                        ps.setInt(3, State.ACTIVE.ordinal());
+                        ps.setString(4, shortUrl.getOriginalUrl());
+                        ps.setString(5, shortUrl.getShortCode());
+                        ps.setTimestamp(6, new Timestamp(shortUrl.getExpiresAt().getTime()));
+                        ps.setLong(7, shortUrl.getCreatedBy().getId());
+                        ps.setBytes(8, shortUrl.getUrlHash());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return shortUrls.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < shortUrls.size(); i++) {
+            ShortUrl shortUrl = shortUrls.get(i);
+            shortUrl.setId(((Number) keys.get(i).values().iterator().next()).longValue());
+            shortUrl.setCreatedAt(now);
+            shortUrl.setLastModifiedAt(now);
+        }
+    }
+
+    private static void appendStateAndOwner(StringBuilder sql, List<Object> args, Long ownerId, boolean anyState) {
+        if (!anyState) {
+            sql.append(" AND state = ?");
+            args.add(State.ACTIVE.ordinal());
+        }
+        if (ownerId != null) {
+            sql.append(" AND user_id = ?");
+            args.add(ownerId);
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    public record IdAndCode(long id, String shortCode) {
+    }
+}
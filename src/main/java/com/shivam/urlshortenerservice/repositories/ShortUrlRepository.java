@@ -2,17 +2,31 @@ package com.shivam.urlshortenerservice.repositories;
 
 import com.shivam.urlshortenerservice.models.ShortUrl;
 import com.shivam.urlshortenerservice.models.State;
+import com.shivam.urlshortenerservice.models.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ShortUrlRepository extends JpaRepository<ShortUrl, Long> {
-    Optional<ShortUrl> findByShortCodeAndState(String shortCode, State state);
-    boolean existsByShortCodeAndState(String shortCode, State state);
-    Page<ShortUrl> findAllByCreatedBy_EmailAndState(String email, State state, Pageable pageable);
-    Page<ShortUrl> findAllByState(State state, Pageable pageable);
+    Optional<ShortUrl> findByShortCodeAndStateIn(String shortCode, Collection<State> states);
+    Optional<ShortUrl> findByShortCode(String shortCode);
+    boolean existsByShortCode(String shortCode);
+    Page<ShortUrl> findAllByCreatedBy_EmailAndStateIn(String email, Collection<State> states, Pageable pageable);
+    Page<ShortUrl> findAllByStateIn(Collection<State> states, Pageable pageable);
+    List<ShortUrl> findAllByCreatedByAndUrlHashAndStateAndExpiresAtAfter(User createdBy, byte[] urlHash, State state, Date expiresAfter);
+
+    @Query("SELECT s.shortCode, s.id FROM ShortUrl s WHERE s.shortCode IN :shortCodes AND s.state IN :states")
+    List<Object[]> findIdsByShortCodes(Collection<String> shortCodes, Collection<State> states);
+
+    // Any state: the unique key on short_code also covers deleted rows
+    @Query("SELECT s.shortCode FROM ShortUrl s WHERE s.shortCode IN :shortCodes")
+    List<String> findExistingShortCodes(Collection<String> shortCodes);
 }
@@ -32,9 +32,11 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/auth/*","/{shortCode}").permitAll()
+                        .requestMatchers("/*/admin/**").hasRole("ADMIN")
                         .requestMatchers("/analytics/*","/shorten/*").hasAnyRole("USER", "ADMIN")
-                        .requestMatchers("*/admin/*").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider())
@@ -1,156 +1,280 @@
 package com.shivam.urlshortenerservice.services;
 
+import com.shivam.urlshortenerservice.caches.CachedShortUrl;
+import com.shivam.urlshortenerservice.caches.LocalShortUrlCache;
+import com.shivam.urlshortenerservice.dtos.ClickEventResponse;
+import com.shivam.urlshortenerservice.dtos.ClickEventSliceResponse;
 import com.shivam.urlshortenerservice.dtos.ClickStatsResponse;
+import com.shivam.urlshortenerservice.dtos.DailyUniqueVisitors;
 import com.shivam.urlshortenerservice.dtos.TopClickedResponse;
+import com.shivam.urlshortenerservice.dtos.UniqueVisitorsResponse;
 import com.shivam.urlshortenerservice.exceptions.ForbiddenOperationException;
 import com.shivam.urlshortenerservice.exceptions.InvalidDateFormatException;
+import com.shivam.urlshortenerservice.exceptions.InvalidRequestException;
 import com.shivam.urlshortenerservice.exceptions.ShortCodeNotFoundException;
+import com.shivam.urlshortenerservice.ingestion.ClickCounters;
+import com.shivam.urlshortenerservice.ingestion.ClickIngestionPipeline;
+import com.shivam.urlshortenerservice.ingestion.RawClick;
+import com.shivam.urlshortenerservice.ingestion.SpaceSaving;
+import com.shivam.urlshortenerservice.ingestion.TopClickedSketch;
+import com.shivam.urlshortenerservice.ingestion.UniqueVisitors;
 import com.shivam.urlshortenerservice.models.ClickEvent;
 import com.shivam.urlshortenerservice.models.ShortUrl;
 import com.shivam.urlshortenerservice.models.State;
 import com.shivam.urlshortenerservice.repositories.AnalyticsRepository;
+import com.shivam.urlshortenerservice.repositories.ClickCounterJdbcRepository;
+import com.shivam.urlshortenerservice.repositories.ClickEventJdbcRepository;
+import com.shivam.urlshortenerservice.repositories.ClickRollupJdbcRepository;
+import com.shivam.urlshortenerservice.repositories.ClickRollupJdbcRepository.DailyClicks;
 import com.shivam.urlshortenerservice.repositories.ShortUrlRepository;
+import com.shivam.urlshortenerservice.replication.ReadRoute;
+import com.shivam.urlshortenerservice.replication.ReplicaRouter;
+import com.shivam.urlshortenerservice.sharding.ShardRouter;
+import com.shivam.urlshortenerservice.utils.ClickEventCursor;
+import com.shivam.urlshortenerservice.utils.DateUtils;
+import com.shivam.urlshortenerservice.workloads.Workload;
+import com.shivam.urlshortenerservice.workloads.WorkloadRouter;
 import lombok.RequiredArgsConstructor;
-import nl.basjes.parse.useragent.UserAgent;
-import nl.basjes.parse.useragent.UserAgentAnalyzer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 public class AnalyticsService implements IAnalyticsService {
 
     private final Logger LOGGER = LoggerFactory.getLogger(AnalyticsService.class);
+    private static final String CLICK_EVENTS_SORT = "clickedAt";
+    private static final int MAX_CLICK_EVENTS_PAGE_SIZE = 1000;
+    // An expired link keeps its history until it is deleted or archived
+    private static final List<State> ACTIVE_OR_EXPIRED = List.of(State.ACTIVE, State.EXPIRED);
 
     private final AnalyticsRepository analyticsRepository;
+    private final ClickEventJdbcRepository clickEventJdbcRepository;
     private final ShortUrlRepository shortUrlRepository;
-    private final UserAgentAnalyzer userAgentAnalyzer;
+    private final ClickIngestionPipeline clickIngestionPipeline;
+    private final LocalShortUrlCache localCache;
+    private final ShardRouter shardRouter;
+    private final ReplicaRouter replicaRouter;
+    private final WorkloadRouter workloadRouter;
+    private final ClickCounters clickCounters;
+    private final ClickCounterJdbcRepository clickCounterJdbcRepository;
+    private final ClickRollupJdbcRepository clickRollupJdbcRepository;
+    private final TopClickedSketch topClickedSketch;
+    private final UniqueVisitors uniqueVisitors;
 
-    public AnalyticsService(AnalyticsRepository analyticsRepository, ShortUrlRepository shortUrlRepository, UserAgentAnalyzer userAgentAnalyzer) {
+    // Click events live on their link's shard, so every per-link query runs on that shard alone.
+    // All of these reads (ownership checks included) may be served by a replica, and use the analytics pool
+    public AnalyticsService(AnalyticsRepository analyticsRepository, ClickEventJdbcRepository clickEventJdbcRepository,
+                            ShortUrlRepository shortUrlRepository,
+                            ClickIngestionPipeline clickIngestionPipeline, LocalShortUrlCache localCache,
+                            ShardRouter shardRouter, ReplicaRouter replicaRouter, WorkloadRouter workloadRouter,
+                            ClickCounters clickCounters, ClickCounterJdbcRepository clickCounterJdbcRepository,
+                            ClickRollupJdbcRepository clickRollupJdbcRepository, TopClickedSketch topClickedSketch,
+                            UniqueVisitors uniqueVisitors) {
         this.analyticsRepository = analyticsRepository;
+        this.clickEventJdbcRepository = clickEventJdbcRepository;
         this.shortUrlRepository = shortUrlRepository;
-        this.userAgentAnalyzer = userAgentAnalyzer;
+        this.clickIngestionPipeline = clickIngestionPipeline;
+        this.localCache = localCache;
+        this.shardRouter = shardRouter;
+        this.replicaRouter = replicaRouter;
+        this.workloadRouter = workloadRouter;
+        this.clickCounters = clickCounters;
+        this.clickCounterJdbcRepository = clickCounterJdbcRepository;
+        this.clickRollupJdbcRepository = clickRollupJdbcRepository;
+        this.topClickedSketch = topClickedSketch;
+        this.uniqueVisitors = uniqueVisitors;
     }
 
     @Override
     public void logClick(String shortCode, String ipAddress, String userAgentString, String referrer) {
-        ShortUrl shortUrl = shortUrlRepository.findByShortCodeAndState(shortCode, State.ACTIVE)
-                .orElseThrow(() -> new ShortCodeNotFoundException("Short URL does not exist or deleted"));
-
-        UserAgent userAgent = userAgentAnalyzer.parse(userAgentString);
-        referrer = (referrer == null || referrer.isBlank()) ? "Direct" : referrer;
-
-        ClickEvent clickEvent = ClickEvent.builder()
-                .clickedAt(new Date())
-                .ipAddress(ipAddress)
-                .browser(userAgent.getValue(UserAgent.AGENT_NAME))
-                .operatingSystem(userAgent.getValue(UserAgent.OPERATING_SYSTEM_NAME))
-                .deviceType(userAgent.getValue(UserAgent.DEVICE_CLASS))
-                .referrer(referrer)
-                .shortUrl(shortUrl)
-                .build();
+        // The redirect just resolved this code into the local cache, so the FK comes from there
+        CachedShortUrl cachedShortUrl = localCache.get(shortCode);
+        Long shortUrlId = cachedShortUrl != null ? cachedShortUrl.id() : null;
 
-        analyticsRepository.save(clickEvent);
+        // Parsing and persistence happen on the ingestion workers, off the redirect path
+        clickIngestionPipeline.submit(new RawClick(shortCode, shortUrlId, ipAddress, userAgentString, referrer, new Date()));
     }
 
+    // Read from the link's counter (up to a flush interval behind) instead of counting its click events
     @Override
     public long getClickCount(String shortCode, String userEmail) {
-        checkForShortCodeOwnership(shortCode,userEmail);
-        return analyticsRepository.countByShortCode(shortCode);
+        ShortUrl shortUrl = onLinkShard(shortCode, () -> checkForShortCodeOwnership(shortCode,userEmail));
+        return countClicks(shortUrl);
     }
 
+    // Keyset pagination over (clickedAt, id): each page seeks past the previous page's cursor instead of
+    // skipping an OFFSET, and no COUNT runs unless the total is asked for (then read from the counters)
     @Override
-    public Page<ClickEvent> getFilteredClickEvents(String shortCode, String startDate, String endDate, String browser, String os,
-                                                   String deviceType, int page, int size, String sort, String sortDirection, String userEmail) {
-        checkForShortCodeOwnership(shortCode,userEmail);
+    public ClickEventSliceResponse getFilteredClickEvents(String shortCode, String startDate, String endDate, String browser, String os,
+                                                          String deviceType, String cursor, int size, String sort, String sortDirection,
+                                                          boolean includeTotal, String userEmail) {
+        // Any other order would need its own index to page without a sort of every matching event
+        if (!CLICK_EVENTS_SORT.equals(sort)) throw new InvalidRequestException("Click events can only be sorted by " + CLICK_EVENTS_SORT);
+        if (size < 1 || size > MAX_CLICK_EVENTS_PAGE_SIZE)
+            throw new InvalidRequestException("Page size must be between 1 and " + MAX_CLICK_EVENTS_PAGE_SIZE);
+        boolean ascending = sortDirection.equalsIgnoreCase("asc");
+        ClickEventCursor after = cursor != null ? ClickEventCursor.decode(cursor, ascending) : null;
 
         SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        Date start = null, end = null;
+        Date from, to;
         try {
-            start = (startDate != null) ? formatter.parse(startDate) : new Date(0); // from epoch
-            end = (endDate != null) ? formatter.parse(endDate) : new Date(); // now
+            from = (startDate != null) ? formatter.parse(startDate) : null;
+            to = (endDate != null) ? formatter.parse(endDate) : null;
         } catch (ParseException e) {
             throw new InvalidDateFormatException("Invalid date format. Use yyyy-MM-dd HH:mm:ss");
         }
 
-        Sort.Direction direction = sortDirection.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sort));
+        ShortUrl shortUrl = onLinkShard(shortCode, () -> checkForShortCodeOwnership(shortCode,userEmail));
+        // One extra row tells whether there is a next page
+        List<ClickEvent> clickEvents = onLinkShard(shortCode, () -> clickEventJdbcRepository.findPage(
+                shortUrl.getId(), from, to, browser, os, deviceType, after, ascending, size + 1));
+
+        boolean hasNext = clickEvents.size() > size;
+        List<ClickEvent> page = hasNext ? clickEvents.subList(0, size) : clickEvents;
+        String nextCursor = null;
+        if (hasNext) {
+            ClickEvent last = page.get(page.size() - 1);
+            nextCursor = new ClickEventCursor(last.getClickedAt(), last.getId(), ascending).encode();
+        }
+        Long totalClicks = includeTotal ? countClicks(shortUrl) : null;
 
-        return analyticsRepository.findFilteredClickEvents(
-                shortCode, start, end,
-                browser != null ? browser : "",
-                os != null ? os : "",
-                deviceType != null ? deviceType : "",
-                pageable
-        );
+        List<ClickEventResponse> content = page.stream()
+                .map(event -> new ClickEventResponse(
+                        event.getIpAddress(),
+                        event.getBrowser(),
+                        event.getOperatingSystem(),
+                        event.getDeviceType(),
+                        event.getReferrer(),
+                        formatter.format(event.getClickedAt())
+                ))
+                .toList();
+        return new ClickEventSliceResponse(content, nextCursor, hasNext, totalClicks);
     }
 
+    // Newest day first, read from the daily rollup plus the clicks not rolled up yet
     @Override
     public List<ClickStatsResponse> getDailyClickStats(String shortCode, String userEmail) {
-        checkForShortCodeOwnership(shortCode,userEmail);
+        List<DailyClicks> dailyClicks = onLinkShard(shortCode, () -> {
+            ShortUrl shortUrl = checkForShortCodeOwnership(shortCode,userEmail);
+            return clickRollupJdbcRepository.findDailyClicks(shortUrl.getId(), null, null);
+        });
 
-        List<Object[]> dailyClickStats = analyticsRepository.getClickCountsPerDay(shortCode);
+        return dailyClicks.reversed().stream()
+                .map(dailyClick -> toClickStatsResponse(shortCode, dailyClick))
+                .collect(Collectors.toList());
+    }
 
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
+    // Oldest day first, both ends inclusive
+    public List<ClickStatsResponse> getStatsInDateRange(String shortCode, String start, String end, String userEmail) {
+        LocalDate startDate, endDate;
+        try {
+            startDate = DateUtils.parseLocalDate(start);
+            endDate = DateUtils.parseLocalDate(end);
+        } catch (ParseException e) {
+            throw new InvalidDateFormatException("Invalid date format. Use yyyy-MM-dd");
+        }
 
-        return dailyClickStats.stream()
-                .map(dailyClickStat -> new ClickStatsResponse(
-                        shortCode,
-                        formatter.format(dailyClickStat[0]),
-                        (Long) dailyClickStat[1]
-                ))
+        List<DailyClicks> dailyClicks = onLinkShard(shortCode, () -> {
+            ShortUrl shortUrl = checkForShortCodeOwnership(shortCode,userEmail);
+            return clickRollupJdbcRepository.findDailyClicks(shortUrl.getId(), startDate, endDate);
+        });
+
+        return dailyClicks.stream()
+                .map(dailyClick -> toClickStatsResponse(shortCode, dailyClick))
                 .collect(Collectors.toList());
     }
 
-    public List<ClickStatsResponse> getStatsInDateRange(String shortCode, String start, String end, String userEmail) {
-        checkForShortCodeOwnership(shortCode,userEmail);
+    // All-time estimate, plus the range's per-day and merged estimates when start and end are given
+    @Override
+    public UniqueVisitorsResponse getUniqueVisitors(String shortCode, String start, String end, String userEmail) {
+        onLinkShard(shortCode, () -> checkForShortCodeOwnership(shortCode,userEmail));
+
+        UniqueVisitorsResponse response = new UniqueVisitorsResponse();
+        response.setShortCode(shortCode);
+        response.setAllTimeUniqueVisitors(uniqueVisitors.countAllTime(shortCode));
+        if (start == null || end == null) return response;
 
-        Date startDate = null, endDate = null;
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
+        LocalDate startDate, endDate;
         try {
-            startDate = formatter.parse(start);
-            endDate = formatter.parse(end);
+            startDate = DateUtils.parseLocalDate(start);
+            endDate = DateUtils.parseLocalDate(end);
         } catch (ParseException e) {
             throw new InvalidDateFormatException("Invalid date format. Use yyyy-MM-dd");
         }
+        // Daily sketches older than the retention are gone, so a longer range would undercount
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= uniqueVisitors.getRetentionDays()) {
+            throw new InvalidRequestException("Date range cannot be longer than " + uniqueVisitors.getRetentionDays() + " days");
+        }
 
-        List<Object[]> clickStats = analyticsRepository
-                .getClickCountsPerDayBetweenDates(shortCode, startDate, endDate);
+        response.setStartDate(start);
+        response.setEndDate(end);
+        response.setUniqueVisitors(uniqueVisitors.countRange(shortCode, startDate, endDate));
+        response.setDaily(uniqueVisitors.countDaily(shortCode, startDate, endDate).entrySet().stream()
+                .map(day -> new DailyUniqueVisitors(DateUtils.formatterDate.format(day.getKey()), day.getValue()))
+                .toList());
+        return response;
+    }
 
-        return clickStats.stream()
-                .map(clickStat -> new ClickStatsResponse(
-                        shortCode,
-                        formatter.format(clickStat[0]),
-                        (Long) clickStat[1])
-                )
-                .collect(Collectors.toList());
+    private static ClickStatsResponse toClickStatsResponse(String shortCode, DailyClicks dailyClick) {
+        return new ClickStatsResponse(shortCode, DateUtils.formatterDate.format(dailyClick.day()), dailyClick.clicks());
     }
 
+    // Served from the sketch when it can answer, with each count's error bound
     @Override
     public List<TopClickedResponse> getTopClickedUrls(int count) {
-        List<Object[]> clickStats = analyticsRepository.findTopClickedUrls(count);
-        return clickStats.stream()
+        List<SpaceSaving.Entry> top = topClickedSketch.top(count);
+        if (top == null) return getExactTopClickedUrls(count);
+
+        return top.stream()
+                .map(entry -> new TopClickedResponse(entry.item(), entry.count(), entry.error()))
+                .toList();
+    }
+
+    @Override
+    public List<TopClickedResponse> getExactTopClickedUrls(int count) {
+        // Each shard's top list is exact for its own links, so the global top is among them
+        return shardRouter.onEachShard(() -> analyticsRead(() -> analyticsRepository.findTopClickedUrls(count)))
+                .stream()
+                .flatMap(List::stream)
                 .map(clickStat -> new TopClickedResponse((String) clickStat[0], (Long) clickStat[1]))
+                .sorted(Comparator.comparingLong(TopClickedResponse::getCount).reversed())
+                .limit(count)
                 .toList();
     }
 
-    private void checkForShortCodeOwnership(String shortCode, String userEmail){
-        ShortUrl shortUrl = shortUrlRepository.findByShortCodeAndState(shortCode,State.ACTIVE)
+    private long countClicks(ShortUrl shortUrl) {
+        String shortCode = shortUrl.getShortCode();
+        return clickCounters.get(shortCode, () -> onLinkShard(shortCode,
+                () -> clickCounterJdbcRepository.findCounts(List.of(shortUrl.getId())).getOrDefault(shortUrl.getId(), 0L)));
+    }
+
+    private <T> T onLinkShard(String shortCode, Supplier<T> query) {
+        return shardRouter.onShardFor(shortCode, () -> analyticsRead(query));
+    }
+
+    private <T> T analyticsRead(Supplier<T> query) {
+        return workloadRouter.call(Workload.ANALYTICS, () -> replicaRouter.read(ReadRoute.ANALYTICS, query));
+    }
+
+    private ShortUrl checkForShortCodeOwnership(String shortCode, String userEmail){
+        ShortUrl shortUrl = shortUrlRepository.findByShortCodeAndStateIn(shortCode,ACTIVE_OR_EXPIRED)
                 .orElseThrow(() -> new ShortCodeNotFoundException("Short URL does not exist or deleted"));
 
         if(!shortUrl.getCreatedBy().getEmail().equals(userEmail)){
             throw new ForbiddenOperationException("user is not the owner of this url");
         }
+        return shortUrl;
     }
 }
 
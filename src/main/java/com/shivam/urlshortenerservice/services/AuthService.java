@@ -8,6 +8,7 @@ import com.shivam.urlshortenerservice.models.User;
 import com.shivam.urlshortenerservice.repositories.RoleRepository;
 import com.shivam.urlshortenerservice.repositories.UserRepository;
 import com.shivam.urlshortenerservice.security.services.JwtService;
+import com.shivam.urlshortenerservice.sharding.UserReplicator;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
@@ -25,14 +26,17 @@ public class AuthService implements IAuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final RoleRepository roleRepository;
+    private final UserReplicator userReplicator;
 
     public AuthService(UserRepository userRepository, JwtService jwtService,
-                       PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager, RoleRepository roleRepository) {
+                       PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager, RoleRepository roleRepository,
+                       UserReplicator userReplicator) {
         this.userRepository = userRepository;
         this.jwtService = jwtService;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.roleRepository = roleRepository;
+        this.userReplicator = userReplicator;
     }
 
     @Override
@@ -53,7 +57,9 @@ public class AuthService implements IAuthService {
 
         user.setRoles(roles);
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userReplicator.replicate(savedUser);
+        return savedUser;
     }
 
     @Override
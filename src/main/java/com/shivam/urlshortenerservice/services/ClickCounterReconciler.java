@@ -0,0 +1,172 @@
+package com.shivam.urlshortenerservice.services;
+
+import com.shivam.urlshortenerservice.caches.RedisCircuitBreaker;
+import com.shivam.urlshortenerservice.ingestion.ClickCounters;
+import com.shivam.urlshortenerservice.repositories.ClickCounterJdbcRepository;
+import com.shivam.urlshortenerservice.repositories.ClickCounterJdbcRepository.EventCount;
+import com.shivam.urlshortenerservice.repositories.ShortUrlJdbcRepository;
+import com.shivam.urlshortenerservice.repositories.ShortUrlJdbcRepository.IdAndCode;
+import com.shivam.urlshortenerservice.sharding.ShardRouter;
+import com.shivam.urlshortenerservice.utils.ThreadUtils;
+import com.shivam.urlshortenerservice.workloads.Workload;
+import com.shivam.urlshortenerservice.workloads.WorkloadRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Repairs click counters that drifted from click_events (clicks counted on a node that died
+// before flushing, or written by a node without counters). Every interval it walks all links
+// chunk by chunk and compares each counter with a COUNT of the link's events; the counter is
+// read first, so a counter above the count is always drift and is corrected. A counter below the
+// count may just be waiting for a flush, so it is only corrected once the link's newest event is
+// older than grace-ms. Repairs are added as deltas, so clicks flushed meanwhile are not lost.
+// Each run counts every event in click_events, so it only runs when reconcile-enabled is set.
+@Component
+@ConditionalOnProperty(name = "shortener.click-counters.reconcile-enabled", havingValue = "true")
+public class ClickCounterReconciler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClickCounterReconciler.class);
+    private static final String LEASE_KEY = "click-counters:reconcile:lease";
+
+    private final ShortUrlJdbcRepository shortUrlJdbcRepository;
+    private final ClickCounterJdbcRepository clickCounterJdbcRepository;
+    private final ClickCounters clickCounters;
+    private final ShardRouter shardRouter;
+    private final WorkloadRouter workloadRouter;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker redisBreaker;
+    private final long intervalMillis;
+    private final long graceMillis;
+    private final int chunkSize;
+    private final long chunkPauseMillis;
+    private final boolean virtualThreads;
+    private final Counter repairedCounter;
+
+    private ScheduledExecutorService executor;
+
+    public ClickCounterReconciler(ShortUrlJdbcRepository shortUrlJdbcRepository, ClickCounterJdbcRepository clickCounterJdbcRepository,
+                                  ClickCounters clickCounters, ShardRouter shardRouter, WorkloadRouter workloadRouter,
+                                  StringRedisTemplate redisTemplate, RedisCircuitBreaker redisBreaker,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${shortener.click-counters.reconcile-interval-ms:3600000}") long intervalMillis,
+                                  @Value("${shortener.click-counters.reconcile-grace-ms:300000}") long graceMillis,
+                                  @Value("${shortener.click-counters.reconcile-chunk-size:1000}") int chunkSize,
+                                  @Value("${shortener.click-counters.reconcile-chunk-pause-ms:50}") long chunkPauseMillis,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.shortUrlJdbcRepository = shortUrlJdbcRepository;
+        this.clickCounterJdbcRepository = clickCounterJdbcRepository;
+        this.clickCounters = clickCounters;
+        this.shardRouter = shardRouter;
+        this.workloadRouter = workloadRouter;
+        this.redisTemplate = redisTemplate;
+        this.redisBreaker = redisBreaker;
+        this.intervalMillis = intervalMillis;
+        this.graceMillis = graceMillis;
+        this.chunkSize = chunkSize;
+        this.chunkPauseMillis = chunkPauseMillis;
+        this.virtualThreads = virtualThreads;
+        this.repairedCounter = meterRegistry.counter("clicks.counters.repaired");
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(ThreadUtils.newThreadFactory("click-counter-reconciler-", virtualThreads));
+        executor.scheduleWithFixedDelay(this::run, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void run() {
+        try {
+            if (!acquireLease()) return;
+
+            long repaired = 0;
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                repaired += reconcile(shard);
+            }
+            if (repaired > 0) LOGGER.info("Repaired {} click counters", repaired);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            LOGGER.error("Click counter reconciliation failed", ex);
+        }
+    }
+
+    // Same lease scheme as the reaper: one node per interval, every node without Redis
+    private boolean acquireLease() {
+        return redisBreaker.call(() -> Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(LEASE_KEY, "1", Math.max(1, intervalMillis - 1000), TimeUnit.MILLISECONDS)), () -> true);
+    }
+
+    private long reconcile(int shard) throws InterruptedException {
+        long lastId = 0;
+        long repaired = 0;
+        while (true) {
+            long afterId = lastId;
+            List<IdAndCode> links = shardRouter.onShard(shard, () -> shortUrlJdbcRepository.findIdsAndCodes(afterId, chunkSize));
+            if (links.isEmpty()) return repaired;
+
+            repaired += reconcileChunk(shard, links);
+            if (links.size() < chunkSize) return repaired;
+            lastId = links.get(links.size() - 1).id();
+            Thread.sleep(chunkPauseMillis);
+        }
+    }
+
+    private int reconcileChunk(int shard, List<IdAndCode> links) {
+        List<Long> ids = links.stream().map(IdAndCode::id).toList();
+        Map<Long, Long> counters = onShard(shard, () -> clickCounterJdbcRepository.findCounts(ids));
+        Map<Long, EventCount> events = onShard(shard, () -> clickCounterJdbcRepository.countEvents(ids));
+        Date settledBefore = new Date(System.currentTimeMillis() - graceMillis);
+
+        Map<Long, Long> repairs = new HashMap<>();
+        List<String> repairedCodes = new ArrayList<>();
+        for (IdAndCode link : links) {
+            long counted = counters.getOrDefault(link.id(), 0L);
+            EventCount eventCount = events.get(link.id());
+            long written = eventCount != null ? eventCount.count() : 0;
+            if (counted == written) continue;
+
+            boolean settled = eventCount == null || eventCount.lastWrittenAt() == null || eventCount.lastWrittenAt().before(settledBefore);
+            if (counted < written && !settled) continue;
+
+            repairs.put(link.id(), written - counted);
+            repairedCodes.add(link.shortCode());
+        }
+        if (repairs.isEmpty()) return 0;
+
+        onShard(shard, () -> {
+            clickCounterJdbcRepository.add(repairs);
+            return null;
+        });
+        // The next read reloads the repaired total from the table
+        clickCounters.forget(repairedCodes);
+        repairedCounter.increment(repairs.size());
+        return repairs.size();
+    }
+
+    private <T> T onShard(int shard, Supplier<T> query) {
+        return shardRouter.onShard(shard, () -> workloadRouter.call(Workload.ANALYTICS, query));
+    }
+}
@@ -0,0 +1,91 @@
+package com.shivam.urlshortenerservice.services;
+
+import com.shivam.urlshortenerservice.repositories.ClickRollupJdbcRepository;
+import com.shivam.urlshortenerservice.sharding.ShardRouter;
+import com.shivam.urlshortenerservice.utils.ThreadUtils;
+import com.shivam.urlshortenerservice.workloads.Workload;
+import com.shivam.urlshortenerservice.workloads.WorkloadRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Catches click_daily_rollup up with click_events every interval, chunk by chunk, on each shard.
+// No lease is needed: the watermark row lock makes nodes running at the same time take turns.
+// While it is off or behind, daily stats stay exact but count more events live.
+@Component
+@ConditionalOnProperty(name = "shortener.rollup.enabled", havingValue = "true")
+public class ClickRollupJob {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClickRollupJob.class);
+
+    private final ClickRollupJdbcRepository clickRollupJdbcRepository;
+    private final ShardRouter shardRouter;
+    private final WorkloadRouter workloadRouter;
+    private final long intervalMillis;
+    private final long settleMillis;
+    private final int chunkSize;
+    private final boolean virtualThreads;
+    private final Counter rolledUpCounter;
+
+    private ScheduledExecutorService executor;
+
+    public ClickRollupJob(ClickRollupJdbcRepository clickRollupJdbcRepository, ShardRouter shardRouter,
+                          WorkloadRouter workloadRouter, MeterRegistry meterRegistry,
+                          @Value("${shortener.rollup.interval-ms:10000}") long intervalMillis,
+                          @Value("${shortener.rollup.settle-ms:60000}") long settleMillis,
+                          @Value("${shortener.rollup.chunk-size:10000}") int chunkSize,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.clickRollupJdbcRepository = clickRollupJdbcRepository;
+        this.shardRouter = shardRouter;
+        this.workloadRouter = workloadRouter;
+        this.intervalMillis = intervalMillis;
+        this.settleMillis = settleMillis;
+        this.chunkSize = chunkSize;
+        this.virtualThreads = virtualThreads;
+        this.rolledUpCounter = meterRegistry.counter("clicks.rollup.watermark-advanced");
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(ThreadUtils.newThreadFactory("click-rollup-", virtualThreads));
+        executor.scheduleWithFixedDelay(this::run, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void run() {
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            try {
+                rollUp(shard);
+            } catch (RuntimeException ex) {
+                LOGGER.error("Click rollup failed on shard {}", shard, ex);
+            }
+        }
+    }
+
+    // Each chunk is its own short transaction; stops once the settled events are all rolled up
+    private void rollUp(int shard) {
+        Date settledBefore = new Date(System.currentTimeMillis() - settleMillis);
+        while (!Thread.currentThread().isInterrupted()) {
+            long rolledUp = shardRouter.onShard(shard, () -> workloadRouter.call(Workload.INGESTION,
+                    () -> clickRollupJdbcRepository.rollUp(chunkSize, settledBefore)));
+            if (rolledUp == 0) return;
+            rolledUpCounter.increment(rolledUp);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.shivam.urlshortenerservice.services;
+
+import com.shivam.urlshortenerservice.caches.LocalShortUrlCache;
+import com.shivam.urlshortenerservice.caches.ShortCodeFilter;
+import com.shivam.urlshortenerservice.caches.ShortUrlCacheWriter;
+import com.shivam.urlshortenerservice.dtos.BulkDeleteRequest;
+import com.shivam.urlshortenerservice.exceptions.DeleteJobNotFoundException;
+import com.shivam.urlshortenerservice.exceptions.ForbiddenOperationException;
+import com.shivam.urlshortenerservice.exceptions.InvalidDateFormatException;
+import com.shivam.urlshortenerservice.exceptions.InvalidRequestException;
+import com.shivam.urlshortenerservice.ingestion.ClickCounters;
+import com.shivam.urlshortenerservice.ingestion.TopClickedSketch;
+import com.shivam.urlshortenerservice.ingestion.UniqueVisitors;
+import com.shivam.urlshortenerservice.models.DeleteJob;
+import com.shivam.urlshortenerservice.models.DeleteJobStatus;
+import com.shivam.urlshortenerservice.models.User;
+import com.shivam.urlshortenerservice.repositories.DeleteJobRepository;
+import com.shivam.urlshortenerservice.repositories.ShortUrlJdbcRepository;
+import com.shivam.urlshortenerservice.repositories.ShortUrlJdbcRepository.IdAndCode;
+import com.shivam.urlshortenerservice.repositories.UserRepository;
+import com.shivam.urlshortenerservice.sharding.ShardRouter;
+import com.shivam.urlshortenerservice.utils.DateUtils;
+import com.shivam.urlshortenerservice.utils.StringUtils;
+import com.shivam.urlshortenerservice.utils.ThreadUtils;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Deletes links in bulk in the background. Rows are selected chunkSize at a time (by code list or
+// by a keyset walk over a filter), marked DELETED with one UPDATE per chunk (or removed together
+// with their click events when purging) and evicted from Redis with one pipelined UNLINK.
+// Every step is idempotent, so the job checkpoints after each chunk and resumes from there.
+// With sharding a chunk of codes is split by shard and a filter walks the shards one by one;
+// the job itself always lives on shard 0.
+@Service
+public class DeleteJobService implements IDeleteJobService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeleteJobService.class);
+
+    private final DeleteJobRepository deleteJobRepository;
+    private final UserRepository userRepository;
+    private final ShortUrlJdbcRepository shortUrlJdbcRepository;
+    private final ShortUrlCacheWriter cacheWriter;
+    private final LocalShortUrlCache localCache;
+    private final ShortCodeFilter shortCodeFilter;
+    private final ShardRouter shardRouter;
+    private final ClickCounters clickCounters;
+    private final TopClickedSketch topClickedSketch;
+    private final UniqueVisitors uniqueVisitors;
+    private final int chunkSize;
+    private final int maxCodes;
+    private final long staleAfterMillis;
+    private final ExecutorService executor;
+
+    public DeleteJobService(DeleteJobRepository deleteJobRepository, UserRepository userRepository,
+                            ShortUrlJdbcRepository shortUrlJdbcRepository, ShortUrlCacheWriter cacheWriter,
+                            LocalShortUrlCache localCache, ShortCodeFilter shortCodeFilter, ShardRouter shardRouter,
+                            ClickCounters clickCounters, TopClickedSketch topClickedSketch, UniqueVisitors uniqueVisitors,
+                            @Value("${shortener.bulk-delete.chunk-size:1000}") int chunkSize,
+                            @Value("${shortener.bulk-delete.max-codes:50000}") int maxCodes,
+                            @Value("${shortener.bulk-delete.workers:1}") int workers,
+                            @Value("${shortener.bulk-delete.stale-after-ms:300000}") long staleAfterMillis,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.deleteJobRepository = deleteJobRepository;
+        this.userRepository = userRepository;
+        this.shortUrlJdbcRepository = shortUrlJdbcRepository;
+        this.cacheWriter = cacheWriter;
+        this.localCache = localCache;
+        this.shortCodeFilter = shortCodeFilter;
+        this.shardRouter = shardRouter;
+        this.clickCounters = clickCounters;
+        this.topClickedSketch = topClickedSketch;
+        this.uniqueVisitors = uniqueVisitors;
+        this.chunkSize = chunkSize;
+        this.maxCodes = maxCodes;
+        this.staleAfterMillis = staleAfterMillis;
+        this.executor = Executors.newFixedThreadPool(workers, ThreadUtils.newThreadFactory("url-delete-", virtualThreads));
+    }
+
+    // Users can only delete their own links: by code list, or by filter (all of them without one)
+    @Override
+    public DeleteJob createDeleteJob(BulkDeleteRequest request, String userEmail) {
+        if (!StringUtils.isEmpty(request.getOwnerEmail()) || request.isPurge()) {
+            throw new ForbiddenOperationException("only admins can delete other users' urls or purge urls");
+        }
+
+        User user = findUser(userEmail);
+        return submit(newDeleteJob(request, user, user));
+    }
+
+    @Override
+    public DeleteJob createDeleteJobAsAdmin(BulkDeleteRequest request, String adminEmail) {
+        boolean hasFilter = !StringUtils.isEmpty(request.getOwnerEmail()) || !StringUtils.isEmpty(request.getCreatedAfter())
+                || !StringUtils.isEmpty(request.getCreatedBefore()) || request.isExpiredOnly();
+        if (!hasCodes(request) && !hasFilter) {
+            throw new InvalidRequestException("Give short codes or a filter, deleting every url is not supported");
+        }
+
+        User admin = findUser(adminEmail);
+        User owner = StringUtils.isEmpty(request.getOwnerEmail()) ? null : findUser(request.getOwnerEmail());
+        return submit(newDeleteJob(request, owner, admin));
+    }
+
+    @Override
+    public DeleteJob getDeleteJob(Long id, String userEmail) {
+        DeleteJob deleteJob = getDeleteJobAsAdmin(id);
+        if (!deleteJob.getCreatedBy().getEmail().equals(userEmail)) {
+            throw new ForbiddenOperationException("user is not the owner of this delete job");
+        }
+        return deleteJob;
+    }
+
+    @Override
+    public DeleteJob getDeleteJobAsAdmin(Long id) {
+        return deleteJobRepository.findById(id)
+                .orElseThrow(() -> new DeleteJobNotFoundException("Delete job does not exist"));
+    }
+
+    @Override
+    public DeleteJob resumeDeleteJob(Long id) {
+        DeleteJob deleteJob = getDeleteJobAsAdmin(id);
+        if (deleteJob.getStatus() == DeleteJobStatus.COMPLETED) {
+            throw new InvalidRequestException("Delete job has already completed");
+        }
+
+        executor.execute(() -> run(id));
+        return deleteJob;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private DeleteJob newDeleteJob(BulkDeleteRequest request, User owner, User createdBy) {
+        DeleteJob deleteJob = new DeleteJob();
+        deleteJob.setStatus(DeleteJobStatus.QUEUED);
+        deleteJob.setHardDelete(request.isPurge());
+        deleteJob.setOwner(owner);
+        deleteJob.setCreatedBy(createdBy);
+
+        if (hasCodes(request)) {
+            Set<String> shortCodes = new LinkedHashSet<>();
+            request.getShortCodes().stream().filter(code -> !StringUtils.isEmpty(code)).forEach(shortCodes::add);
+            if (shortCodes.size() > maxCodes) {
+                throw new InvalidRequestException("At most " + maxCodes + " short codes can be deleted per job, use a filter instead");
+            }
+            deleteJob.setShortCodes(String.join("\n", shortCodes));
+        } else {
+            deleteJob.setCreatedAfter(parseDate(request.getCreatedAfter()));
+            deleteJob.setCreatedBefore(parseDate(request.getCreatedBefore()));
+            deleteJob.setExpiredOnly(request.isExpiredOnly());
+        }
+        return deleteJob;
+    }
+
+    private DeleteJob submit(DeleteJob deleteJob) {
+        DeleteJob saved = deleteJobRepository.save(deleteJob);
+        Long id = saved.getId();
+        executor.execute(() -> run(id));
+        return saved;
+    }
+
+    private void run(Long id) {
+        Date now = new Date();
+        int claimed = deleteJobRepository.claim(id, DeleteJobStatus.RUNNING,
+                List.of(DeleteJobStatus.QUEUED, DeleteJobStatus.FAILED),
+                now, new Date(now.getTime() - staleAfterMillis));
+        if (claimed != 1) {
+            LOGGER.info("Delete job {} is already running or has completed", id);
+            return;
+        }
+
+        DeleteJob deleteJob = getDeleteJobAsAdmin(id);
+        try {
+            if (deleteJob.getStartedAt() == null) deleteJob.setStartedAt(now);
+            deleteJob.setLastError(null);
+            deleteJob = deleteJobRepository.save(deleteJob);
+
+            deleteJob = deleteJob.getShortCodes() != null ? deleteByCodes(deleteJob) : deleteByFilter(deleteJob);
+
+            deleteJob.setStatus(DeleteJobStatus.COMPLETED);
+            deleteJob.setFinishedAt(new Date());
+            deleteJob = deleteJobRepository.save(deleteJob);
+
+            LOGGER.info("Delete job {} completed: {} urls deleted", id, deleteJob.getRowsDeleted());
+        } catch (Exception ex) {
+            LOGGER.error("Delete job {} failed after {} urls", id, deleteJob.getRowsDeleted(), ex);
+            deleteJob.setStatus(DeleteJobStatus.FAILED);
+            String message = StringUtils.isEmpty(ex.getMessage()) ? ex.getClass().getSimpleName() : ex.getMessage();
+            deleteJob.setLastError(message.length() > 1024 ? message.substring(0, 1024) : message);
+            deleteJobRepository.save(deleteJob);
+        }
+    }
+
+    private DeleteJob deleteByCodes(DeleteJob deleteJob) {
+        List<String> shortCodes = deleteJob.getShortCodes().isEmpty() ? List.of() : List.of(deleteJob.getShortCodes().split("\n"));
+        Long ownerId = deleteJob.getOwner() != null ? deleteJob.getOwner().getId() : null;
+        boolean hardDelete = deleteJob.isHardDelete();
+
+        for (int from = deleteJob.getCodesProcessed(); from < shortCodes.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, shortCodes.size());
+            Map<Integer, List<String>> groups = shardRouter.groupByShard(shortCodes.subList(from, to), shortCode -> shortCode);
+            for (Map.Entry<Integer, List<String>> group : groups.entrySet()) {
+                int shard = group.getKey();
+                List<IdAndCode> rows = shardRouter.onShard(shard, () ->
+                        shortUrlJdbcRepository.findByShortCodes(group.getValue(), ownerId, hardDelete));
+                deleteChunk(deleteJob, shard, rows);
+            }
+            deleteJob.setCodesProcessed(to);
+            deleteJob = deleteJobRepository.save(deleteJob);
+        }
+        return deleteJob;
+    }
+
+    private DeleteJob deleteByFilter(DeleteJob deleteJob) {
+        Long ownerId = deleteJob.getOwner() != null ? deleteJob.getOwner().getId() : null;
+
+        while (deleteJob.getCheckpointShard() < shardRouter.shardCount()) {
+            DeleteJob current = deleteJob;
+            int shard = current.getCheckpointShard();
+            List<IdAndCode> rows = shardRouter.onShard(shard, () -> shortUrlJdbcRepository.findMatching(current.getCheckpointId(), ownerId,
+                    current.getCreatedAfter(), current.getCreatedBefore(), current.isExpiredOnly(),
+                    current.isHardDelete(), chunkSize));
+
+            if (rows.isEmpty()) {
+                deleteJob.setCheckpointShard(shard + 1);
+                deleteJob.setCheckpointId(0);
+            } else {
+                deleteChunk(deleteJob, shard, rows);
+                deleteJob.setCheckpointId(rows.get(rows.size() - 1).id());
+            }
+            deleteJob = deleteJobRepository.save(deleteJob);
+        }
+        return deleteJob;
+    }
+
+    private void deleteChunk(DeleteJob deleteJob, int shard, List<IdAndCode> rows) {
+        if (rows.isEmpty()) return;
+
+        List<Long> ids = rows.stream().map(IdAndCode::id).toList();
+        List<String> shortCodes = rows.stream().map(IdAndCode::shortCode).toList();
+
+        int deleted = shardRouter.onShard(shard, () -> deleteJob.isHardDelete()
+                ? shortUrlJdbcRepository.purge(ids)
+                : shortUrlJdbcRepository.markDeleted(ids));
+
+        int evicted = cacheWriter.evictAll(shortCodes);
+        localCache.invalidateDeleted(shortCodes);
+        shortCodes.forEach(shortCodeFilter::markDeleted);
+        if (deleteJob.isHardDelete()) {
+            clickCounters.forget(shortCodes);
+            topClickedSketch.forget(shortCodes);
+            uniqueVisitors.forget(shortCodes);
+        }
+
+        deleteJob.setRowsDeleted(deleteJob.getRowsDeleted() + deleted);
+        // Only keys Redis actually removed: codes that were not cached and evictions deferred to
+        // the breaker (they happen on recovery) are not counted here
+        deleteJob.setKeysEvicted(deleteJob.getKeysEvicted() + evicted);
+    }
+
+    private User findUser(String email) {
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("user not found"));
+    }
+
+    private static boolean hasCodes(BulkDeleteRequest request) {
+        return request.getShortCodes() != null && !request.getShortCodes().isEmpty();
+    }
+
+    private static Date parseDate(String date) {
+        if (StringUtils.isEmpty(date)) return null;
+        try {
+            return DateUtils.formatDate(date);
+        } catch (ParseException e) {
+            throw new InvalidDateFormatException("Invalid date format. Use yyyy-MM-dd");
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.shivam.urlshortenerservice.services;
+
+import com.shivam.urlshortenerservice.dtos.BulkDeleteRequest;
+import com.shivam.urlshortenerservice.models.DeleteJob;
+
+public interface IDeleteJobService {
+    DeleteJob createDeleteJob(BulkDeleteRequest request, String userEmail);
+    DeleteJob createDeleteJobAsAdmin(BulkDeleteRequest request, String adminEmail);
+    DeleteJob getDeleteJob(Long id, String userEmail);
+    DeleteJob getDeleteJobAsAdmin(Long id);
+    DeleteJob resumeDeleteJob(Long id);
+}
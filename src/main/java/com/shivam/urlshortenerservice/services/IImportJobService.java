@@ -0,0 +1,12 @@
+package com.shivam.urlshortenerservice.services;
+
+import com.shivam.urlshortenerservice.models.ImportFormat;
+import com.shivam.urlshortenerservice.models.ImportJob;
+
+import java.io.InputStream;
+
+public interface IImportJobService {
+    ImportJob createImportJob(InputStream file, ImportFormat format, boolean warmCache, String userEmail);
+    ImportJob getImportJob(Long id);
+    ImportJob resumeImportJob(Long id);
+}
@@ -0,0 +1,5 @@
+package com.shivam.urlshortenerservice.services;
+
+public interface IRedirectService {
+    String redirect(String shortCode, String ipAddress, String userAgent, String referrer);
+}
@@ -1,11 +1,18 @@
 package com.shivam.urlshortenerservice.services;
 
+import com.shivam.urlshortenerservice.caches.CachedShortUrl;
+import com.shivam.urlshortenerservice.dtos.BatchShortUrlResult;
+import com.shivam.urlshortenerservice.dtos.ShortUrlRequest;
 import com.shivam.urlshortenerservice.models.ShortUrl;
 import org.springframework.data.domain.Page;
 
+import java.util.List;
+
 public interface IShortUrlService {
     ShortUrl createShortUrl(String originalUrl, String alias, String expirationDate, String userEmail);
+    List<BatchShortUrlResult> createShortUrls(List<ShortUrlRequest> requests, String userEmail);
     String getOriginalUrl(String shortCode);
+    CachedShortUrl resolveShortUrl(String shortCode);
     ShortUrl getShortUrl(String shortCode, String userEmail);
     Page<ShortUrl> getShortUrlsForUser(String email, int page, int size);
     void deleteShortUrl(String shortCode, String userEmail);
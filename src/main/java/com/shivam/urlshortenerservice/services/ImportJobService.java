@@ -0,0 +1,355 @@
+package com.shivam.urlshortenerservice.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.RateLimiter;
+import com.shivam.urlshortenerservice.caches.ShortCodeFilter;
+import com.shivam.urlshortenerservice.caches.ShortUrlCacheWriter;
+import com.shivam.urlshortenerservice.dtos.ShortUrlRequest;
+import com.shivam.urlshortenerservice.exceptions.ImportJobNotFoundException;
+import com.shivam.urlshortenerservice.exceptions.InvalidDateFormatException;
+import com.shivam.urlshortenerservice.exceptions.InvalidRequestException;
+import com.shivam.urlshortenerservice.generators.ShortCodeGenerator;
+import com.shivam.urlshortenerservice.models.*;
+import com.shivam.urlshortenerservice.repositories.ImportJobRepository;
+import com.shivam.urlshortenerservice.repositories.ShortUrlJdbcRepository;
+import com.shivam.urlshortenerservice.repositories.ShortUrlRepository;
+import com.shivam.urlshortenerservice.repositories.UserRepository;
+import com.shivam.urlshortenerservice.sharding.ShardRouter;
+import com.shivam.urlshortenerservice.utils.ImportRecordReader;
+import com.shivam.urlshortenerservice.utils.ShortUrlUtil;
+import com.shivam.urlshortenerservice.utils.StringUtils;
+import com.shivam.urlshortenerservice.utils.ThreadUtils;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Imports links from an uploaded CSV/NDJSON file in the background. The file is streamed
+// in batches of batchSize records; each batch is one JDBC batch insert committed together
+// with the job's checkpoint, so a failed or interrupted job resumes after the last committed
+// batch. The optional warm phase then walks the imported id range and caches the job owner's
+// rows in it in Redis, throttled to warmRatePerSecond.
+// When sharded, each batch is inserted shard by shard and the checkpoint is saved afterwards,
+// so a crash in between can re-run part of a batch; the ids no longer form one range, so the
+// batch is warmed as soon as it is inserted instead.
+@Service
+public class ImportJobService implements IImportJobService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportJobService.class);
+    private static final int MAX_BATCH_ATTEMPTS = 3;
+    private static final int WARM_CHUNK_SIZE = 500;
+    private static final int MAX_ORIGINAL_URL_LENGTH = 2048;
+    private static final int MAX_SHORT_CODE_LENGTH = 20;
+
+    private final ImportJobRepository importJobRepository;
+    private final UserRepository userRepository;
+    private final ShortUrlRepository shortUrlRepository;
+    private final ShortUrlJdbcRepository shortUrlJdbcRepository;
+    private final ShortCodeGenerator shortCodeGenerator;
+    private final ShortCodeFilter shortCodeFilter;
+    private final ShortUrlCacheWriter cacheWriter;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final int batchSize;
+    private final RateLimiter warmRateLimiter;
+    private final long staleAfterMillis;
+    private final ExecutorService executor;
+
+    public ImportJobService(ImportJobRepository importJobRepository, UserRepository userRepository,
+                            ShortUrlRepository shortUrlRepository, ShortUrlJdbcRepository shortUrlJdbcRepository,
+                            ShortCodeGenerator shortCodeGenerator, ShortCodeFilter shortCodeFilter,
+                            ShortUrlCacheWriter cacheWriter, ShardRouter shardRouter, TransactionTemplate transactionTemplate,
+                            ObjectMapper objectMapper,
+                            @Value("${shortener.import.directory:${java.io.tmpdir}/url-imports}") String directory,
+                            @Value("${shortener.import.batch-size:5000}") int batchSize,
+                            @Value("${shortener.import.workers:1}") int workers,
+                            @Value("${shortener.import.warm-rate-per-second:5000}") double warmRatePerSecond,
+                            @Value("${shortener.import.stale-after-ms:300000}") long staleAfterMillis,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.importJobRepository = importJobRepository;
+        this.userRepository = userRepository;
+        this.shortUrlRepository = shortUrlRepository;
+        this.shortUrlJdbcRepository = shortUrlJdbcRepository;
+        this.shortCodeGenerator = shortCodeGenerator;
+        this.shortCodeFilter = shortCodeFilter;
+        this.cacheWriter = cacheWriter;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(directory);
+        this.batchSize = batchSize;
+        this.warmRateLimiter = RateLimiter.create(warmRatePerSecond);
+        this.staleAfterMillis = staleAfterMillis;
+        this.executor = Executors.newFixedThreadPool(workers, ThreadUtils.newThreadFactory("url-import-", virtualThreads));
+    }
+
+    @Override
+    public ImportJob createImportJob(InputStream file, ImportFormat format, boolean warmCache, String userEmail) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new UsernameNotFoundException("user not found"));
+
+        // Streamed to disk so the job can resume from it after a failure or restart
+        Path path = directory.resolve(UUID.randomUUID() + "." + format.name().toLowerCase());
+        try {
+            Files.createDirectories(directory);
+            if (Files.copy(file, path) == 0) {
+                Files.delete(path);
+                throw new InvalidRequestException("Import file is empty");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store import file", e);
+        }
+
+        ImportJob importJob = new ImportJob();
+        importJob.setStatus(ImportJobStatus.QUEUED);
+        importJob.setFormat(format);
+        importJob.setFilePath(path.toString());
+        importJob.setWarmCache(warmCache);
+        importJob.setCreatedBy(user);
+        importJob = importJobRepository.save(importJob);
+
+        Long id = importJob.getId();
+        executor.execute(() -> run(id));
+        return importJob;
+    }
+
+    @Override
+    public ImportJob getImportJob(Long id) {
+        return importJobRepository.findById(id)
+                .orElseThrow(() -> new ImportJobNotFoundException("Import job does not exist"));
+    }
+
+    // Picks a failed job (or one orphaned by a crashed node) back up from its last checkpoint
+    @Override
+    public ImportJob resumeImportJob(Long id) {
+        ImportJob importJob = getImportJob(id);
+        if (importJob.getStatus() == ImportJobStatus.COMPLETED) {
+            throw new InvalidRequestException("Import job has already completed");
+        }
+
+        executor.execute(() -> run(id));
+        return importJob;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Long id) {
+        Date now = new Date();
+        int claimed = importJobRepository.claim(id, ImportJobStatus.RUNNING,
+                List.of(ImportJobStatus.QUEUED, ImportJobStatus.FAILED),
+                List.of(ImportJobStatus.RUNNING, ImportJobStatus.WARMING),
+                now, new Date(now.getTime() - staleAfterMillis));
+        if (claimed != 1) {
+            LOGGER.info("Import job {} is already running or has completed", id);
+            return;
+        }
+
+        ImportJob importJob = getImportJob(id);
+        try {
+            if (importJob.getStartedAt() == null) importJob.setStartedAt(now);
+            importJob.setLastError(null);
+            importJob = importJobRepository.save(importJob);
+
+            if (importJob.getImportCompletedAt() == null) importJob = importRows(importJob);
+            if (importJob.isWarmCache()) importJob = warmCache(importJob);
+
+            importJob.setStatus(ImportJobStatus.COMPLETED);
+            importJob.setFinishedAt(new Date());
+            importJob = importJobRepository.save(importJob);
+            Files.deleteIfExists(Path.of(importJob.getFilePath()));
+
+            LOGGER.info("Import job {} completed: {} imported, {} failed", id, importJob.getRowsImported(), importJob.getRowsFailed());
+        } catch (Exception ex) {
+            LOGGER.error("Import job {} failed after {} rows", id, importJob.getRowsProcessed(), ex);
+            importJob.setStatus(ImportJobStatus.FAILED);
+            importJob.setLastError(StringUtils.isEmpty(ex.getMessage()) ? ex.getClass().getSimpleName() : truncate(ex.getMessage()));
+            importJobRepository.save(importJob);
+        }
+    }
+
+    private ImportJob importRows(ImportJob importJob) throws IOException {
+        try (ImportRecordReader reader = new ImportRecordReader(Path.of(importJob.getFilePath()), importJob.getFormat(), objectMapper)) {
+            reader.skip(importJob.getRowsProcessed());
+
+            List<ShortUrlRequest> batch = new ArrayList<>(batchSize);
+            ShortUrlRequest record;
+            while ((record = reader.next()) != null) {
+                batch.add(record);
+                if (batch.size() == batchSize) {
+                    importJob = importBatch(importJob, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) importJob = importBatch(importJob, batch);
+        }
+
+        importJob.setImportCompletedAt(new Date());
+        return importJobRepository.save(importJob);
+    }
+
+    // A code taken between the alias check and the insert rolls the whole batch back; it is
+    // then rebuilt, which catches the clashing alias and draws fresh generated codes
+    private ImportJob importBatch(ImportJob importJob, List<ShortUrlRequest> records) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return importBatchOnce(importJob, records);
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_BATCH_ATTEMPTS) throw e;
+                LOGGER.warn("Import job {} hit a duplicate short code, retrying batch", importJob.getId());
+            }
+        }
+    }
+
+    private ImportJob importBatchOnce(ImportJob importJob, List<ShortUrlRequest> records) {
+        List<ShortUrl> shortUrls = new ArrayList<>(records.size());
+        List<ShortUrl> generated = new ArrayList<>();
+        Set<String> aliases = new HashSet<>();
+
+        for (ShortUrlRequest record : records) {
+            ShortUrl shortUrl = toShortUrl(record, importJob.getCreatedBy());
+            if (shortUrl == null) continue;
+
+            if (shortUrl.getShortCode() == null) {
+                generated.add(shortUrl);
+            } else if (!aliases.add(shortUrl.getShortCode())) {
+                continue;
+            }
+            shortUrls.add(shortUrl);
+        }
+
+        if (!aliases.isEmpty()) {
+            Set<String> taken = findExistingShortCodes(aliases);
+            shortUrls.removeIf(shortUrl -> shortUrl.getShortCode() != null && taken.contains(shortUrl.getShortCode()));
+        }
+
+        List<String> codes = shortCodeGenerator.nextCodes(generated.size());
+        for (int i = 0; i < generated.size(); i++) {
+            generated.get(i).setShortCode(codes.get(i));
+        }
+
+        if (shardRouter.isSharded()) return importShardedBatch(importJob, records, shortUrls);
+
+        ImportJob saved = transactionTemplate.execute(status -> {
+            if (!shortUrls.isEmpty()) shortUrlJdbcRepository.batchInsert(shortUrls);
+
+            importJob.setRowsProcessed(importJob.getRowsProcessed() + records.size());
+            importJob.setRowsImported(importJob.getRowsImported() + shortUrls.size());
+            importJob.setRowsFailed(importJob.getRowsFailed() + records.size() - shortUrls.size());
+            if (!shortUrls.isEmpty()) {
+                if (importJob.getFirstShortUrlId() == null) importJob.setFirstShortUrlId(shortUrls.get(0).getId());
+                importJob.setLastShortUrlId(shortUrls.get(shortUrls.size() - 1).getId());
+            }
+            return importJobRepository.save(importJob);
+        });
+
+        shortCodeFilter.addAll(shortUrls.stream().map(ShortUrl::getShortCode).toList());
+        return saved;
+    }
+
+    private ImportJob importShardedBatch(ImportJob importJob, List<ShortUrlRequest> records, List<ShortUrl> shortUrls) {
+        List<ShortUrl> inserted = new ArrayList<>(shortUrls.size());
+        shardRouter.groupByShard(shortUrls, ShortUrl::getShortCode)
+                .forEach((shard, group) -> inserted.addAll(insertOnShard(importJob, shard, group)));
+        shortCodeFilter.addAll(inserted.stream().map(ShortUrl::getShortCode).toList());
+
+        importJob.setRowsProcessed(importJob.getRowsProcessed() + records.size());
+        importJob.setRowsImported(importJob.getRowsImported() + inserted.size());
+        importJob.setRowsFailed(importJob.getRowsFailed() + records.size() - inserted.size());
+
+        if (importJob.isWarmCache() && !inserted.isEmpty()) {
+            warmRateLimiter.acquire(inserted.size());
+            cacheWriter.cacheAll(inserted);
+            importJob.setRowsWarmed(importJob.getRowsWarmed() + inserted.size());
+        }
+        return importJobRepository.save(importJob);
+    }
+
+    // Other shards of the batch may already be committed, so a clash only drops the clashing rows
+    private List<ShortUrl> insertOnShard(ImportJob importJob, int shard, List<ShortUrl> shortUrls) {
+        for (int attempt = 1; ; attempt++) {
+            List<ShortUrl> group = shortUrls;
+            try {
+                shardRouter.runOnShard(shard, () -> transactionTemplate.executeWithoutResult(status -> shortUrlJdbcRepository.batchInsert(group)));
+                return group;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_BATCH_ATTEMPTS) throw e;
+                LOGGER.warn("Import job {} hit a duplicate short code on shard {}, retrying", importJob.getId(), shard);
+
+                Set<String> taken = new HashSet<>(shardRouter.onShard(shard, () ->
+                        shortUrlRepository.findExistingShortCodes(group.stream().map(ShortUrl::getShortCode).toList())));
+                shortUrls = group.stream().filter(shortUrl -> !taken.contains(shortUrl.getShortCode())).toList();
+            }
+        }
+    }
+
+    private Set<String> findExistingShortCodes(Collection<String> shortCodes) {
+        Set<String> existing = new HashSet<>();
+        shardRouter.groupByShard(shortCodes, shortCode -> shortCode)
+                .forEach((shard, group) -> existing.addAll(shardRouter.onShard(shard, () -> shortUrlRepository.findExistingShortCodes(group))));
+        return existing;
+    }
+
+    // Returns null for records that cannot be imported; the short code stays null when one must be generated
+    private ShortUrl toShortUrl(ShortUrlRequest record, User user) {
+        String originalUrl = record.getOriginalUrl();
+        if (StringUtils.isEmpty(originalUrl) || originalUrl.length() > MAX_ORIGINAL_URL_LENGTH) return null;
+
+        String alias = record.getCustomAlias();
+        if (alias != null && (alias.isBlank() || alias.length() > MAX_SHORT_CODE_LENGTH)) return null;
+
+        Date expiresAt;
+        try {
+            expiresAt = ShortUrlUtil.getExpirationDate(record.getExpiresAt());
+        } catch (InvalidDateFormatException e) {
+            return null;
+        }
+        if (!expiresAt.after(new Date())) return null;
+
+        return new ShortUrl(originalUrl, alias, expiresAt, user, ShortUrlUtil.urlHash(originalUrl));
+    }
+
+    private ImportJob warmCache(ImportJob importJob) {
+        importJob.setStatus(ImportJobStatus.WARMING);
+        importJob = importJobRepository.save(importJob);
+        if (importJob.getFirstShortUrlId() == null) return importJob;
+
+        long lastId = importJob.getWarmCheckpointId() != null ? importJob.getWarmCheckpointId() : importJob.getFirstShortUrlId() - 1;
+
+        while (true) {
+            // Links other users created meanwhile got ids in the range too
+            List<ShortUrl> chunk = shortUrlJdbcRepository.findActiveInIdRange(lastId, importJob.getLastShortUrlId(),
+                    importJob.getCreatedBy().getId(), WARM_CHUNK_SIZE);
+            if (chunk.isEmpty()) return importJob;
+
+            warmRateLimiter.acquire(chunk.size());
+            cacheWriter.cacheAll(chunk);
+
+            lastId = chunk.get(chunk.size() - 1).getId();
+            importJob.setWarmCheckpointId(lastId);
+            importJob.setRowsWarmed(importJob.getRowsWarmed() + chunk.size());
+            importJob = importJobRepository.save(importJob);
+        }
+    }
+
+    private static String truncate(String value) {
+        return value.length() > 1024 ? value.substring(0, 1024) : value;
+    }
+}
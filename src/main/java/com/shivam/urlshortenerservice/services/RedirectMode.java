@@ -0,0 +1,10 @@
+package com.shivam.urlshortenerservice.services;
+
+public enum RedirectMode {
+    // Cache lookups in ShortUrlService, click handed to the in-memory ingestion queue
+    STANDARD,
+    // One Redis Lua script resolves the code and appends the click to a stream.
+    // The script runs before the L1 cache, the tombstones and the Bloom filter, which only serve
+    // the fallback when the code is not in Redis
+    LUA
+}
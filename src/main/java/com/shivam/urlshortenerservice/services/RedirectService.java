@@ -0,0 +1,94 @@
+package com.shivam.urlshortenerservice.services;
+
+import com.shivam.urlshortenerservice.caches.CachedShortUrl;
+import com.shivam.urlshortenerservice.caches.RedisCircuitBreaker;
+import com.shivam.urlshortenerservice.caches.ShortCodeFilter;
+import com.shivam.urlshortenerservice.exceptions.ExpiredShortCodeException;
+import com.shivam.urlshortenerservice.ingestion.ClickStreamConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class RedirectService implements IRedirectService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedirectService.class);
+    private static final RedisScript<String> REDIRECT_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/redirect.lua"), String.class);
+
+    private final IShortUrlService shortUrlService;
+    private final IAnalyticsService analyticsService;
+    private final StringRedisTemplate redisTemplate;
+    private final ShortCodeFilter shortCodeFilter;
+    private final RedisCircuitBreaker redisBreaker;
+    private final RedirectMode mode;
+    private final String streamMaxLength;
+
+    public RedirectService(IShortUrlService shortUrlService, IAnalyticsService analyticsService,
+                           StringRedisTemplate redisTemplate, ShortCodeFilter shortCodeFilter,
+                           RedisCircuitBreaker redisBreaker,
+                           @Value("${shortener.redirect.mode:STANDARD}") RedirectMode mode,
+                           @Value("${shortener.clicks.stream.max-length:1000000}") long streamMaxLength,
+                           @Value("${shortener.clicks.stream.consumer-enabled:auto}") String consumerEnabled) {
+        this.shortUrlService = shortUrlService;
+        this.analyticsService = analyticsService;
+        this.redisTemplate = redisTemplate;
+        this.shortCodeFilter = shortCodeFilter;
+        this.redisBreaker = redisBreaker;
+        this.mode = mode;
+        this.streamMaxLength = String.valueOf(streamMaxLength);
+
+        if (mode == RedirectMode.LUA && "false".equals(consumerEnabled)) {
+            LOGGER.warn("LUA redirect mode with the click stream consumer disabled: another node must drain {}",
+                    ClickStreamConsumer.STREAM_KEY);
+        }
+    }
+
+    @Override
+    public String redirect(String shortCode, String ipAddress, String userAgent, String referrer) {
+        if (mode == RedirectMode.LUA) {
+            String value = runRedirectScript(shortCode, ipAddress, userAgent, referrer);
+            if (value != null) return fromScriptResult(shortCode, value);
+        }
+
+        // Redis miss, Redis unavailable (or standard mode): resolve through the caches/DB and queue the click in memory
+        String originalUrl = shortUrlService.resolveShortUrl(shortCode).originalUrl();
+        analyticsService.logClick(shortCode, ipAddress, userAgent, referrer);
+        return originalUrl;
+    }
+
+    // Returns the cached value, or null when the code is not in Redis (or Redis could not be
+    // reached) and nothing was recorded
+    private String runRedirectScript(String shortCode, String ipAddress, String userAgent, String referrer) {
+        return redisBreaker.call(() -> redisTemplate.execute(REDIRECT_SCRIPT,
+                List.of(shortCode, ClickStreamConsumer.STREAM_KEY),
+                shortCode, nullToEmpty(ipAddress), nullToEmpty(userAgent), nullToEmpty(referrer),
+                String.valueOf(System.currentTimeMillis()), streamMaxLength), () -> null);
+    }
+
+    private String fromScriptResult(String shortCode, String value) {
+        CachedShortUrl cachedShortUrl = CachedShortUrl.decode(value);
+
+        // Value in an older format: the script has already streamed the click, so only resolve
+        if (cachedShortUrl == null) return shortUrlService.resolveShortUrl(shortCode).originalUrl();
+
+        if (cachedShortUrl.isExpired()) {
+            shortCodeFilter.markExpired(shortCode);
+            throw new ExpiredShortCodeException("Short URL has expired");
+        }
+
+        LOGGER.debug("Returned long url from redirect script : {}", cachedShortUrl.originalUrl());
+        return cachedShortUrl.originalUrl();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,176 @@
+package com.shivam.urlshortenerservice.services;
+
+import com.shivam.urlshortenerservice.caches.LocalShortUrlCache;
+import com.shivam.urlshortenerservice.caches.RedisCircuitBreaker;
+import com.shivam.urlshortenerservice.caches.ShortCodeFilter;
+import com.shivam.urlshortenerservice.caches.ShortUrlCacheWriter;
+import com.shivam.urlshortenerservice.ingestion.ClickCounters;
+import com.shivam.urlshortenerservice.ingestion.TopClickedSketch;
+import com.shivam.urlshortenerservice.ingestion.UniqueVisitors;
+import com.shivam.urlshortenerservice.repositories.ShortUrlJdbcRepository;
+import com.shivam.urlshortenerservice.repositories.ShortUrlJdbcRepository.IdAndCode;
+import com.shivam.urlshortenerservice.sharding.ShardRouter;
+import com.shivam.urlshortenerservice.utils.ThreadUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Keeps dead rows out of short_urls. Every interval it marks links past expires_at as EXPIRED
+// (and evicts them from Redis and the local caches), then, when archiving is enabled, moves deleted
+// and expired rows untouched for archive-after-days, with their click events, into the archive
+// tables. Archived links answer 404 instead of 410 and drop out of analytics. Both stages work in
+// chunks with a pause in between so they never hold locks or the buffer pool for long. A Redis
+// lease lets one node run per interval; every step is idempotent, so a second runner is harmless.
+@Component
+@ConditionalOnProperty(name = "shortener.reaper.enabled", havingValue = "true")
+public class ShortUrlReaper {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShortUrlReaper.class);
+    private static final String LEASE_KEY = "short-url:reaper:lease";
+
+    private final ShortUrlJdbcRepository shortUrlJdbcRepository;
+    private final ShardRouter shardRouter;
+    private final ShortUrlCacheWriter cacheWriter;
+    private final LocalShortUrlCache localCache;
+    private final ShortCodeFilter shortCodeFilter;
+    private final ClickCounters clickCounters;
+    private final TopClickedSketch topClickedSketch;
+    private final UniqueVisitors uniqueVisitors;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker redisBreaker;
+    private final long intervalMillis;
+    private final int chunkSize;
+    private final long chunkPauseMillis;
+    private final boolean archiveEnabled;
+    private final long archiveAfterMillis;
+    private final boolean virtualThreads;
+    private final Counter expiredCounter;
+    private final Counter archivedCounter;
+
+    private ScheduledExecutorService executor;
+
+    public ShortUrlReaper(ShortUrlJdbcRepository shortUrlJdbcRepository, ShardRouter shardRouter, ShortUrlCacheWriter cacheWriter,
+                          LocalShortUrlCache localCache, ShortCodeFilter shortCodeFilter, ClickCounters clickCounters,
+                          TopClickedSketch topClickedSketch, UniqueVisitors uniqueVisitors,
+                          StringRedisTemplate redisTemplate, RedisCircuitBreaker redisBreaker,
+                          MeterRegistry meterRegistry,
+                          @Value("${shortener.reaper.interval-ms:60000}") long intervalMillis,
+                          @Value("${shortener.reaper.chunk-size:1000}") int chunkSize,
+                          @Value("${shortener.reaper.chunk-pause-ms:50}") long chunkPauseMillis,
+                          @Value("${shortener.reaper.archive-enabled:false}") boolean archiveEnabled,
+                          @Value("${shortener.reaper.archive-after-days:30}") long archiveAfterDays,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.shortUrlJdbcRepository = shortUrlJdbcRepository;
+        this.shardRouter = shardRouter;
+        this.cacheWriter = cacheWriter;
+        this.localCache = localCache;
+        this.shortCodeFilter = shortCodeFilter;
+        this.clickCounters = clickCounters;
+        this.topClickedSketch = topClickedSketch;
+        this.uniqueVisitors = uniqueVisitors;
+        this.redisTemplate = redisTemplate;
+        this.redisBreaker = redisBreaker;
+        this.intervalMillis = intervalMillis;
+        this.chunkSize = chunkSize;
+        this.chunkPauseMillis = chunkPauseMillis;
+        this.archiveEnabled = archiveEnabled;
+        this.archiveAfterMillis = TimeUnit.DAYS.toMillis(archiveAfterDays);
+        this.virtualThreads = virtualThreads;
+        this.expiredCounter = meterRegistry.counter("short-urls.reaper.expired");
+        this.archivedCounter = meterRegistry.counter("short-urls.reaper.archived");
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(ThreadUtils.newThreadFactory("short-url-reaper-", virtualThreads));
+        executor.scheduleWithFixedDelay(this::run, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void run() {
+        try {
+            if (!acquireLease()) return;
+
+            long expired = 0;
+            long archived = 0;
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                expired += expireLinks(shard);
+                if (archiveEnabled) archived += archiveDeadRows(shard);
+            }
+            if (expired > 0 || archived > 0) {
+                LOGGER.info("Reaper expired {} and archived {} short urls", expired, archived);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            // Whatever was not handled is picked up again on the next run
+            LOGGER.error("Short url reaper run failed", ex);
+        }
+    }
+
+    // The lease is not released, so the next run anywhere starts an interval later; without Redis every node runs
+    private boolean acquireLease() {
+        return redisBreaker.call(() -> Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(LEASE_KEY, "1", Math.max(1, intervalMillis - 1000), TimeUnit.MILLISECONDS)), () -> true);
+    }
+
+    private long expireLinks(int shard) throws InterruptedException {
+        long total = 0;
+        while (true) {
+            List<IdAndCode> rows = shardRouter.onShard(shard, () -> shortUrlJdbcRepository.findExpiredActive(new Date(), chunkSize));
+            if (rows.isEmpty()) return total;
+
+            List<Long> ids = rows.stream().map(IdAndCode::id).toList();
+            int expired = shardRouter.onShard(shard, () -> shortUrlJdbcRepository.markExpired(ids));
+
+            List<String> shortCodes = rows.stream().map(IdAndCode::shortCode).toList();
+            cacheWriter.evictAll(shortCodes);
+            localCache.invalidateAll(shortCodes);
+            shortCodes.forEach(shortCodeFilter::markExpired);
+
+            expiredCounter.increment(expired);
+            total += expired;
+            if (rows.size() < chunkSize) return total;
+            Thread.sleep(chunkPauseMillis);
+        }
+    }
+
+    private long archiveDeadRows(int shard) throws InterruptedException {
+        Date cutoff = new Date(System.currentTimeMillis() - archiveAfterMillis);
+        long total = 0;
+        while (true) {
+            List<IdAndCode> rows = shardRouter.onShard(shard, () -> shortUrlJdbcRepository.findArchivable(cutoff, chunkSize));
+            if (rows.isEmpty()) return total;
+
+            List<Long> ids = rows.stream().map(IdAndCode::id).toList();
+            int archived = shardRouter.onShard(shard, () -> shortUrlJdbcRepository.archive(ids));
+            List<String> shortCodes = rows.stream().map(IdAndCode::shortCode).toList();
+            clickCounters.forget(shortCodes);
+            topClickedSketch.forget(shortCodes);
+            uniqueVisitors.forget(shortCodes);
+
+            archivedCounter.increment(archived);
+            total += archived;
+            if (rows.size() < chunkSize) return total;
+            Thread.sleep(chunkPauseMillis);
+        }
+    }
+}
@@ -1,14 +1,33 @@
 package com.shivam.urlshortenerservice.services;
 
+import com.shivam.urlshortenerservice.caches.CachedShortUrl;
+import com.shivam.urlshortenerservice.caches.LocalShortUrlCache;
+import com.shivam.urlshortenerservice.caches.RedisCircuitBreaker;
+import com.shivam.urlshortenerservice.caches.RedisLoadLock;
+import com.shivam.urlshortenerservice.caches.ShortCodeFilter;
+import com.shivam.urlshortenerservice.caches.ShortUrlCacheWriter;
+import com.shivam.urlshortenerservice.caches.SingleFlight;
+import com.shivam.urlshortenerservice.dtos.BatchShortUrlResult;
+import com.shivam.urlshortenerservice.dtos.ShortUrlRequest;
 import com.shivam.urlshortenerservice.exceptions.*;
+import com.shivam.urlshortenerservice.generators.ShortCodeGenerator;
 import com.shivam.urlshortenerservice.models.ShortUrl;
 import com.shivam.urlshortenerservice.models.State;
 import com.shivam.urlshortenerservice.models.User;
+import com.shivam.urlshortenerservice.repositories.ShortUrlJdbcRepository;
 import com.shivam.urlshortenerservice.repositories.ShortUrlRepository;
 import com.shivam.urlshortenerservice.repositories.UserRepository;
+import com.shivam.urlshortenerservice.replication.ReadRoute;
+import com.shivam.urlshortenerservice.replication.ReplicaRouter;
+import com.shivam.urlshortenerservice.sharding.ShardRouter;
 import com.shivam.urlshortenerservice.utils.ShortUrlUtil;
+import com.shivam.urlshortenerservice.utils.StringUtils;
+import com.shivam.urlshortenerservice.workloads.Workload;
+import com.shivam.urlshortenerservice.workloads.WorkloadRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -17,9 +36,15 @@ import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -28,15 +53,48 @@ public class ShortUrlService implements IShortUrlService {
     private final ShortUrlRepository shortUrlRepository;
     private final StringRedisTemplate redisTemplate;
     private final UserRepository userRepository;
+    private final LocalShortUrlCache localCache;
+    private final ShortCodeFilter shortCodeFilter;
+    private final RedisLoadLock loadLock;
+    private final RedisCircuitBreaker redisBreaker;
+    private final ShortCodeGenerator shortCodeGenerator;
+    private final ShortUrlJdbcRepository shortUrlJdbcRepository;
+    private final ShortUrlCacheWriter cacheWriter;
+    private final ShardRouter shardRouter;
+    private final ReplicaRouter replicaRouter;
+    private final WorkloadRouter workloadRouter;
+    private final int maxBatchSize;
+    private final boolean dedupeEnabled;
+    private final SingleFlight<String, CachedShortUrl> cacheMissLoads = new SingleFlight<>();
 
-    private static final SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
     private static final Logger LOGGER = LoggerFactory.getLogger(ShortUrlService.class);
+    private static final int MAX_GENERATED_CODE_ATTEMPTS = 5;
+    // Links the reaper marked EXPIRED still belong to their owner: listed, deletable, answering 410
+    private static final List<State> ACTIVE_OR_EXPIRED = List.of(State.ACTIVE, State.EXPIRED);
 
     public ShortUrlService(ShortUrlRepository shortUrlRepository, StringRedisTemplate redisTemplate,
-                           UserRepository userRepository) {
+                           UserRepository userRepository, LocalShortUrlCache localCache,
+                           ShortCodeFilter shortCodeFilter, RedisLoadLock loadLock,
+                           RedisCircuitBreaker redisBreaker, ShortCodeGenerator shortCodeGenerator,
+                           ShortUrlJdbcRepository shortUrlJdbcRepository, ShortUrlCacheWriter cacheWriter,
+                           ShardRouter shardRouter, ReplicaRouter replicaRouter, WorkloadRouter workloadRouter,
+                           @Value("${shortener.batch.max-size:1000}") int maxBatchSize,
+                           @Value("${shortener.dedupe.enabled:false}") boolean dedupeEnabled) {
         this.shortUrlRepository = shortUrlRepository;
         this.redisTemplate = redisTemplate;
         this.userRepository = userRepository;
+        this.localCache = localCache;
+        this.shortCodeFilter = shortCodeFilter;
+        this.loadLock = loadLock;
+        this.redisBreaker = redisBreaker;
+        this.shortCodeGenerator = shortCodeGenerator;
+        this.shortUrlJdbcRepository = shortUrlJdbcRepository;
+        this.cacheWriter = cacheWriter;
+        this.shardRouter = shardRouter;
+        this.replicaRouter = replicaRouter;
+        this.workloadRouter = workloadRouter;
+        this.maxBatchSize = maxBatchSize;
+        this.dedupeEnabled = dedupeEnabled;
     }
 
     @Override
@@ -44,50 +102,134 @@ public class ShortUrlService implements IShortUrlService {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("user not found"));
 
-        String shortCode = alias != null && !alias.isBlank() ? alias : generateUniqueCode();
-        Date expiresAt = getExpirationDate(expirationDate);
+        Date expiresAt = ShortUrlUtil.getExpirationDate(expirationDate);
+
+        ShortUrl shortUrl;
+        if (alias != null && !alias.isBlank()) {
+            shortUrl = shardRouter.onShardFor(alias, () -> {
+                // Any state: the unique key on short_code also covers expired and deleted rows
+                if (shortUrlRepository.existsByShortCode(alias)) {
+                    throw new ShortCodeAlreadyExistException("Provided custom alias already exists.");
+                }
+                return shortUrlRepository.save(newShortUrl(alias, originalUrl, expiresAt, user));
+            });
+        } else {
+            if (dedupeEnabled) {
+                ShortUrl existing = findDuplicate(user, originalUrl, expirationDate, expiresAt);
+                if (existing != null) return existing;
+            }
+            shortUrl = saveWithGeneratedCode(originalUrl, expiresAt, user);
+        }
+        String shortCode = shortUrl.getShortCode();
+
+        // Cache in Redis
+        cacheInRedis(shortCode, CachedShortUrl.from(shortUrl));
+        shortCodeFilter.add(shortCode);
+
+        return shortUrl;
+    }
 
-        if (shortUrlRepository.existsByShortCodeAndState(shortCode,State.ACTIVE)) {
-            throw new ShortCodeAlreadyExistException("Provided custom alias already exists.");
+    // Resolves the user once, checks every custom alias with one query, takes the generated codes
+    // in bulk, inserts all rows as one JDBC batch and caches them with one pipelined Redis call.
+    // Invalid items are reported per index instead of failing the whole batch.
+    @Override
+    public List<BatchShortUrlResult> createShortUrls(List<ShortUrlRequest> requests, String userEmail) {
+        if (requests == null || requests.isEmpty()) throw new InvalidRequestException("No urls to shorten");
+        if (requests.size() > maxBatchSize) {
+            throw new InvalidRequestException("At most " + maxBatchSize + " urls can be shortened per batch");
         }
 
-        ShortUrl shortUrl = new ShortUrl();
-        shortUrl.setOriginalUrl(originalUrl);
-        shortUrl.setShortCode(shortCode);
-        shortUrl.setExpiresAt(expiresAt);
-        shortUrl.setCreatedBy(user);
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new UsernameNotFoundException("user not found"));
 
-        shortUrl = shortUrlRepository.save(shortUrl);
+        BatchShortUrlResult[] results = new BatchShortUrlResult[requests.size()];
+        List<BatchItem> items = new ArrayList<>();
+        Set<String> aliases = new HashSet<>();
 
-        // Cache in Redis
-        long ttl = (expiresAt.getTime() - System.currentTimeMillis()) / 1000;
-        redisTemplate.opsForValue().set(shortCode, originalUrl, ttl, TimeUnit.SECONDS);
+        for (int i = 0; i < requests.size(); i++) {
+            ShortUrlRequest request = requests.get(i);
+            if (request == null || StringUtils.isEmpty(request.getOriginalUrl())) {
+                results[i] = new BatchShortUrlResult(i, null, "Invalid original url");
+                continue;
+            }
 
-        return shortUrl;
+            Date expiresAt;
+            try {
+                expiresAt = ShortUrlUtil.getExpirationDate(request.getExpiresAt());
+            } catch (InvalidDateFormatException e) {
+                results[i] = new BatchShortUrlResult(i, null, e.getMessage());
+                continue;
+            }
+
+            String alias = request.getCustomAlias() != null && !request.getCustomAlias().isBlank() ? request.getCustomAlias() : null;
+            if (alias != null && !aliases.add(alias)) {
+                results[i] = new BatchShortUrlResult(i, null, "Custom alias is used more than once in this batch.");
+                continue;
+            }
+
+            items.add(new BatchItem(i, alias != null, newShortUrl(alias, request.getOriginalUrl(), expiresAt, user)));
+        }
+
+        if (!aliases.isEmpty()) {
+            Set<String> takenAliases = findExistingShortCodes(aliases);
+            items.removeIf(item -> {
+                if (!item.customAlias() || !takenAliases.contains(item.shortUrl().getShortCode())) return false;
+                results[item.index()] = new BatchShortUrlResult(item.index(), null, "Provided custom alias already exists.");
+                return true;
+            });
+        }
+
+        List<ShortUrl> generated = items.stream().filter(item -> !item.customAlias()).map(BatchItem::shortUrl).toList();
+        List<String> codes = shortCodeGenerator.nextCodes(generated.size());
+        for (int i = 0; i < generated.size(); i++) {
+            generated.get(i).setShortCode(codes.get(i));
+        }
+
+        List<ShortUrl> saved = insertBatch(items, results);
+
+        cacheWriter.cacheAll(saved);
+        shortCodeFilter.addAll(saved.stream().map(ShortUrl::getShortCode).toList());
+
+        return List.of(results);
     }
 
     @Override
     public String getOriginalUrl(String shortCode) {
-        // Check shortCode in Redis first
-        String cachedUrl = redisTemplate.opsForValue().get(shortCode);
-        if (cachedUrl != null) {
-            LOGGER.debug("Returned long url from cache : {}", cachedUrl);
-            return cachedUrl;
+        return resolveShortUrl(shortCode).originalUrl();
+    }
+
+    @Override
+    public CachedShortUrl resolveShortUrl(String shortCode) {
+        // Codes recently found missing or expired are answered without any lookup
+        ShortCodeFilter.Tombstone tombstone = shortCodeFilter.getTombstone(shortCode);
+        if (tombstone == ShortCodeFilter.Tombstone.EXPIRED) {
+            throw new ExpiredShortCodeException("Short URL has expired");
+        }
+        if (tombstone == ShortCodeFilter.Tombstone.NOT_FOUND) {
+            throw new ShortCodeNotFoundException("Short URL does not exist or deleted");
         }
 
-        ShortUrl shortUrl = shortUrlRepository.findByShortCodeAndState(shortCode, State.ACTIVE)
-                .orElseThrow(() -> new ShortCodeNotFoundException("Short URL does not exist or deleted"));
+        // Check the in-process cache first, then Redis
+        CachedShortUrl localEntry = localCache.get(shortCode);
+        if (localEntry != null) {
+            LOGGER.debug("Returned long url from local cache : {}", localEntry.originalUrl());
+            return checkNotExpired(shortCode, localEntry);
+        }
 
-        if (shortUrl.getExpiresAt() != null && shortUrl.getExpiresAt().before(new Date())) {
-            throw new ExpiredShortCodeException("Short URL has expired");
+        CachedShortUrl redisEntry = getFromRedis(shortCode);
+        if (redisEntry != null) {
+            localCache.put(shortCode, redisEntry);
+            LOGGER.debug("Returned long url from cache : {}", redisEntry.originalUrl());
+            return checkNotExpired(shortCode, redisEntry);
         }
 
-        // Save in Redis
-        long ttl = (shortUrl.getExpiresAt().getTime() - System.currentTimeMillis()) / 1000;
-        redisTemplate.opsForValue().set(shortCode, shortUrl.getOriginalUrl(), ttl, TimeUnit.SECONDS);
+        // Redis is checked before the filter so a code created moments ago on another node still resolves
+        if (!shortCodeFilter.mightExist(shortCode)) {
+            throw new ShortCodeNotFoundException("Short URL does not exist or deleted");
+        }
 
-        LOGGER.debug("Returned long url from DB : {}", shortUrl.getShortCode());
-        return shortUrl.getOriginalUrl();
+        // Only one caller per short code goes to MySQL, concurrent misses wait for its result
+        return cacheMissLoads.execute(shortCode, () -> loadWithLock(shortCode));
     }
 
     @Override
@@ -95,8 +237,7 @@ public class ShortUrlService implements IShortUrlService {
         ShortUrl shortUrl = checkForShortCodeOwnership(shortCode,userEmail);
 
         // Cache in Redis
-        long ttl = (shortUrl.getExpiresAt().getTime() - System.currentTimeMillis()) / 1000;
-        redisTemplate.opsForValue().set(shortCode, shortUrl.getOriginalUrl(), ttl, TimeUnit.SECONDS);
+        cacheInRedis(shortCode, CachedShortUrl.from(shortUrl));
 
         return shortUrl;
     }
@@ -104,7 +245,9 @@ public class ShortUrlService implements IShortUrlService {
     @Override
     public Page<ShortUrl> getShortUrlsForUser(String email, int page, int size) {
         Pageable pageable = PageRequest.of(page,size, Sort.by("createdAt").descending());
-        return shortUrlRepository.findAllByCreatedBy_EmailAndState(email,State.ACTIVE,pageable);
+        return shardRouter.findPage(pageable, shardPage -> replicaRouter.read(ReadRoute.MY_URLS,
+                        () -> shortUrlRepository.findAllByCreatedBy_EmailAndStateIn(email,ACTIVE_OR_EXPIRED,shardPage)),
+                Comparator.comparing(ShortUrl::getCreatedAt).reversed());
     }
 
     @Override
@@ -113,57 +256,216 @@ public class ShortUrlService implements IShortUrlService {
 
         shortUrl.setState(State.DELETED);
 
-        // Delete from cache
-        redisTemplate.delete(shortCode);
+        shardRouter.runOnShardFor(shortCode, () -> shortUrlRepository.save(shortUrl));
 
-        shortUrlRepository.save(shortUrl);
+        // Delete from cache once the row is saved, so no node can reload the live row afterwards
+        evictFromRedis(shortCode);
+        localCache.invalidateDeleted(List.of(shortCode));
+        shortCodeFilter.markDeleted(shortCode);
     }
 
     @Override
     public Page<ShortUrl> getAllShortUrls(int page, int size) {
-        PageRequest pageRequest = PageRequest.of(page,size);
-        return shortUrlRepository.findAllByState(State.ACTIVE,pageRequest);
+        // Newest first, so pages merged from several shards are stable
+        PageRequest pageRequest = PageRequest.of(page,size, Sort.by("createdAt").descending());
+        return shardRouter.findPage(pageRequest, shardPage -> replicaRouter.read(ReadRoute.ALL_URLS,
+                        () -> shortUrlRepository.findAllByStateIn(ACTIVE_OR_EXPIRED,shardPage)),
+                Comparator.comparing(ShortUrl::getCreatedAt).reversed());
     }
 
     @Override
     public void deleteShortUrlAsAdmin(String shortCode, String adminEmail) {
-        ShortUrl shortUrl = shortUrlRepository.findByShortCodeAndState(shortCode,State.ACTIVE)
+        ShortUrl shortUrl = shardRouter.onShardFor(shortCode, () -> shortUrlRepository.findByShortCodeAndStateIn(shortCode,ACTIVE_OR_EXPIRED))
                 .orElseThrow(() -> new ShortCodeNotFoundException("Short URL does not exist or deleted"));
 
         shortUrl.setState(State.DELETED);
 
-        // Delete from cache
-        redisTemplate.delete(shortCode);
+        shardRouter.runOnShardFor(shortCode, () -> shortUrlRepository.save(shortUrl));
+
+        // Delete from cache once the row is saved, so no node can reload the live row afterwards
+        evictFromRedis(shortCode);
+        localCache.invalidateDeleted(List.of(shortCode));
+        shortCodeFilter.markDeleted(shortCode);
+    }
+
+    // With the Redis lock enabled only one node reloads a code; the others wait briefly
+    // for it to land in Redis before falling back to MySQL themselves. While the Redis
+    // breaker is not closed the lock is skipped, as waiting on Redis is what we want to avoid
+    private CachedShortUrl loadWithLock(String shortCode) {
+        if (!loadLock.isEnabled() || !redisBreaker.isClosed()) return loadFromDatabase(shortCode);
+
+        String token = loadLock.tryLock(shortCode);
+        if (token == null) {
+            CachedShortUrl redisEntry = loadLock.awaitLoad(() -> getFromRedis(shortCode));
+            if (redisEntry != null) {
+                localCache.put(shortCode, redisEntry);
+                return redisEntry;
+            }
+            return loadFromDatabase(shortCode);
+        }
+
+        try {
+            CachedShortUrl redisEntry = getFromRedis(shortCode);
+            if (redisEntry != null) {
+                localCache.put(shortCode, redisEntry);
+                return redisEntry;
+            }
+            return loadFromDatabase(shortCode);
+        } finally {
+            loadLock.unlock(shortCode, token);
+        }
+    }
+
+    // Rows in any state are read: EXPIRED ones answer "expired" rather than "not found", and DELETED
+    // ones are tombstoned without counting as Bloom filter false positives, as the filter keeps every
+    // code it was given. A code a lagging replica does not know yet is looked up again on the primary
+    private CachedShortUrl loadFromDatabase(String shortCode) {
+        ShortUrl shortUrl = shardRouter.onShardFor(shortCode, () -> workloadRouter.call(Workload.REDIRECT, () -> replicaRouter.read(ReadRoute.REDIRECT,
+                        () -> shortUrlRepository.findByShortCode(shortCode), Optional::isPresent)))
+                .orElseThrow(() -> {
+                    shortCodeFilter.markNotFound(shortCode);
+                    return new ShortCodeNotFoundException("Short URL does not exist or deleted");
+                });
+
+        if (shortUrl.getState() == State.DELETED) {
+            shortCodeFilter.markDeleted(shortCode);
+            throw new ShortCodeNotFoundException("Short URL does not exist or deleted");
+        }
+
+        if (shortUrl.getState() == State.EXPIRED || (shortUrl.getExpiresAt() != null && shortUrl.getExpiresAt().before(new Date()))) {
+            shortCodeFilter.markExpired(shortCode);
+            throw new ExpiredShortCodeException("Short URL has expired");
+        }
+
+        // Save in Redis
+        CachedShortUrl cachedShortUrl = CachedShortUrl.from(shortUrl);
+        cacheInRedis(shortCode, cachedShortUrl);
+        localCache.put(shortCode, cachedShortUrl);
+
+        LOGGER.debug("Returned long url from DB : {}", shortUrl.getShortCode());
+        return cachedShortUrl;
+    }
+
+    // Redis access goes through the breaker: a failing or slow Redis is treated as a miss,
+    // and writes it could not take are replayed once it recovers
+    private CachedShortUrl getFromRedis(String shortCode) {
+        return redisBreaker.call(() -> CachedShortUrl.decode(redisTemplate.opsForValue().get(shortCode)), () -> null);
+    }
+
+    private void cacheInRedis(String shortCode, CachedShortUrl cachedShortUrl) {
+        if (cachedShortUrl.ttlMillis() <= 0) return;
+        redisBreaker.write(shortCode, () -> {
+            // TTL is taken when the write actually runs, which may be a replay after an outage
+            long ttl = cachedShortUrl.ttlMillis();
+            if (ttl > 0) redisTemplate.opsForValue().set(shortCode, cachedShortUrl.encode(), ttl, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private void evictFromRedis(String shortCode) {
+        redisBreaker.writeCritical(shortCode, () -> redisTemplate.delete(shortCode));
+    }
+
+    // Cached entries carry expiresAt, so an expired link is caught even on a cache hit
+    private CachedShortUrl checkNotExpired(String shortCode, CachedShortUrl cachedShortUrl) {
+        if (cachedShortUrl.isExpired()) {
+            shortCodeFilter.markExpired(shortCode);
+            throw new ExpiredShortCodeException("Short URL has expired");
+        }
+        return cachedShortUrl;
+    }
 
-        shortUrlRepository.save(shortUrl);
+    // Returns the user's live link for the same normalized url, found through the (user_id, url_hash)
+    // index on every shard. An explicitly requested expiry must be covered by the existing link. Two concurrent
+    // requests can still both create a link; the index is not unique as aliases may repeat a url
+    private ShortUrl findDuplicate(User user, String originalUrl, String expirationDate, Date expiresAt) {
+        Date expiresAfter = expirationDate != null && !expirationDate.isBlank() ? new Date(expiresAt.getTime() - 1) : new Date();
+        String normalizedUrl = ShortUrlUtil.normalizeUrl(originalUrl);
+
+        byte[] urlHash = ShortUrlUtil.urlHash(originalUrl);
+
+        return shardRouter.onEachShard(() -> shortUrlRepository.findAllByCreatedByAndUrlHashAndStateAndExpiresAtAfter(user, urlHash, State.ACTIVE, expiresAfter))
+                .stream()
+                .flatMap(List::stream)
+                .filter(shortUrl -> ShortUrlUtil.normalizeUrl(shortUrl.getOriginalUrl()).equals(normalizedUrl))
+                .findFirst()
+                .orElse(null);
+    }
+
+    // Generated codes are unique among themselves; the unique key on short_code still catches
+    // the rare clash with a custom alias (or a racing random code), in which case take the next one
+    private ShortUrl saveWithGeneratedCode(String originalUrl, Date expiresAt, User user) {
+        for (int attempt = 1; ; attempt++) {
+            String shortCode = shortCodeGenerator.nextCode();
+            try {
+                return shardRouter.onShardFor(shortCode, () -> shortUrlRepository.save(newShortUrl(shortCode, originalUrl, expiresAt, user)));
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_GENERATED_CODE_ATTEMPTS) throw e;
+                LOGGER.debug("Generated short code {} already taken, retrying", shortCode);
+            }
+        }
     }
 
-    private String generateUniqueCode() {
-        String code;
-        do {
-            code = ShortUrlUtil.generateRandomCode(6);
-        } while (shortUrlRepository.existsByShortCodeAndState(code,State.ACTIVE));
-        return code;
+    // One JDBC batch per shard the codes route to
+    private List<ShortUrl> insertBatch(List<BatchItem> items, BatchShortUrlResult[] results) {
+        List<ShortUrl> saved = new ArrayList<>();
+        for (Map.Entry<Integer, List<BatchItem>> group : shardRouter.groupByShard(items, item -> item.shortUrl().getShortCode()).entrySet()) {
+            saved.addAll(insertShardBatch(group.getKey(), group.getValue(), results));
+        }
+        return saved;
     }
 
-    private Date getExpirationDate(String expirationDate) {
-        Date expiresAt;
+    // A code taken between the checks and the insert fails the whole batch; it is then retried
+    // row by row so only the clashing items fail (custom aliases) or get a new code (generated)
+    private List<ShortUrl> insertShardBatch(int shard, List<BatchItem> items, BatchShortUrlResult[] results) {
+        List<ShortUrl> shortUrls = items.stream().map(BatchItem::shortUrl).toList();
+        try {
+            shardRouter.runOnShard(shard, () -> shortUrlJdbcRepository.batchInsert(shortUrls));
+            items.forEach(item -> results[item.index()] = new BatchShortUrlResult(item.index(), ShortUrlUtil.from(item.shortUrl()), null));
+            return shortUrls;
+        } catch (DataIntegrityViolationException e) {
+            LOGGER.warn("Batch insert of {} short urls hit a duplicate code, inserting one by one", shortUrls.size());
+        }
 
-        if (expirationDate != null && !expirationDate.isBlank()) {
+        List<ShortUrl> saved = new ArrayList<>();
+        for (BatchItem item : items) {
+            ShortUrl shortUrl = item.shortUrl();
             try {
-                expiresAt = formatter.parse(expirationDate);
-            } catch (ParseException e) {
-                throw new InvalidDateFormatException("Invalid expiration date format. Use 'yyyy-MM-dd HH:mm:ss'.");
+                ShortUrl savedShortUrl = item.customAlias()
+                        ? shardRouter.onShard(shard, () -> shortUrlRepository.save(newShortUrl(shortUrl.getShortCode(), shortUrl.getOriginalUrl(), shortUrl.getExpiresAt(), shortUrl.getCreatedBy())))
+                        : saveWithGeneratedCode(shortUrl.getOriginalUrl(), shortUrl.getExpiresAt(), shortUrl.getCreatedBy());
+                saved.add(savedShortUrl);
+                results[item.index()] = new BatchShortUrlResult(item.index(), ShortUrlUtil.from(savedShortUrl), null);
+            } catch (DataIntegrityViolationException e) {
+                // A generated code only fails here once its retries are used up or for another constraint
+                if (!item.customAlias()) LOGGER.warn("Could not insert batch item {}", item.index(), e);
+                String error = item.customAlias() ? "Provided custom alias already exists." : "Could not create the short url, try again.";
+                results[item.index()] = new BatchShortUrlResult(item.index(), null, error);
             }
-        } else {
-            expiresAt = new Date(System.currentTimeMillis() + (15L * 24 * 60 * 60 * 1000)); // default 15 days
         }
+        return saved;
+    }
 
-        return expiresAt;
+    private ShortUrl newShortUrl(String shortCode, String originalUrl, Date expiresAt, User user) {
+        ShortUrl shortUrl = new ShortUrl();
+        shortUrl.setOriginalUrl(originalUrl);
+        shortUrl.setShortCode(shortCode);
+        shortUrl.setExpiresAt(expiresAt);
+        shortUrl.setCreatedBy(user);
+        shortUrl.setUrlHash(ShortUrlUtil.urlHash(originalUrl));
+        return shortUrl;
+    }
+
+    // Any state: the unique key on short_code also covers deleted rows
+    private Set<String> findExistingShortCodes(Collection<String> shortCodes) {
+        Set<String> existing = new HashSet<>();
+        for (Map.Entry<Integer, List<String>> group : shardRouter.groupByShard(shortCodes, shortCode -> shortCode).entrySet()) {
+            existing.addAll(shardRouter.onShard(group.getKey(), () -> shortUrlRepository.findExistingShortCodes(group.getValue())));
+        }
+        return existing;
     }
 
     private ShortUrl checkForShortCodeOwnership(String shortCode, String userEmail){
-        ShortUrl shortUrl = shortUrlRepository.findByShortCodeAndState(shortCode,State.ACTIVE)
+        ShortUrl shortUrl = shardRouter.onShardFor(shortCode, () -> shortUrlRepository.findByShortCodeAndStateIn(shortCode,ACTIVE_OR_EXPIRED))
                 .orElseThrow(() -> new ShortCodeNotFoundException("Short URL does not exist or deleted"));
 
         if(!shortUrl.getCreatedBy().getEmail().equals(userEmail)){
@@ -172,4 +474,7 @@ public class ShortUrlService implements IShortUrlService {
 
         return shortUrl;
     }
+
+    private record BatchItem(int index, boolean customAlias, ShortUrl shortUrl) {
+    }
 }
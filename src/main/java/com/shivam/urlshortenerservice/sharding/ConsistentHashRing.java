@@ -0,0 +1,36 @@
+package com.shivam.urlshortenerservice.sharding;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Each shard owns virtualNodes points on a 64-bit ring and a key belongs to the next point
+// clockwise. The points spread the keys evenly, and adding a shard only moves the keys that
+// fall on its new points (about 1/N of them) instead of reshuffling everything as modulo would.
+public class ConsistentHashRing {
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final TreeMap<Long, Integer> ring = new TreeMap<>();
+
+    public ConsistentHashRing(int shardCount, int virtualNodes) {
+        if (shardCount < 1) throw new IllegalArgumentException("At least one shard is required");
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                ring.put(hash("shard-" + shard + "#" + node), shard);
+            }
+        }
+    }
+
+    public int shardFor(String key) {
+        Map.Entry<Long, Integer> entry = ring.ceilingEntry(hash(key));
+        return (entry != null ? entry : ring.firstEntry()).getValue();
+    }
+
+    private static long hash(String key) {
+        return HASH.hashString(key, StandardCharsets.UTF_8).asLong();
+    }
+}
@@ -0,0 +1,19 @@
+package com.shivam.urlshortenerservice.sharding;
+
+// Shard the current thread's database calls go to; unset means the default shard 0
+final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    static Integer get() {
+        return CURRENT.get();
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) CURRENT.remove();
+        else CURRENT.set(shard);
+    }
+}
@@ -0,0 +1,153 @@
+package com.shivam.urlshortenerservice.sharding;
+
+import com.shivam.urlshortenerservice.utils.ThreadUtils;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Routes database work to the shard owning a short code. A link and its click events live on
+// the same shard, so everything keyed by a short code runs on one shard; queries that are not
+// (a user's links, admin listings, top clicked) run on every shard in parallel and are merged.
+// Users, roles and the job tables stay on shard 0, the shard used when no shard is chosen.
+// With sharding disabled there is one shard and every call runs directly.
+@Component
+public class ShardRouter {
+
+    private final int shardCount;
+    private final ConsistentHashRing ring;
+    private final ExecutorService fanOutExecutor;
+
+    @Autowired
+    public ShardRouter(@Value("${shortener.sharding.enabled:false}") boolean enabled,
+                       @Value("${shortener.sharding.urls:}") List<String> urls,
+                       @Value("${shortener.sharding.virtual-nodes:128}") int virtualNodes,
+                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this(enabled ? Math.max(1, urls.size()) : 1, virtualNodes, virtualThreads);
+    }
+
+    public ShardRouter(int shardCount, int virtualNodes, boolean virtualThreads) {
+        this.shardCount = shardCount;
+        this.ring = new ConsistentHashRing(shardCount, virtualNodes);
+        this.fanOutExecutor = shardCount > 1
+                ? Executors.newFixedThreadPool(shardCount * 2, ThreadUtils.newThreadFactory("shard-fan-out-", virtualThreads))
+                : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (fanOutExecutor != null) fanOutExecutor.shutdownNow();
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int shardFor(String shortCode) {
+        return isSharded() ? ring.shardFor(shortCode) : 0;
+    }
+
+    // A transaction holds on to its connection, so the shard cannot change inside one
+    public <T> T onShard(int shard, Supplier<T> action) {
+        if (!isSharded()) return action.get();
+
+        Integer previous = ShardContext.get();
+        int current = previous != null ? previous : 0;
+        if (current != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot switch to shard " + shard + " inside a transaction on shard " + current);
+        }
+
+        ShardContext.set(shard);
+        try {
+            return action.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    public void runOnShard(int shard, Runnable action) {
+        onShard(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T onShardFor(String shortCode, Supplier<T> action) {
+        return onShard(shardFor(shortCode), action);
+    }
+
+    public void runOnShardFor(String shortCode, Runnable action) {
+        runOnShard(shardFor(shortCode), action);
+    }
+
+    // Results in shard order
+    public <T> List<T> onEachShard(Supplier<T> action) {
+        if (!isSharded()) return List.of(action.get());
+
+        List<Future<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(fanOutExecutor.submit(() -> onShard(target, action)));
+        }
+
+        List<T> results = new ArrayList<>(shardCount);
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+                throw new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while querying shards", e);
+            }
+        }
+        return results;
+    }
+
+    public <T> Map<Integer, List<T>> groupByShard(Collection<T> items, Function<T, String> shortCode) {
+        Map<Integer, List<T>> groups = new TreeMap<>();
+        for (T item : items) {
+            groups.computeIfAbsent(shardFor(shortCode.apply(item)), shard -> new ArrayList<>()).add(item);
+        }
+        return groups;
+    }
+
+    // Every shard returns its first (page + 1) * size rows in the requested order; merging those
+    // gives the exact page. Deep pages get expensive, as with any scatter-gather OFFSET.
+    public <T> Page<T> findPage(Pageable pageable, Function<Pageable, Page<T>> query, Comparator<T> order) {
+        if (!isSharded()) return query.apply(pageable);
+
+        Pageable head = PageRequest.of(0, (pageable.getPageNumber() + 1) * pageable.getPageSize(), pageable.getSort());
+        List<Page<T>> pages = onEachShard(() -> query.apply(head));
+
+        List<T> merged = new ArrayList<>();
+        long total = 0;
+        for (Page<T> page : pages) {
+            merged.addAll(page.getContent());
+            total += page.getTotalElements();
+        }
+        if (order != null) merged.sort(order);
+
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        int to = Math.min(from + pageable.getPageSize(), merged.size());
+        return new PageImpl<>(new ArrayList<>(merged.subList(from, to)), pageable, total);
+    }
+}
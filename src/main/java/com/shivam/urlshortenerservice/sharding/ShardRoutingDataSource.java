@@ -0,0 +1,43 @@
+package com.shivam.urlshortenerservice.sharding;
+
+import com.shivam.urlshortenerservice.utils.PoolUtils;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Hands out connections of the shard set in ShardContext. The connection is taken when a
+// transaction (or a JdbcTemplate call outside one) starts, so the shard must be chosen before that
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        afterPropertiesSet();
+    }
+
+    public List<DataSource> getShards() {
+        return shards;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.get();
+    }
+
+    @Override
+    public void close() {
+        PoolUtils.closeAll(shards);
+    }
+}
@@ -0,0 +1,74 @@
+package com.shivam.urlshortenerservice.sharding;
+
+import com.shivam.urlshortenerservice.models.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+// Users live on shard 0, but short_urls.user_id references users on every shard (and JPA joins
+// the owner when loading a link), so user rows are copied to the other shards with the same id.
+// Roles are not copied: authentication only ever reads shard 0.
+@Component
+public class UserReplicator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserReplicator.class);
+    private static final int CHUNK_SIZE = 1000;
+    private static final String INSERT_SQL = "INSERT IGNORE INTO users " +
+            "(id, created_at, last_modified_at, state, name, email, password) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserReplicator(ShardRouter shardRouter, JdbcTemplate jdbcTemplate) {
+        this.shardRouter = shardRouter;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void replicate(User user) {
+        if (!shardRouter.isSharded()) return;
+        copyToOtherShards(Collections.singletonList(new Object[]{user.getId(), timestamp(user.getCreatedAt()), timestamp(user.getLastModifiedAt()),
+                user.getState().ordinal(), user.getName(), user.getEmail(), user.getPassword()}));
+    }
+
+    // Catches up users created before sharding was enabled (or while a shard was unreachable)
+    @EventListener(ApplicationReadyEvent.class)
+    public void replicateAll() {
+        if (!shardRouter.isSharded()) return;
+
+        long lastId = 0;
+        long copied = 0;
+        while (true) {
+            long afterId = lastId;
+            List<Object[]> rows = shardRouter.onShard(0, () -> jdbcTemplate.query(
+                    "SELECT id, created_at, last_modified_at, state, name, email, password FROM users WHERE id > ? ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getTimestamp(2), rs.getTimestamp(3), rs.getObject(4),
+                            rs.getString(5), rs.getString(6), rs.getString(7)},
+                    afterId, CHUNK_SIZE));
+            if (rows.isEmpty()) break;
+
+            copyToOtherShards(rows);
+            copied += rows.size();
+            lastId = (Long) rows.get(rows.size() - 1)[0];
+        }
+
+        LOGGER.info("Replicated {} users to {} shards", copied, shardRouter.shardCount() - 1);
+    }
+
+    private void copyToOtherShards(List<Object[]> rows) {
+        for (int shard = 1; shard < shardRouter.shardCount(); shard++) {
+            shardRouter.runOnShard(shard, () -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+        }
+    }
+
+    private static Timestamp timestamp(Date date) {
+        return date != null ? new Timestamp(date.getTime()) : null;
+    }
+}
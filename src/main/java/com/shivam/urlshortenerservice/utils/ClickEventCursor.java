@@ -0,0 +1,29 @@
+package com.shivam.urlshortenerservice.utils;
+
+import com.shivam.urlshortenerservice.exceptions.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+// Position after the last click event of a page, in (clickedAt, id) order. Clients get it as an
+// opaque string; the direction is part of it so a cursor is only accepted for the order it came from
+public record ClickEventCursor(Date clickedAt, long id, boolean ascending) {
+
+    public String encode() {
+        String raw = (ascending ? "a" : "d") + ":" + clickedAt.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ClickEventCursor decode(String cursor, boolean ascending) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3 || !parts[0].equals(ascending ? "a" : "d")) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            return new ClickEventCursor(new Date(Long.parseLong(parts[1])), Long.parseLong(parts[2]), ascending);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+}
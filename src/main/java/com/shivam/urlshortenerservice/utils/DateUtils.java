@@ -2,21 +2,30 @@ package com.shivam.urlshortenerservice.utils;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Date;
 
 public class DateUtils {
-    private static final SimpleDateFormat formatterDateTime = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-    private static final SimpleDateFormat formatterDate = new SimpleDateFormat("yyyy-MM-dd");
+    // DateTimeFormatter is immutable, so unlike SimpleDateFormat these can be shared across request threads.
+    // They are only used for formatting: parsing stays on SimpleDateFormat, one per call, so input keeps
+    // its lenient handling (2024-1-5, trailing text, 2024-02-30 rolling over into March)
+    public static final DateTimeFormatter formatterDateTime = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    public static final DateTimeFormatter formatterDate = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private static final String DATE_TIME_PATTERN = "yyyy-MM-dd HH:mm:ss";
+    private static final String DATE_PATTERN = "yyyy-MM-dd";
 
     public static String formatDate(Date date) {
         if (date == null) return null;
-        return formatterDateTime.format(date);
+        return formatterDateTime.format(date.toInstant().atZone(ZoneId.systemDefault()));
     }
 
     public static boolean validDate(String date) {
         if (StringUtils.isEmpty(date)) return false;
         try {
-            formatterDate.parse(date);
+            formatDate(date);
             return true;
         } catch (ParseException e) {
             return false;
@@ -24,7 +33,15 @@ public class DateUtils {
     }
 
     public static Date formatDate(String date) throws ParseException {
-        return formatterDate.parse(date);
+        return new SimpleDateFormat(DATE_PATTERN).parse(date);
+    }
+
+    public static Date parseDateTime(String dateTime) throws ParseException {
+        return new SimpleDateFormat(DATE_TIME_PATTERN).parse(dateTime);
+    }
+
+    public static LocalDate parseLocalDate(String date) throws ParseException {
+        return formatDate(date).toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
     }
 
     public static boolean isDateRangeValid(String startDate, String endDate) {
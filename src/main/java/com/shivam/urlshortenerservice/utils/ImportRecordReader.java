@@ -0,0 +1,107 @@
+package com.shivam.urlshortenerservice.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shivam.urlshortenerservice.dtos.ShortUrlRequest;
+import com.shivam.urlshortenerservice.models.ImportFormat;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads an import file one record at a time, never holding more than a line in memory.
+// CSV: original_url,custom_alias,expires_at with an optional header row and RFC 4180 quoting
+// (no line breaks inside fields). NDJSON: one ShortUrlRequest object per line. Blank lines
+// are not records. A line that cannot be parsed comes back as a record without an url.
+public class ImportRecordReader implements Closeable {
+
+    private static final String CSV_HEADER = "original_url";
+
+    private final BufferedReader reader;
+    private final ImportFormat format;
+    private final ObjectMapper objectMapper;
+    private boolean firstLine = true;
+
+    public ImportRecordReader(Path path, ImportFormat format, ObjectMapper objectMapper) throws IOException {
+        this.reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    // Returns null at the end of the file
+    public ShortUrlRequest next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            boolean header = firstLine;
+            firstLine = false;
+            if (line.isBlank()) continue;
+
+            if (format == ImportFormat.NDJSON) return parseJson(line);
+
+            List<String> fields = parseCsvLine(line);
+            if (header && CSV_HEADER.equalsIgnoreCase(fields.get(0).trim())) continue;
+            return new ShortUrlRequest(field(fields, 0), field(fields, 1), field(fields, 2));
+        }
+        return null;
+    }
+
+    // Skips records already committed by an earlier run of the job
+    public void skip(long records) throws IOException {
+        for (long i = 0; i < records; i++) {
+            if (next() == null) return;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private ShortUrlRequest parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, ShortUrlRequest.class);
+        } catch (JsonProcessingException e) {
+            return new ShortUrlRequest();
+        }
+    }
+
+    private static String field(List<String> fields, int index) {
+        if (index >= fields.size()) return null;
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,22 @@
+package com.shivam.urlshortenerservice.utils;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+
+public class PoolUtils {
+
+    // Closes the pools, and the routing datasources over pools, among dataSources
+    public static void closeAll(Collection<? extends DataSource> dataSources) {
+        for (DataSource dataSource : dataSources) {
+            if (!(dataSource instanceof Closeable closeable)) continue;
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
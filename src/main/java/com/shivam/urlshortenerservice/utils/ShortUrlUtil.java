@@ -1,9 +1,17 @@
 package com.shivam.urlshortenerservice.utils;
 
 import com.shivam.urlshortenerservice.dtos.ShortUrlResponse;
+import com.shivam.urlshortenerservice.exceptions.InvalidDateFormatException;
 import com.shivam.urlshortenerservice.models.ShortUrl;
+import com.google.common.hash.Hashing;
 
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.Locale;
 
 public class ShortUrlUtil {
     private static final String BASE62 = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
@@ -18,6 +26,72 @@ public class ShortUrlUtil {
         return sb.toString();
     }
 
+    // Fixed-width base62, left padded with '0'
+    public static String toBase62(long value, int length) {
+        char[] chars = new char[length];
+        long remaining = value;
+        for (int i = length - 1; i >= 0; i--) {
+            chars[i] = BASE62.charAt((int) (remaining % BASE62.length()));
+            remaining /= BASE62.length();
+        }
+        return new String(chars);
+    }
+
+    // Number of distinct codes of the given length, i.e. 62^length
+    public static long base62Capacity(int length) {
+        long capacity = 1;
+        for (int i = 0; i < length; i++) {
+            capacity *= BASE62.length();
+        }
+        return capacity;
+    }
+
+    // Fixed-size key for looking a url up without indexing the VARCHAR(2048) column
+    public static byte[] urlHash(String originalUrl) {
+        return Hashing.sha256().hashString(normalizeUrl(originalUrl), StandardCharsets.UTF_8).asBytes();
+    }
+
+    // Lower-cases scheme and host, drops the default port and the fragment and turns an empty
+    // path into "/"; path and query are case-sensitive and kept as they are
+    public static String normalizeUrl(String originalUrl) {
+        String url = originalUrl.trim();
+        try {
+            URI uri = new URI(url);
+            if (uri.getScheme() == null || uri.getRawAuthority() == null || uri.getHost() == null) return url;
+
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            int port = uri.getPort();
+            boolean defaultPort = ("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443);
+
+            StringBuilder sb = new StringBuilder(url.length());
+            sb.append(scheme).append("://");
+            if (uri.getRawUserInfo() != null) sb.append(uri.getRawUserInfo()).append('@');
+            sb.append(uri.getHost().toLowerCase(Locale.ROOT));
+            if (port != -1 && !defaultPort) sb.append(':').append(port);
+            sb.append(uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath());
+            if (uri.getRawQuery() != null) sb.append('?').append(uri.getRawQuery());
+            return sb.toString();
+        } catch (URISyntaxException e) {
+            return url;
+        }
+    }
+
+    public static Date getExpirationDate(String expirationDate) {
+        Date expiresAt;
+
+        if (expirationDate != null && !expirationDate.isBlank()) {
+            try {
+                expiresAt = DateUtils.parseDateTime(expirationDate);
+            } catch (ParseException e) {
+                throw new InvalidDateFormatException("Invalid expiration date format. Use 'yyyy-MM-dd HH:mm:ss'.");
+            }
+        } else {
+            expiresAt = new Date(System.currentTimeMillis() + (15L * 24 * 60 * 60 * 1000)); // default 15 days
+        }
+
+        return expiresAt;
+    }
+
     public static ShortUrlResponse from(ShortUrl shortUrl){
         ShortUrlResponse response = new ShortUrlResponse();
         response.setShortUrl(baseUrl + shortUrl.getShortCode());
@@ -0,0 +1,14 @@
+package com.shivam.urlshortenerservice.utils;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+
+public class ThreadUtils {
+
+    // Background executors follow spring.threads.virtual.enabled like Tomcat and @Async do
+    public static ThreadFactory newThreadFactory(String namePrefix, boolean virtual) {
+        if (virtual) return Thread.ofVirtual().name(namePrefix, 1).factory();
+        return new CustomizableThreadFactory(namePrefix);
+    }
+}
@@ -0,0 +1,37 @@
+package com.shivam.urlshortenerservice.workloads;
+
+// Workload classes with a pool of their own when shortener.pools.enabled is set. Work that
+// is not marked (link management, auth, jobs) runs as WRITE. The defaults apply unless
+// shortener.pools.<name>.size / connection-timeout-ms / statement-timeout-ms are set.
+public enum Workload {
+    REDIRECT(10, 250, 500),
+    WRITE(10, 2000, 5000),
+    INGESTION(4, 5000, 10000),
+    ANALYTICS(4, 5000, 30000);
+
+    private final int defaultSize;
+    private final long defaultConnectionTimeoutMillis;
+    private final long defaultStatementTimeoutMillis;
+
+    Workload(int defaultSize, long defaultConnectionTimeoutMillis, long defaultStatementTimeoutMillis) {
+        this.defaultSize = defaultSize;
+        this.defaultConnectionTimeoutMillis = defaultConnectionTimeoutMillis;
+        this.defaultStatementTimeoutMillis = defaultStatementTimeoutMillis;
+    }
+
+    public String key() {
+        return name().toLowerCase();
+    }
+
+    public int defaultSize() {
+        return defaultSize;
+    }
+
+    public long defaultConnectionTimeoutMillis() {
+        return defaultConnectionTimeoutMillis;
+    }
+
+    public long defaultStatementTimeoutMillis() {
+        return defaultStatementTimeoutMillis;
+    }
+}
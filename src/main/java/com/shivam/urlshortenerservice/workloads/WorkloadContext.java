@@ -0,0 +1,19 @@
+package com.shivam.urlshortenerservice.workloads;
+
+// The workload the current thread's next connection is taken for; unset means WRITE
+final class WorkloadContext {
+
+    private static final ThreadLocal<Workload> WORKLOAD = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    static Workload get() {
+        return WORKLOAD.get();
+    }
+
+    static void set(Workload workload) {
+        if (workload == null) WORKLOAD.remove();
+        else WORKLOAD.set(workload);
+    }
+}
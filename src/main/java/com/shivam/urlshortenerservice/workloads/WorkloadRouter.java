@@ -0,0 +1,31 @@
+package com.shivam.urlshortenerservice.workloads;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+// Marks work with its workload class so its connection comes from that class's pool. Inside a
+// transaction the connection is already taken, so the work stays on the transaction's pool.
+@Component
+public class WorkloadRouter {
+
+    public <T> T call(Workload workload, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) return action.get();
+
+        Workload previous = WorkloadContext.get();
+        WorkloadContext.set(workload);
+        try {
+            return action.get();
+        } finally {
+            WorkloadContext.set(previous);
+        }
+    }
+
+    public void run(Workload workload, Runnable action) {
+        call(workload, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
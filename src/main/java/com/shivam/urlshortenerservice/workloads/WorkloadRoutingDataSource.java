@@ -0,0 +1,35 @@
+package com.shivam.urlshortenerservice.workloads;
+
+import com.shivam.urlshortenerservice.utils.PoolUtils;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+// One database behind a pool per workload, so a burst of slow analytics scans can only
+// exhaust the analytics pool while redirects keep their own connections
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final Map<Workload, DataSource> pools;
+
+    public WorkloadRoutingDataSource(Map<Workload, DataSource> pools) {
+        this.pools = new EnumMap<>(pools);
+
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(pools.get(Workload.WRITE));
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.get();
+    }
+
+    @Override
+    public void close() {
+        PoolUtils.closeAll(pools.values());
+    }
+}
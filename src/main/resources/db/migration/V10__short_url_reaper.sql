@@ -0,0 +1,39 @@
+CREATE INDEX idx_short_urls_state_expires_at ON short_urls (state, expires_at);
+
+CREATE INDEX idx_short_urls_state_last_modified_at ON short_urls (state, last_modified_at);
+
+CREATE TABLE short_urls_archive
+(
+    id               BIGINT        NOT NULL,
+    created_at       datetime NULL,
+    last_modified_at datetime NULL,
+    state            SMALLINT NULL,
+    original_url     VARCHAR(2048) NOT NULL,
+    short_code       VARCHAR(20)   NOT NULL,
+    expires_at       datetime NULL,
+    user_id          BIGINT        NOT NULL,
+    url_hash         BINARY(32) NULL,
+    archived_at      datetime      NOT NULL,
+    CONSTRAINT pk_short_urls_archive PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_short_urls_archive_short_code ON short_urls_archive (short_code);
+
+CREATE TABLE click_events_archive
+(
+    id               BIGINT NOT NULL,
+    created_at       datetime NULL,
+    last_modified_at datetime NULL,
+    state            SMALLINT NULL,
+    ip_address       VARCHAR(255) NULL,
+    browser          VARCHAR(255) NULL,
+    operating_system VARCHAR(255) NULL,
+    device_type      VARCHAR(255) NULL,
+    referrer         VARCHAR(255) NULL,
+    clicked_at       datetime NULL,
+    short_url_id     BIGINT NULL,
+    archived_at      datetime NOT NULL,
+    CONSTRAINT pk_click_events_archive PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_click_events_archive_short_url_id ON click_events_archive (short_url_id);
@@ -0,0 +1,2 @@
+ALTER TABLE delete_jobs
+    ADD checkpoint_shard INT NOT NULL DEFAULT 0;
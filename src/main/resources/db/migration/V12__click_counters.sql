@@ -0,0 +1,13 @@
+CREATE TABLE click_counters
+(
+    short_url_id     BIGINT   NOT NULL,
+    click_count      BIGINT   NOT NULL,
+    last_modified_at datetime NULL,
+    CONSTRAINT pk_click_counters PRIMARY KEY (short_url_id)
+);
+
+INSERT INTO click_counters (short_url_id, click_count, last_modified_at)
+SELECT short_url_id, COUNT(*), NOW()
+FROM click_events
+WHERE short_url_id IS NOT NULL
+GROUP BY short_url_id;
@@ -0,0 +1,28 @@
+CREATE TABLE click_daily_rollup
+(
+    short_url_id BIGINT NOT NULL,
+    click_date   DATE   NOT NULL,
+    click_count  BIGINT NOT NULL,
+    CONSTRAINT pk_click_daily_rollup PRIMARY KEY (short_url_id, click_date)
+);
+
+CREATE TABLE click_rollup_watermarks
+(
+    name          VARCHAR(64) NOT NULL,
+    last_event_id BIGINT      NOT NULL,
+    updated_at    datetime    NULL,
+    CONSTRAINT pk_click_rollup_watermarks PRIMARY KEY (name)
+);
+
+-- The watermark is taken first so events written during the backfill are left to the catch-up job
+INSERT INTO click_rollup_watermarks (name, last_event_id, updated_at)
+SELECT 'click_daily_rollup', COALESCE(MAX(id), 0), NOW()
+FROM click_events;
+
+INSERT INTO click_daily_rollup (short_url_id, click_date, click_count)
+SELECT short_url_id, CAST(clicked_at AS DATE), COUNT(*)
+FROM click_events
+WHERE id <= (SELECT last_event_id FROM click_rollup_watermarks WHERE name = 'click_daily_rollup')
+  AND short_url_id IS NOT NULL
+  AND clicked_at IS NOT NULL
+GROUP BY short_url_id, CAST(clicked_at AS DATE);
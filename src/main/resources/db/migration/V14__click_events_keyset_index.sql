@@ -0,0 +1,2 @@
+-- Serves the click-events listing of a link in (clicked_at, id) order, one index range per page
+CREATE INDEX idx_click_events_link_clicked_at ON click_events (short_url_id, clicked_at, id);
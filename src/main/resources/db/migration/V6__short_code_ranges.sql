@@ -0,0 +1,8 @@
+CREATE TABLE short_code_ranges
+(
+    name       VARCHAR(50) NOT NULL,
+    next_value BIGINT      NOT NULL,
+    CONSTRAINT pk_short_code_ranges PRIMARY KEY (name)
+);
+
+INSERT INTO short_code_ranges (name, next_value) VALUES ('short_code', 0);
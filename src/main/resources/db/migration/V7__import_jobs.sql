@@ -0,0 +1,27 @@
+CREATE TABLE import_jobs
+(
+    id                  BIGINT AUTO_INCREMENT NOT NULL,
+    created_at          datetime NULL,
+    last_modified_at    datetime NULL,
+    state               SMALLINT NULL,
+    status              VARCHAR(20)   NOT NULL,
+    format              VARCHAR(10)   NOT NULL,
+    file_path           VARCHAR(1024) NOT NULL,
+    warm_cache          BIT(1)        NOT NULL,
+    rows_processed      BIGINT        NOT NULL,
+    rows_imported       BIGINT        NOT NULL,
+    rows_failed         BIGINT        NOT NULL,
+    rows_warmed         BIGINT        NOT NULL,
+    first_short_url_id  BIGINT NULL,
+    last_short_url_id   BIGINT NULL,
+    warm_checkpoint_id  BIGINT NULL,
+    started_at          datetime NULL,
+    import_completed_at datetime NULL,
+    finished_at         datetime NULL,
+    last_error          VARCHAR(1024) NULL,
+    user_id             BIGINT        NOT NULL,
+    CONSTRAINT pk_import_jobs PRIMARY KEY (id)
+);
+
+ALTER TABLE import_jobs
+    ADD CONSTRAINT FK_IMPORT_JOBS_ON_USER FOREIGN KEY (user_id) REFERENCES users (id);
@@ -0,0 +1,4 @@
+ALTER TABLE short_urls
+    ADD url_hash BINARY(32) NULL;
+
+CREATE INDEX idx_short_urls_user_url_hash ON short_urls (user_id, url_hash);
@@ -0,0 +1,29 @@
+CREATE TABLE delete_jobs
+(
+    id               BIGINT AUTO_INCREMENT NOT NULL,
+    created_at       datetime NULL,
+    last_modified_at datetime NULL,
+    state            SMALLINT NULL,
+    status           VARCHAR(20) NOT NULL,
+    hard_delete      BIT(1)      NOT NULL,
+    short_codes      MEDIUMTEXT NULL,
+    owner_id         BIGINT NULL,
+    created_after    datetime NULL,
+    created_before   datetime NULL,
+    expired_only     BIT(1)      NOT NULL,
+    codes_processed  INT         NOT NULL,
+    checkpoint_id    BIGINT      NOT NULL,
+    rows_deleted     BIGINT      NOT NULL,
+    keys_evicted     BIGINT      NOT NULL,
+    started_at       datetime NULL,
+    finished_at      datetime NULL,
+    last_error       VARCHAR(1024) NULL,
+    user_id          BIGINT      NOT NULL,
+    CONSTRAINT pk_delete_jobs PRIMARY KEY (id)
+);
+
+ALTER TABLE delete_jobs
+    ADD CONSTRAINT FK_DELETE_JOBS_ON_USER FOREIGN KEY (user_id) REFERENCES users (id);
+
+ALTER TABLE delete_jobs
+    ADD CONSTRAINT FK_DELETE_JOBS_ON_OWNER FOREIGN KEY (owner_id) REFERENCES users (id);
@@ -0,0 +1,24 @@
+-- KEYS[1] counts sorted set, KEYS[2] errors hash
+-- ARGV[1] capacity, then short code, clicks, error for each entry of a node's summary
+-- Space-Saving merge: a code missing from a full summary replaces the smallest entry and
+-- inherits its count as error, so counts stay upper bounds and at most capacity codes are kept
+local capacity = tonumber(ARGV[1])
+for i = 2, #ARGV, 3 do
+    local code = ARGV[i]
+    local clicks = tonumber(ARGV[i + 1])
+    local err = tonumber(ARGV[i + 2])
+    if redis.call('ZSCORE', KEYS[1], code) then
+        redis.call('ZINCRBY', KEYS[1], clicks, code)
+        redis.call('HINCRBY', KEYS[2], code, err)
+    elseif redis.call('ZCARD', KEYS[1]) < capacity then
+        redis.call('ZADD', KEYS[1], clicks, code)
+        redis.call('HSET', KEYS[2], code, err)
+    else
+        local smallest = redis.call('ZPOPMIN', KEYS[1])
+        local floor = tonumber(smallest[2])
+        redis.call('HDEL', KEYS[2], smallest[1])
+        redis.call('ZADD', KEYS[1], floor + clicks, code)
+        redis.call('HSET', KEYS[2], code, floor + err)
+    end
+end
+return redis.call('ZCARD', KEYS[1])
@@ -0,0 +1,112 @@
+package com.shivam.urlshortenerservice.benchmarks;
+
+import com.shivam.urlshortenerservice.advices.GlobalExceptionHandler;
+import com.shivam.urlshortenerservice.controllers.ShortUrlController;
+import com.shivam.urlshortenerservice.filters.RedirectFastPathFilter;
+import com.shivam.urlshortenerservice.security.configs.SecurityConfig;
+import com.shivam.urlshortenerservice.security.filters.JwtAuthenticationFilter;
+import com.shivam.urlshortenerservice.security.services.JwtService;
+import com.shivam.urlshortenerservice.services.IRedirectService;
+import com.shivam.urlshortenerservice.services.IShortUrlService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Compares GET /{shortCode} through the security chain + DispatcherServlet against the
+// fast path filter. The service layer is stubbed out. Run with: mvn -Pbenchmark test
+@Tag("benchmark")
+@SpringJUnitWebConfig(RedirectBenchmarkTest.Config.class)
+public class RedirectBenchmarkTest {
+
+    private static final String SHORT_CODE = "bench1";
+    private static final String ORIGINAL_URL = "https://www.google.com/search?q=url+shortener";
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private IRedirectService redirectService;
+
+    @Test
+    @DisplayName("Redirect throughput: security chain + DispatcherServlet vs fast path filter")
+    void benchmark_RedirectThroughput() throws Exception {
+        when(redirectService.redirect(eq(SHORT_CODE), any(), any(), any())).thenReturn(ORIGINAL_URL);
+
+        MockMvc dispatcherPath = MockMvcBuilders.webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+        MockMvc fastPath = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(new RedirectFastPathFilter(redirectService))
+                .apply(springSecurity())
+                .build();
+
+        run(dispatcherPath, WARMUP_ITERATIONS);
+        run(fastPath, WARMUP_ITERATIONS);
+
+        double before = run(dispatcherPath, ITERATIONS);
+        double after = run(fastPath, ITERATIONS);
+
+        System.out.printf("Redirect via security chain + DispatcherServlet : %,.0f req/s%n", before);
+        System.out.printf("Redirect via fast path filter                   : %,.0f req/s%n", after);
+        System.out.printf("Speed-up                                        : %.2fx%n", after / before);
+    }
+
+    private double run(MockMvc mockMvc, int iterations) throws Exception {
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            int status = mockMvc.perform(get("/" + SHORT_CODE)).andReturn().getResponse().getStatus();
+            assertEquals(302, status);
+        }
+        return iterations / ((System.nanoTime() - started) / 1e9);
+    }
+
+    @Configuration
+    @EnableWebMvc
+    @EnableWebSecurity
+    @Import({SecurityConfig.class, JwtAuthenticationFilter.class, ShortUrlController.class, GlobalExceptionHandler.class})
+    static class Config {
+
+        // stubOnly so the mocks do not record every one of the benchmark's invocations
+        @Bean
+        public IShortUrlService shortUrlService() {
+            return mock(IShortUrlService.class, withSettings().stubOnly());
+        }
+
+        @Bean
+        public IRedirectService redirectService() {
+            return mock(IRedirectService.class, withSettings().stubOnly());
+        }
+
+        @Bean
+        public JwtService jwtService() {
+            return mock(JwtService.class, withSettings().stubOnly());
+        }
+
+        @Bean
+        public UserDetailsService userDetailsService() {
+            return mock(UserDetailsService.class, withSettings().stubOnly());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.shivam.urlshortenerservice.caches;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class LocalShortUrlCacheTest {
+
+    private StringRedisTemplate redisTemplate;
+    private RedisCircuitBreaker redisBreaker;
+    private LocalShortUrlCache localCache;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        redisBreaker = new RedisCircuitBreaker(new SimpleMeterRegistry(), 50, 20, 0.5, 1000, 5000, 5, 10000, 1000, false);
+        localCache = new LocalShortUrlCache(redisTemplate, redisBreaker, new SimpleMeterRegistry(), 100, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        redisBreaker.shutdown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should return a cached link until it is invalidated")
+    void test_Get_AfterPut() {
+        CachedShortUrl entry = entry(60000);
+        localCache.put("ggle", entry);
+
+        assertEquals(entry, localCache.get("ggle"));
+        localCache.invalidate("ggle");
+        assertNull(localCache.get("ggle"));
+    }
+
+    @Test
+    @DisplayName("Should not cache a link that has already expired")
+    void test_Put_Expired_NotCached() {
+        localCache.put("ggle", entry(-1000));
+
+        assertNull(localCache.get("ggle"));
+    }
+
+    @Test
+    @DisplayName("Should announce an invalidation right away outside a transaction")
+    void test_Invalidate_NoTransaction_PublishesNow() {
+        localCache.invalidate("ggle");
+
+        verify(redisTemplate).convertAndSend(LocalShortUrlCache.INVALIDATION_CHANNEL, "ggle");
+    }
+
+    @Test
+    @DisplayName("Should announce an invalidation only after the transaction commits")
+    void test_Invalidate_InTransaction_PublishesAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        localCache.put("ggle", entry(60000));
+
+        localCache.invalidateAll(List.of("ggle", "yhoo"));
+        assertNull(localCache.get("ggle"));
+        verifyNoInteractions(redisTemplate);
+
+        // A request before the commit may put the old row back; the commit drops it again
+        localCache.put("ggle", entry(60000));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertNull(localCache.get("ggle"));
+        verify(redisTemplate).convertAndSend(LocalShortUrlCache.INVALIDATION_CHANNEL, "ggle\nyhoo");
+    }
+
+    @Test
+    @DisplayName("Should drop every code named in an invalidation from another node")
+    void test_Listener_InvalidatesLocally() {
+        CacheInvalidationListener listener = new CacheInvalidationListener(localCache, mock(ShortCodeFilter.class));
+        localCache.put("ggle", entry(60000));
+        localCache.put("yhoo", entry(60000));
+
+        listener.onMessage(new DefaultMessage(LocalShortUrlCache.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "ggle\nyhoo".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertNull(localCache.get("ggle"));
+        assertNull(localCache.get("yhoo"));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    private static CachedShortUrl entry(long expiresInMillis) {
+        return new CachedShortUrl(1L, "https://www.google.com", System.currentTimeMillis() + expiresInMillis, 1L);
+    }
+}
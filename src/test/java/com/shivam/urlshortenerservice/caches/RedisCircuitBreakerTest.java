@@ -0,0 +1,137 @@
+package com.shivam.urlshortenerservice.caches;
+
+import com.shivam.urlshortenerservice.caches.RedisCircuitBreaker.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RedisCircuitBreakerTest {
+
+    private static final long OPEN_DURATION_MS = 50;
+    private static final long REPLAY_INTERVAL_MS = 50;
+
+    private RedisCircuitBreaker redisBreaker;
+
+    @BeforeEach
+    void setUp() {
+        // Opens once half of at least 4 calls failed, closes after 2 good probes
+        redisBreaker = new RedisCircuitBreaker(new SimpleMeterRegistry(), 10, 4, 0.5, 1000, OPEN_DURATION_MS, 2, 100, REPLAY_INTERVAL_MS, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        redisBreaker.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should stay closed while failures are below the threshold")
+    void test_Closed_BelowThreshold() {
+        succeed();
+        succeed();
+        succeed();
+        fail();
+
+        assertEquals(State.CLOSED, redisBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("Should open at the failure threshold and answer from the fallback without calling Redis")
+    void test_Open_AtThreshold() {
+        openBreaker();
+
+        AtomicInteger calls = new AtomicInteger();
+        String result = redisBreaker.call(() -> {
+            calls.incrementAndGet();
+            return "redis";
+        }, () -> "fallback");
+
+        assertEquals(State.OPEN, redisBreaker.getState());
+        assertEquals("fallback", result);
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should close after the half-open probes succeed and replay the writes it skipped")
+    void test_HalfOpen_ProbesSucceed_Closes() throws InterruptedException {
+        openBreaker();
+        CountDownLatch replayed = new CountDownLatch(1);
+        redisBreaker.write("ggle", replayed::countDown);
+
+        Thread.sleep(OPEN_DURATION_MS + 20);
+        succeed();
+        assertEquals(State.HALF_OPEN, redisBreaker.getState());
+        succeed();
+
+        assertEquals(State.CLOSED, redisBreaker.getState());
+        assertTrue(replayed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should open again when a half-open probe fails")
+    void test_HalfOpen_ProbeFails_Reopens() throws InterruptedException {
+        openBreaker();
+
+        Thread.sleep(OPEN_DURATION_MS + 20);
+        fail();
+
+        assertEquals(State.OPEN, redisBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("Should rethrow a probe's non-Redis exception and still leave half-open")
+    void test_HalfOpen_ProbeThrowsOther_Reopens() throws InterruptedException {
+        openBreaker();
+
+        Thread.sleep(OPEN_DURATION_MS + 20);
+        assertThrows(IllegalStateException.class, () -> redisBreaker.call(() -> {
+            throw new IllegalStateException("bad value");
+        }, () -> null));
+        assertEquals(State.OPEN, redisBreaker.getState());
+
+        Thread.sleep(OPEN_DURATION_MS + 20);
+        succeed();
+        succeed();
+        assertEquals(State.CLOSED, redisBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("Should retry a critical write that failed on its own while the breaker stayed closed")
+    void test_Closed_IsolatedWriteFailure_Replayed() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch written = new CountDownLatch(1);
+
+        boolean done = redisBreaker.writeCritical("ggle", () -> {
+            if (attempts.incrementAndGet() == 1) throw new QueryTimeoutException("timeout");
+            written.countDown();
+        });
+
+        assertFalse(done);
+        assertEquals(State.CLOSED, redisBreaker.getState());
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+        assertEquals(2, attempts.get());
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 4; i++) fail();
+        assertEquals(State.OPEN, redisBreaker.getState());
+    }
+
+    private void succeed() {
+        assertEquals("redis", redisBreaker.call(() -> "redis", () -> "fallback"));
+    }
+
+    private void fail() {
+        redisBreaker.call(() -> {
+            throw new QueryTimeoutException("timeout");
+        }, () -> "fallback");
+    }
+}
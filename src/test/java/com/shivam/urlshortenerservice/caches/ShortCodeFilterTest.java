@@ -0,0 +1,115 @@
+package com.shivam.urlshortenerservice.caches;
+
+import com.shivam.urlshortenerservice.repositories.ShortUrlJdbcRepository;
+import com.shivam.urlshortenerservice.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+public class ShortCodeFilterTest {
+
+    private ShardRouter shardRouter;
+    private RedisCircuitBreaker redisBreaker;
+    private SimpleMeterRegistry meterRegistry;
+    private ShortCodeFilter shortCodeFilter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ShortUrlJdbcRepository shortUrlJdbcRepository = mock(ShortUrlJdbcRepository.class);
+        when(shortUrlJdbcRepository.countActive()).thenReturn(2L);
+        doAnswer(invocation -> {
+            Consumer<String> consumer = invocation.getArgument(1);
+            consumer.accept("ggle");
+            consumer.accept("yhoo");
+            return null;
+        }).when(shortUrlJdbcRepository).forEachActiveShortCode(anyInt(), any(Consumer.class));
+
+        shardRouter = new ShardRouter(1, 128, false);
+        redisBreaker = new RedisCircuitBreaker(new SimpleMeterRegistry(), 50, 20, 0.5, 1000, 5000, 5, 10000, 1000, false);
+        meterRegistry = new SimpleMeterRegistry();
+        shortCodeFilter = new ShortCodeFilter(shortUrlJdbcRepository, shardRouter, mock(StringRedisTemplate.class),
+                redisBreaker, meterRegistry, 1000, 0.01, 1000, 300);
+    }
+
+    @AfterEach
+    void tearDown() {
+        shardRouter.shutdown();
+        redisBreaker.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should let every code through until the filter is built")
+    void test_MightExist_BeforeRebuild() {
+        assertTrue(shortCodeFilter.mightExist("nope"));
+    }
+
+    @Test
+    @DisplayName("Should reject codes that were never created once the filter is built")
+    void test_MightExist_AfterRebuild() {
+        shortCodeFilter.rebuild();
+
+        assertTrue(shortCodeFilter.mightExist("ggle"));
+        assertTrue(shortCodeFilter.mightExist("yhoo"));
+        assertFalse(shortCodeFilter.mightExist("nope"));
+    }
+
+    @Test
+    @DisplayName("Should let a newly added code through and clear its tombstone")
+    void test_Add_ClearsTombstone() {
+        shortCodeFilter.rebuild();
+        shortCodeFilter.markNotFound("msft");
+
+        shortCodeFilter.add("msft");
+
+        assertTrue(shortCodeFilter.mightExist("msft"));
+        assertNull(shortCodeFilter.getTombstone("msft"));
+    }
+
+    @Test
+    @DisplayName("Should count a code missing from MySQL as a false positive unless it was deleted")
+    void test_MarkNotFound_SkipsDeletedCodes() {
+        shortCodeFilter.rebuild();
+
+        shortCodeFilter.markNotFound("ggle");
+        shortCodeFilter.markDeleted("yhoo");
+        shortCodeFilter.markNotFound("yhoo");
+
+        assertEquals(1.0, meterRegistry.counter("redirect.filter.lookups", "result", "false_positive").count());
+        assertEquals(ShortCodeFilter.Tombstone.NOT_FOUND, shortCodeFilter.getTombstone("ggle"));
+        assertEquals(ShortCodeFilter.Tombstone.NOT_FOUND, shortCodeFilter.getTombstone("yhoo"));
+    }
+
+    @Test
+    @DisplayName("Should tombstone the codes of a deletion announced by another node")
+    void test_Listener_DeletedCodes_Tombstoned() {
+        LocalShortUrlCache localCache = mock(LocalShortUrlCache.class);
+        CacheInvalidationListener listener = new CacheInvalidationListener(localCache, shortCodeFilter);
+
+        listener.onMessage(message(LocalShortUrlCache.INVALIDATION_CHANNEL, LocalShortUrlCache.DELETED_MARKER + "\nggle\nyhoo"), null);
+        listener.onMessage(message(LocalShortUrlCache.INVALIDATION_CHANNEL, "msft"), null);
+
+        assertEquals(ShortCodeFilter.Tombstone.NOT_FOUND, shortCodeFilter.getTombstone("ggle"));
+        assertEquals(ShortCodeFilter.Tombstone.NOT_FOUND, shortCodeFilter.getTombstone("yhoo"));
+        assertNull(shortCodeFilter.getTombstone("msft"));
+        List.of("ggle", "yhoo", "msft").forEach(code -> verify(localCache).invalidateLocally(code));
+        verify(localCache, never()).invalidateLocally(LocalShortUrlCache.DELETED_MARKER);
+    }
+
+    private static DefaultMessage message(String channel, String body) {
+        return new DefaultMessage(channel.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
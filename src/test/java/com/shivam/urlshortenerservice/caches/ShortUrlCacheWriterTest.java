@@ -0,0 +1,56 @@
+package com.shivam.urlshortenerservice.caches;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ShortUrlCacheWriterTest {
+
+    private StringRedisTemplate redisTemplate;
+    private RedisCircuitBreaker redisBreaker;
+    private ShortUrlCacheWriter cacheWriter;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        redisBreaker = new RedisCircuitBreaker(new SimpleMeterRegistry(), 10, 4, 0.5, 1000, 60_000, 2, 100, 60_000, false);
+        cacheWriter = new ShortUrlCacheWriter(redisTemplate, redisBreaker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        redisBreaker.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should count only the keys UNLINK removed, not every code it was sent")
+    void test_EvictAll_CountsRemovedKeys() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.asList(1L, 0L, 1L));
+
+        assertEquals(2, cacheWriter.evictAll(List.of("ggle", "gone", "bing")));
+    }
+
+    @Test
+    @DisplayName("Should count the keys removed one by one after the pipeline failed")
+    void test_EvictAll_PipelineFails_CountsSingleUnlinks() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenThrow(new QueryTimeoutException("timeout"));
+        when(redisTemplate.unlink("ggle")).thenReturn(true);
+        when(redisTemplate.unlink("gone")).thenReturn(false);
+
+        assertEquals(1, cacheWriter.evictAll(List.of("ggle", "gone")));
+        verify(redisTemplate).unlink("ggle");
+        verify(redisTemplate).unlink("gone");
+    }
+}
@@ -1,8 +1,11 @@
 package com.shivam.urlshortenerservice.controllers;
 
+import com.shivam.urlshortenerservice.dtos.ClickEventResponse;
+import com.shivam.urlshortenerservice.dtos.ClickEventSliceResponse;
 import com.shivam.urlshortenerservice.dtos.ClickStatsResponse;
+import com.shivam.urlshortenerservice.dtos.DailyUniqueVisitors;
 import com.shivam.urlshortenerservice.dtos.TopClickedResponse;
-import com.shivam.urlshortenerservice.models.ClickEvent;
+import com.shivam.urlshortenerservice.dtos.UniqueVisitorsResponse;
 import com.shivam.urlshortenerservice.services.IAnalyticsService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,13 +13,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Collections;
-import java.util.Date;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
@@ -53,21 +53,22 @@ public class AnalyticsControllerTest {
     @Test
     @DisplayName("Should return filtered click events successfully")
     void test_GetFilteredClickEvents_ValidFilters_ReturnsPage() throws Exception {
-        ClickEvent event = new ClickEvent("192.168.0.1", "Chrome", "Windows", "Desktop", "google.com", new Date(), null);
-        Page<ClickEvent> page = new PageImpl<>(List.of(event));
-        when(analyticsService.getFilteredClickEvents(eq("abc123"), any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), anyString(), anyString())).thenReturn(page);
+        ClickEventResponse event = new ClickEventResponse("192.168.0.1", "Chrome", "Windows", "Desktop", "google.com", "2025-05-01 10:00:00");
+        ClickEventSliceResponse page = new ClickEventSliceResponse(List.of(event), "next", true, null);
+        when(analyticsService.getFilteredClickEvents(eq("abc123"), any(), any(), any(), any(), any(), any(), anyInt(), anyString(), anyString(), anyBoolean(), anyString())).thenReturn(page);
 
         mockMvc.perform(get("/analytics/abc123/click-events"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content", hasSize(1)))
-                .andExpect(jsonPath("$.content[0].browser", is("Chrome")));
+                .andExpect(jsonPath("$.content[0].browser", is("Chrome")))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
     }
 
     @Test
     @DisplayName("Should return empty list when no click events match filters")
     void test_GetFilteredClickEvents_NoEvents_ReturnsEmptyPage() throws Exception {
-        Page<ClickEvent> page = new PageImpl<>(Collections.emptyList());
-        when(analyticsService.getFilteredClickEvents(eq("abc123"), any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), anyString(), anyString())).thenReturn(page);
+        ClickEventSliceResponse page = new ClickEventSliceResponse(Collections.emptyList(), null, false, null);
+        when(analyticsService.getFilteredClickEvents(eq("abc123"), any(), any(), any(), any(), any(), any(), anyInt(), anyString(), anyString(), anyBoolean(), anyString())).thenReturn(page);
 
         mockMvc.perform(get("/analytics/abc123/click-events"))
                 .andExpect(status().isOk())
@@ -104,6 +105,27 @@ public class AnalyticsControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("Should return unique visitors for a date range")
+    void test_GetUniqueVisitors_ValidDates_ReturnsEstimates() throws Exception {
+        UniqueVisitorsResponse response = new UniqueVisitorsResponse("abc123", 40, "2025-05-01", "2025-05-02", 12L,
+                List.of(new DailyUniqueVisitors("2025-05-01", 7), new DailyUniqueVisitors("2025-05-02", 6)));
+        when(analyticsService.getUniqueVisitors("abc123", "2025-05-01", "2025-05-02", "shivam@gmail.com")).thenReturn(response);
+
+        mockMvc.perform(get("/analytics/abc123/unique-visitors?startDate=2025-05-01&endDate=2025-05-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.allTimeUniqueVisitors", is(40)))
+                .andExpect(jsonPath("$.uniqueVisitors", is(12)))
+                .andExpect(jsonPath("$.daily", hasSize(2)));
+    }
+
+    @Test
+    @DisplayName("Should return bad request when only one end of the range is given")
+    void test_GetUniqueVisitors_MissingEndDate_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/analytics/abc123/unique-visitors?startDate=2025-05-01"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Should return top clicked URLs for admin access")
     void test_GetTopClickedUrls_AdminAccess_ReturnsList() throws Exception {
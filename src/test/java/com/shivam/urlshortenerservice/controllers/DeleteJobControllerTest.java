@@ -0,0 +1,117 @@
+package com.shivam.urlshortenerservice.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shivam.urlshortenerservice.dtos.BulkDeleteRequest;
+import com.shivam.urlshortenerservice.exceptions.ForbiddenOperationException;
+import com.shivam.urlshortenerservice.models.DeleteJob;
+import com.shivam.urlshortenerservice.models.DeleteJobStatus;
+import com.shivam.urlshortenerservice.services.IDeleteJobService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DeleteJobController.class)
+@AutoConfigureMockMvc
+@WithMockUser(username = "shivam@gmail.com", roles = "USER")
+public class DeleteJobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private IDeleteJobService deleteJobService;
+
+    private final String email = "shivam@gmail.com";
+
+    @Test
+    @DisplayName("Should start a delete job for a list of own short codes")
+    void test_CreateDeleteJob_Success() throws Exception {
+        BulkDeleteRequest request = new BulkDeleteRequest(List.of("ggle", "yhoo"), null, null, null, false, false);
+
+        when(deleteJobService.createDeleteJob(any(BulkDeleteRequest.class), eq(email)))
+                .thenReturn(deleteJob(DeleteJobStatus.QUEUED));
+
+        mockMvc.perform(post("/shorten/delete-jobs")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.status", is("QUEUED")));
+    }
+
+    @Test
+    @DisplayName("Should forbid a user from purging urls")
+    void test_CreateDeleteJob_Purge_Forbidden() throws Exception {
+        BulkDeleteRequest request = new BulkDeleteRequest(null, null, null, null, false, true);
+
+        when(deleteJobService.createDeleteJob(any(BulkDeleteRequest.class), eq(email)))
+                .thenThrow(new ForbiddenOperationException("only admins can delete other users' urls or purge urls"));
+
+        mockMvc.perform(post("/shorten/delete-jobs")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Should return delete job progress")
+    void test_GetDeleteJob_Success() throws Exception {
+        DeleteJob deleteJob = deleteJob(DeleteJobStatus.RUNNING);
+        deleteJob.setRowsDeleted(120_000);
+        deleteJob.setKeysEvicted(120_000);
+
+        when(deleteJobService.getDeleteJob(1L, email)).thenReturn(deleteJob);
+
+        mockMvc.perform(get("/shorten/delete-jobs/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("RUNNING")))
+                .andExpect(jsonPath("$.rowsDeleted", is(120_000)));
+    }
+
+    @Test
+    @WithMockUser(username = "admin@gmail.com", roles = "ADMIN")
+    @DisplayName("Should start an admin delete job for all urls of an owner")
+    void test_CreateDeleteJobAsAdmin_Success() throws Exception {
+        BulkDeleteRequest request = new BulkDeleteRequest(null, "spammer@gmail.com", null, null, false, true);
+        DeleteJob deleteJob = deleteJob(DeleteJobStatus.QUEUED);
+        deleteJob.setHardDelete(true);
+
+        when(deleteJobService.createDeleteJobAsAdmin(any(BulkDeleteRequest.class), eq("admin@gmail.com")))
+                .thenReturn(deleteJob);
+
+        mockMvc.perform(post("/shorten/admin/delete-jobs")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.purge", is(true)));
+    }
+
+    private DeleteJob deleteJob(DeleteJobStatus status) {
+        DeleteJob deleteJob = new DeleteJob();
+        deleteJob.setId(1L);
+        deleteJob.setStatus(status);
+        return deleteJob;
+    }
+}
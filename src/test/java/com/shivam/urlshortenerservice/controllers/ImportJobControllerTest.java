@@ -0,0 +1,123 @@
+package com.shivam.urlshortenerservice.controllers;
+
+import com.shivam.urlshortenerservice.models.ImportFormat;
+import com.shivam.urlshortenerservice.models.ImportJob;
+import com.shivam.urlshortenerservice.models.ImportJobStatus;
+import com.shivam.urlshortenerservice.services.IImportJobService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ImportJobController.class)
+@AutoConfigureMockMvc
+@WithMockUser(username = "admin@gmail.com", roles = "ADMIN")
+public class ImportJobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private IImportJobService importJobService;
+
+    private final String email = "admin@gmail.com";
+
+    @Test
+    @DisplayName("Should start an import job from the request body with the format taken from its content type")
+    void test_CreateImportJob_Success() throws Exception {
+        when(importJobService.createImportJob(any(), eq(ImportFormat.CSV), eq(true), eq(email)))
+                .thenReturn(importJob(ImportJobStatus.QUEUED));
+
+        mockMvc.perform(post("/shorten/admin/imports")
+                        .contentType("text/csv")
+                        .content("original_url,custom_alias,expires_at\nhttps://www.google.com,,\n")
+                        .param("warmCache", "true")
+                        .with(csrf()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.status", is("QUEUED")))
+                .andExpect(jsonPath("$.format", is("CSV")));
+    }
+
+    @Test
+    @DisplayName("Should take the import format from the format parameter for an octet stream body")
+    void test_CreateImportJob_FormatParam() throws Exception {
+        when(importJobService.createImportJob(any(), eq(ImportFormat.NDJSON), eq(false), eq(email)))
+                .thenReturn(importJob(ImportJobStatus.QUEUED));
+
+        mockMvc.perform(post("/shorten/admin/imports")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content("{\"originalUrl\":\"https://www.google.com\"}\n")
+                        .param("format", "NDJSON")
+                        .with(csrf()))
+                .andExpect(status().isAccepted());
+
+        verify(importJobService).createImportJob(any(), eq(ImportFormat.NDJSON), eq(false), eq(email));
+    }
+
+    @Test
+    @DisplayName("Should reject an import body with an unknown format")
+    void test_CreateImportJob_UnknownFormat() throws Exception {
+        mockMvc.perform(post("/shorten/admin/imports")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content("https://www.google.com")
+                        .with(csrf()))
+                .andExpect(status().isBadRequest());
+
+        verify(importJobService, never()).createImportJob(any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    @DisplayName("Should return import job progress")
+    void test_GetImportJob_Success() throws Exception {
+        ImportJob importJob = importJob(ImportJobStatus.RUNNING);
+        importJob.setStartedAt(new Date(System.currentTimeMillis() - 10_000));
+        importJob.setRowsProcessed(50_000);
+        importJob.setRowsImported(49_990);
+        importJob.setRowsFailed(10);
+
+        when(importJobService.getImportJob(1L)).thenReturn(importJob);
+
+        mockMvc.perform(get("/shorten/admin/imports/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("RUNNING")))
+                .andExpect(jsonPath("$.rowsImported", is(49_990)))
+                .andExpect(jsonPath("$.rowsFailed", is(10)));
+    }
+
+    @Test
+    @DisplayName("Should resume a failed import job")
+    void test_ResumeImportJob_Success() throws Exception {
+        when(importJobService.resumeImportJob(1L)).thenReturn(importJob(ImportJobStatus.FAILED));
+
+        mockMvc.perform(post("/shorten/admin/imports/1/resume")
+                        .with(csrf()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id", is(1)));
+
+        verify(importJobService).resumeImportJob(1L);
+    }
+
+    private ImportJob importJob(ImportJobStatus status) {
+        ImportJob importJob = new ImportJob();
+        importJob.setId(1L);
+        importJob.setStatus(status);
+        importJob.setFormat(ImportFormat.CSV);
+        return importJob;
+    }
+}
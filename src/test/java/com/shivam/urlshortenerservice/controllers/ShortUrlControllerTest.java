@@ -1,10 +1,12 @@
 package com.shivam.urlshortenerservice.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shivam.urlshortenerservice.dtos.BatchShortUrlResult;
 import com.shivam.urlshortenerservice.dtos.ShortUrlRequest;
+import com.shivam.urlshortenerservice.dtos.ShortUrlResponse;
 import com.shivam.urlshortenerservice.models.ShortUrl;
 import com.shivam.urlshortenerservice.models.User;
-import com.shivam.urlshortenerservice.services.IAnalyticsService;
+import com.shivam.urlshortenerservice.services.IRedirectService;
 import com.shivam.urlshortenerservice.services.IShortUrlService;
 import com.shivam.urlshortenerservice.utils.ShortUrlUtil;
 import org.junit.jupiter.api.DisplayName;
@@ -46,7 +48,7 @@ public class ShortUrlControllerTest {
     private IShortUrlService shortUrlService;
 
     @MockBean
-    private IAnalyticsService analyticsService;
+    private IRedirectService redirectService;
 
     private final String email = "shivam@gmail.com";
     private final String originalUrl = "https://www.google.com";
@@ -87,10 +89,33 @@ public class ShortUrlControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("Should create short URLs in batch with per item results")
+    void test_CreateShortUrls_Batch() throws Exception {
+        List<ShortUrlRequest> requests = List.of(
+                new ShortUrlRequest(originalUrl, customAlias, null),
+                new ShortUrlRequest("", null, null));
+        ShortUrlResponse created = new ShortUrlResponse(shortUrlCustomAlias, originalUrl, null, null);
+
+        when(shortUrlService.createShortUrls(any(), eq(email))).thenReturn(List.of(
+                new BatchShortUrlResult(0, created, null),
+                new BatchShortUrlResult(1, null, "Invalid original url")));
+
+        mockMvc.perform(post("/shorten/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].shortUrl.shortUrl", is(shortUrlCustomAlias)))
+                .andExpect(jsonPath("$[1].error", is("Invalid original url")));
+    }
+
     @Test
     @DisplayName("Should redirect to original URL and log click")
     void test_RedirectToOriginalUrl_Success() throws Exception {
-        when(shortUrlService.getOriginalUrl("ggle")).thenReturn(originalUrl);
+        when(redirectService.redirect(eq("ggle"), eq("127.0.0.1"), eq("mozilla"), eq("https://parent.google.com")))
+                .thenReturn(originalUrl);
 
         mockMvc.perform(get("/ggle")
                         .header("User-Agent", "mozilla")
@@ -102,7 +127,7 @@ public class ShortUrlControllerTest {
                 .andExpect(status().isFound())
                 .andExpect(header().string("Location", originalUrl));
 
-        verify(analyticsService, times(1)).logClick(eq("ggle"), eq("127.0.0.1"), eq("mozilla"), eq("https://parent.google.com"));
+        verify(redirectService, times(1)).redirect(eq("ggle"), eq("127.0.0.1"), eq("mozilla"), eq("https://parent.google.com"));
     }
 
     @Test
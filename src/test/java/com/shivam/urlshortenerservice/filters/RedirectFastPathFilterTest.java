@@ -0,0 +1,78 @@
+package com.shivam.urlshortenerservice.filters;
+
+import com.shivam.urlshortenerservice.exceptions.ShortCodeNotFoundException;
+import com.shivam.urlshortenerservice.services.IRedirectService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class RedirectFastPathFilterTest {
+
+    private IRedirectService redirectService;
+    private RedirectFastPathFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        redirectService = mock(IRedirectService.class);
+        filter = new RedirectFastPathFilter(redirectService);
+    }
+
+    @Test
+    @DisplayName("Should answer a short code with a 302 to the original url")
+    void test_Redirect_Found() throws Exception {
+        when(redirectService.redirect(eq("ggle"), any(), any(), any())).thenReturn("https://www.google.com");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/ggle"), response, chain);
+
+        assertEquals(302, response.getStatus());
+        assertEquals("https://www.google.com", response.getHeader("Location"));
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    @DisplayName("Should answer an unknown short code with a 404")
+    void test_Redirect_NotFound() throws Exception {
+        when(redirectService.redirect(eq("nope"), any(), any(), any()))
+                .thenThrow(new ShortCodeNotFoundException("Short URL does not exist or deleted"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/nope"), response, new MockFilterChain());
+
+        assertEquals(404, response.getStatus());
+        assertEquals("Short URL does not exist or deleted", response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Should answer any other failure with a 500 carrying its message")
+    void test_Redirect_Failure_InternalServerError() throws Exception {
+        when(redirectService.redirect(eq("ggle"), any(), any(), any())).thenThrow(new QueryTimeoutException("timeout"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/ggle"), response, new MockFilterChain());
+
+        assertEquals(500, response.getStatus());
+        assertEquals("timeout", response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Should pass the application's own routes down the chain")
+    void test_ReservedPath_FallsThrough() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/shorten"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        verifyNoInteractions(redirectService);
+    }
+}
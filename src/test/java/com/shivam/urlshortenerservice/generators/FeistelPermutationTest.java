@@ -0,0 +1,53 @@
+package com.shivam.urlshortenerservice.generators;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeistelPermutationTest {
+
+    @Test
+    @DisplayName("Should map every value of the domain to a distinct value inside it")
+    void test_Permute_IsBijection() {
+        // Not a power of two, so cycle-walking is exercised
+        int domain = 62 * 62 * 62;
+        FeistelPermutation permutation = new FeistelPermutation(domain, 12345L);
+
+        BitSet seen = new BitSet(domain);
+        for (int value = 0; value < domain; value++) {
+            long permuted = permutation.permute(value);
+            assertTrue(permuted >= 0 && permuted < domain);
+            assertFalse(seen.get((int) permuted));
+            seen.set((int) permuted);
+        }
+        assertEquals(domain, seen.cardinality());
+    }
+
+    @Test
+    @DisplayName("Should give back the original value from its permutation")
+    void test_Inverse_RoundTrip() {
+        long domain = 62L * 62 * 62 * 62 * 62 * 62 * 62;
+        FeistelPermutation permutation = new FeistelPermutation(domain, -987654321L);
+
+        for (long value : new long[]{0, 1, 2, 999, 1000, 123456789, domain - 2, domain - 1}) {
+            long permuted = permutation.permute(value);
+            assertTrue(permuted < domain);
+            assertEquals(value, permutation.inverse(permuted));
+        }
+    }
+
+    @Test
+    @DisplayName("Should not keep sequential ids in order and should depend on the key")
+    void test_Permute_ScramblesByKey() {
+        long domain = 62L * 62 * 62 * 62 * 62 * 62 * 62;
+        FeistelPermutation permutation = new FeistelPermutation(domain, 1L);
+        FeistelPermutation otherKey = new FeistelPermutation(domain, 2L);
+
+        assertNotEquals(permutation.permute(1) + 1, permutation.permute(2));
+        assertNotEquals(permutation.permute(1), otherKey.permute(1));
+        assertEquals(permutation.permute(42), new FeistelPermutation(domain, 1L).permute(42));
+    }
+}
@@ -0,0 +1,101 @@
+package com.shivam.urlshortenerservice.generators;
+
+import com.shivam.urlshortenerservice.caches.RedisCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PooledShortCodeGeneratorTest {
+
+    private final AtomicInteger generated = new AtomicInteger();
+    private final ShortCodeGenerator delegate = () -> "c" + generated.incrementAndGet();
+
+    private StringRedisTemplate redisTemplate;
+    private RedisCircuitBreaker redisBreaker;
+    private SimpleMeterRegistry meterRegistry;
+    private PooledShortCodeGenerator pooled;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        redisBreaker = new RedisCircuitBreaker(new SimpleMeterRegistry(), 50, 20, 0.5, 1000, 5000, 5, 10000, 1000, false);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pooled != null) pooled.close();
+        redisBreaker.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should hand out distinct codes from the filled pool without generating inline")
+    void test_NextCode_FromPool() throws InterruptedException {
+        pooled = newPool(false);
+        pooled.start();
+        awaitPoolDepth(10);
+
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            codes.add(pooled.nextCode());
+        }
+
+        assertEquals(5, codes.size());
+        assertEquals(0.0, meterRegistry.counter("short-codes.pool.fallback").count());
+    }
+
+    @Test
+    @DisplayName("Should generate inline when the pool is empty")
+    void test_NextCode_EmptyPool_FallsBack() {
+        pooled = newPool(false);
+
+        assertNotNull(pooled.nextCode());
+        assertEquals(1.0, meterRegistry.counter("short-codes.pool.fallback").count());
+    }
+
+    @Test
+    @DisplayName("Should keep generating inline after it is closed instead of rejecting refills")
+    void test_NextCode_AfterClose() {
+        pooled = newPool(false);
+        pooled.close();
+
+        assertDoesNotThrow(() -> pooled.nextCode());
+        assertDoesNotThrow(() -> pooled.nextCode());
+    }
+
+    @Test
+    @DisplayName("Should report the depth of the shared Redis set as it is when scraped")
+    @SuppressWarnings("unchecked")
+    void test_RedisDepth_ReadOnScrape() {
+        SetOperations<String, String> setOperations = mock(SetOperations.class);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.size(PooledShortCodeGenerator.REDIS_POOL_KEY)).thenReturn(500L, 320L);
+        pooled = newPool(true);
+
+        assertEquals(500.0, meterRegistry.get("short-codes.pool.redis-depth").gauge().value());
+        assertEquals(320.0, meterRegistry.get("short-codes.pool.redis-depth").gauge().value());
+    }
+
+    private PooledShortCodeGenerator newPool(boolean redisEnabled) {
+        return new PooledShortCodeGenerator(delegate, redisTemplate, redisBreaker, meterRegistry,
+                10, 2, 60000, redisEnabled, 100, false);
+    }
+
+    private void awaitPoolDepth(double depth) throws InterruptedException {
+        for (int i = 0; i < 500 && meterRegistry.get("short-codes.pool.depth").gauge().value() < depth; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(depth, meterRegistry.get("short-codes.pool.depth").gauge().value());
+    }
+}
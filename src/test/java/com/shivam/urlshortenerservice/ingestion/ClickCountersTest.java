@@ -0,0 +1,89 @@
+package com.shivam.urlshortenerservice.ingestion;
+
+import com.shivam.urlshortenerservice.caches.RedisCircuitBreaker;
+import com.shivam.urlshortenerservice.repositories.ClickCounterJdbcRepository;
+import com.shivam.urlshortenerservice.sharding.ShardRouter;
+import com.shivam.urlshortenerservice.workloads.WorkloadRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+public class ClickCountersTest {
+
+    private ClickCounterJdbcRepository clickCounterJdbcRepository;
+    private ShardRouter shardRouter;
+    private ClickCounters clickCounters;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        clickCounterJdbcRepository = mock(ClickCounterJdbcRepository.class);
+        shardRouter = new ShardRouter(1, 128, false);
+
+        // Redis is unavailable: reads fall back, writes are left with the breaker
+        RedisCircuitBreaker redisBreaker = mock(RedisCircuitBreaker.class);
+        when(redisBreaker.call(any(), any())).thenAnswer(invocation -> ((Supplier<Object>) invocation.getArgument(1)).get());
+
+        clickCounters = new ClickCounters(clickCounterJdbcRepository, shardRouter, new WorkloadRouter(),
+                mock(StringRedisTemplate.class), redisBreaker, new SimpleMeterRegistry(), 1000, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        shardRouter.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should flush the clicks counted per link as one delta each")
+    void test_Flush_AddsDeltasPerLink() {
+        clickCounters.add("ggle", 1L, 1);
+        clickCounters.add("ggle", 1L, 1);
+        clickCounters.add("ggle", 1L, 1);
+        clickCounters.add("yhoo", 2L, 5);
+
+        clickCounters.flush();
+
+        verify(clickCounterJdbcRepository).add(Map.of(1L, 3L, 2L, 5L));
+    }
+
+    @Test
+    @DisplayName("Should not flush links without new clicks")
+    void test_Flush_NothingPending() {
+        clickCounters.add("ggle", 1L, 2);
+        clickCounters.flush();
+        clickCounters.flush();
+
+        verify(clickCounterJdbcRepository, times(1)).add(anyMap());
+    }
+
+    @Test
+    @DisplayName("Should keep the clicks of a failed flush for the next one")
+    void test_Flush_Failure_Retried() {
+        doThrow(new QueryTimeoutException("timeout")).doNothing().when(clickCounterJdbcRepository).add(anyMap());
+
+        clickCounters.add("ggle", 1L, 4);
+        clickCounters.flush();
+        clickCounters.add("ggle", 1L, 1);
+        clickCounters.flush();
+
+        verify(clickCounterJdbcRepository).add(Map.of(1L, 5L));
+    }
+
+    @Test
+    @DisplayName("Should load the count from the table when Redis does not have it")
+    void test_Get_LoadsFromTable() {
+        assertEquals(42L, clickCounters.get("ggle", () -> 42L));
+    }
+}
@@ -0,0 +1,113 @@
+package com.shivam.urlshortenerservice.ingestion;
+
+import com.shivam.urlshortenerservice.models.ClickEvent;
+import com.shivam.urlshortenerservice.repositories.ClickEventJdbcRepository;
+import com.shivam.urlshortenerservice.repositories.ShortUrlRepository;
+import com.shivam.urlshortenerservice.sharding.ShardRouter;
+import com.shivam.urlshortenerservice.workloads.WorkloadRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nl.basjes.parse.useragent.UserAgent;
+import nl.basjes.parse.useragent.UserAgentAnalyzer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ClickEventWriterTest {
+
+    // UserAgentAnalyzer cannot be mocked; a real one limited to the fields the writer reads
+    private static final UserAgentAnalyzer USER_AGENT_ANALYZER = UserAgentAnalyzer.newBuilder()
+            .withFields(UserAgent.AGENT_NAME, UserAgent.OPERATING_SYSTEM_NAME, UserAgent.DEVICE_CLASS)
+            .hideMatcherLoadStats()
+            .build();
+
+    private ShortUrlRepository shortUrlRepository;
+    private ClickEventJdbcRepository clickEventJdbcRepository;
+    private ClickCounters clickCounters;
+    private TopClickedSketch topClickedSketch;
+    private UniqueVisitors uniqueVisitors;
+    private SimpleMeterRegistry meterRegistry;
+    private ClickEventWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        shortUrlRepository = mock(ShortUrlRepository.class);
+        when(shortUrlRepository.findIdsByShortCodes(anyCollection(), anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{"ggle", 1L}, new Object[]{"bing", 2L}));
+        clickEventJdbcRepository = mock(ClickEventJdbcRepository.class);
+        clickCounters = mock(ClickCounters.class);
+        topClickedSketch = mock(TopClickedSketch.class);
+        uniqueVisitors = mock(UniqueVisitors.class);
+        meterRegistry = new SimpleMeterRegistry();
+
+        writer = new ClickEventWriter(shortUrlRepository, clickEventJdbcRepository, USER_AGENT_ANALYZER,
+                new ShardRouter(1, 128, false), new WorkloadRouter(), clickCounters, topClickedSketch, uniqueVisitors, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should count clicks as written and keep going when a post-insert side effect fails")
+    void test_Write_SideEffectFails_StillWritten() {
+        doThrow(new IllegalStateException("sketch")).when(topClickedSketch).add(anyString(), anyLong());
+
+        assertDoesNotThrow(() -> writer.write(List.of(click("ggle"), click("ggle"))));
+
+        assertEquals(2.0, meterRegistry.counter("clicks.ingest.written").count());
+        assertEquals(0.0, meterRegistry.counter("clicks.ingest.failed").count());
+        verify(clickCounters, times(2)).add("ggle", 1L, 1);
+        verify(uniqueVisitors).add(anyList());
+    }
+
+    @Test
+    @DisplayName("Should count clicks as failed and rethrow when the insert fails, without side effects")
+    void test_Write_InsertFails_Rethrows() {
+        doThrow(new QueryTimeoutException("timeout")).when(clickEventJdbcRepository).batchInsert(anyList());
+
+        assertThrows(QueryTimeoutException.class, () -> writer.write(List.of(click("ggle"))));
+
+        assertEquals(1.0, meterRegistry.counter("clicks.ingest.failed").count());
+        assertEquals(0.0, meterRegistry.counter("clicks.ingest.written").count());
+        verifyNoInteractions(clickCounters, topClickedSketch, uniqueVisitors);
+    }
+
+    @Test
+    @DisplayName("Should drop clicks whose cached id no longer matches a live link")
+    void test_Write_StaleCachedId_Skipped() {
+        writer.write(List.of(click("ggle"), click("gone", 9L), click("bing", 7L)));
+
+        ArgumentCaptor<List<ClickEvent>> inserted = ArgumentCaptor.captor();
+        verify(clickEventJdbcRepository).batchInsert(inserted.capture());
+        assertEquals(List.of(1L), inserted.getValue().stream().map(event -> event.getShortUrl().getId()).toList());
+        assertEquals(1.0, meterRegistry.counter("clicks.ingest.written").count());
+    }
+
+    @Test
+    @DisplayName("Should write a batch row by row when a constraint fails it and drop only the failing rows")
+    void test_Write_ConstraintFails_RowByRow() {
+        doThrow(new DataIntegrityViolationException("fk")).when(clickEventJdbcRepository)
+                .batchInsert(argThat(events -> events.size() > 1 || events.get(0).getShortUrl().getId() == 2L));
+
+        assertDoesNotThrow(() -> writer.write(List.of(click("ggle"), click("bing", 2L), click("ggle"))));
+
+        assertEquals(2.0, meterRegistry.counter("clicks.ingest.written").count());
+        assertEquals(1.0, meterRegistry.counter("clicks.ingest.failed").count());
+        verify(clickCounters, times(2)).add("ggle", 1L, 1);
+        verify(clickCounters, never()).add(eq("bing"), anyLong(), anyLong());
+    }
+
+    private static RawClick click(String shortCode) {
+        return click(shortCode, 1L);
+    }
+
+    private static RawClick click(String shortCode, Long shortUrlId) {
+        return new RawClick(shortCode, shortUrlId, "127.0.0.1", "Mozilla/5.0", null, new Date());
+    }
+}
@@ -0,0 +1,126 @@
+package com.shivam.urlshortenerservice.ingestion;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static com.shivam.urlshortenerservice.ingestion.ClickStreamConsumer.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ClickStreamConsumerTest {
+
+    private StreamOperations<String, String, String> streamOps;
+    private ClickEventWriter clickEventWriter;
+    private SimpleMeterRegistry meterRegistry;
+    private ClickStreamConsumer clickStreamConsumer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        streamOps = mock(StreamOperations.class);
+        when(redisTemplate.<String, String>opsForStream()).thenReturn(streamOps);
+        clickEventWriter = mock(ClickEventWriter.class);
+        meterRegistry = new SimpleMeterRegistry();
+        clickStreamConsumer = new ClickStreamConsumer(redisTemplate, clickEventWriter, meterRegistry,
+                10, 500, 3, 60_000, 60_000, 1000, false);
+    }
+
+    @Test
+    @DisplayName("Should dead-letter an entry that cannot be decoded and write the rest")
+    void test_Drain_MalformedEntry_DeadLettered() {
+        MapRecord<String, String, String> malformed = entry("1-0", Map.of("code", "ggle"));
+        read(List.of(malformed, entry("2-0", click("ggle"))));
+
+        clickStreamConsumer.drain();
+
+        verify(clickEventWriter).write(argThat(clicks -> clicks.size() == 1));
+        verify(streamOps).add(eq(DEAD_LETTER_KEY), argThat(fields -> "1-0".equals(fields.get("id"))), any(XAddOptions.class));
+        verify(streamOps).acknowledge(STREAM_KEY, CONSUMER_GROUP, RecordId.of("1-0"));
+        verify(streamOps).acknowledge(STREAM_KEY, CONSUMER_GROUP, RecordId.of("2-0"));
+        assertEquals(1.0, meterRegistry.counter("clicks.stream.dead-lettered").count());
+    }
+
+    @Test
+    @DisplayName("Should write a failed batch entry by entry and leave only the failing entry pending")
+    void test_Drain_BatchFails_EntryByEntry() {
+        read(List.of(entry("1-0", click("ggle")), entry("2-0", click("bad")), entry("3-0", click("bing"))));
+        doThrow(new QueryTimeoutException("timeout")).when(clickEventWriter)
+                .write(argThat(clicks -> clicks.size() > 1 || clicks.get(0).shortCode().equals("bad")));
+
+        clickStreamConsumer.drain();
+
+        verify(streamOps).acknowledge(STREAM_KEY, CONSUMER_GROUP, RecordId.of("1-0"));
+        verify(streamOps).acknowledge(STREAM_KEY, CONSUMER_GROUP, RecordId.of("3-0"));
+        verify(streamOps, never()).acknowledge(STREAM_KEY, CONSUMER_GROUP, RecordId.of("2-0"));
+        verify(streamOps, never()).add(anyString(), anyMap(), any(XAddOptions.class));
+    }
+
+    @Test
+    @DisplayName("Should dead-letter a replayed entry once it was delivered more than max-deliveries times")
+    void test_Drain_TooManyDeliveries_DeadLettered() {
+        read(List.of(entry("1-0", click("bad")), entry("2-0", click("ggle"))));
+        when(streamOps.pending(eq(STREAM_KEY), any(Consumer.class), any(Range.class), anyLong()))
+                .thenReturn(new PendingMessages(CONSUMER_GROUP, List.of(
+                        pending("1-0", "this", Duration.ZERO, 4), pending("2-0", "this", Duration.ZERO, 1))));
+
+        clickStreamConsumer.drain();
+
+        verify(clickEventWriter).write(argThat(clicks -> clicks.size() == 1 && clicks.get(0).shortCode().equals("ggle")));
+        verify(streamOps).add(eq(DEAD_LETTER_KEY), argThat(fields -> "1-0".equals(fields.get("id"))), any(XAddOptions.class));
+    }
+
+    @Test
+    @DisplayName("Should claim entries other consumers left pending past the idle time")
+    void test_Drain_ClaimsAbandonedEntries() {
+        read(List.of());
+        when(streamOps.pending(eq(STREAM_KEY), eq(CONSUMER_GROUP), any(Range.class), anyLong()))
+                .thenReturn(new PendingMessages(CONSUMER_GROUP, List.of(
+                        pending("1-0", "gone-pod", Duration.ofMinutes(5), 1),
+                        pending("2-0", "busy-pod", Duration.ofSeconds(1), 1))));
+        when(streamOps.claim(eq(STREAM_KEY), eq(CONSUMER_GROUP), anyString(), any(Duration.class), any(RecordId[].class)))
+                .thenReturn(List.of(entry("1-0", click("ggle"))));
+
+        clickStreamConsumer.drain();
+
+        verify(streamOps).claim(eq(STREAM_KEY), eq(CONSUMER_GROUP), anyString(), eq(Duration.ofMinutes(1)), eq(RecordId.of("1-0")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void read(List<MapRecord<String, String, String>> records) {
+        when(streamOps.read(any(Consumer.class), any(StreamReadOptions.class), any(StreamOffset[].class)))
+                .thenReturn(records, List.of());
+    }
+
+    private static MapRecord<String, String, String> entry(String id, Map<String, String> fields) {
+        return MapRecord.create(STREAM_KEY, fields).withId(RecordId.of(id));
+    }
+
+    private static Map<String, String> click(String shortCode) {
+        return Map.of("code", shortCode, "ip", "127.0.0.1", "ua", "Mozilla/5.0", "ref", "",
+                "ts", String.valueOf(System.currentTimeMillis()));
+    }
+
+    private static PendingMessage pending(String id, String consumerName, Duration idle, long deliveries) {
+        return new PendingMessage(RecordId.of(id), Consumer.from(CONSUMER_GROUP, consumerName), idle, deliveries);
+    }
+}
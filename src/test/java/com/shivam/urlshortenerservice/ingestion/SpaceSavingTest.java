@@ -0,0 +1,71 @@
+package com.shivam.urlshortenerservice.ingestion;
+
+import com.shivam.urlshortenerservice.ingestion.SpaceSaving.Entry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpaceSavingTest {
+
+    @Test
+    @DisplayName("Should count exactly while there are fewer items than the capacity")
+    void test_Offer_BelowCapacity_IsExact() {
+        SpaceSaving sketch = new SpaceSaving(10);
+        sketch.offer("a", 3);
+        sketch.offer("b", 5);
+        sketch.offer("a", 4);
+
+        assertEquals(List.of(new Entry("a", 7, 0), new Entry("b", 5, 0)), sketch.top(10));
+    }
+
+    @Test
+    @DisplayName("Should replace the smallest item and carry its count as error")
+    void test_Offer_Full_ReplacesSmallest() {
+        SpaceSaving sketch = new SpaceSaving(2);
+        sketch.offer("a", 10);
+        sketch.offer("b", 2);
+        sketch.offer("c", 1);
+
+        assertEquals(List.of(new Entry("a", 10, 0), new Entry("c", 3, 2)), sketch.top(2));
+    }
+
+    @Test
+    @DisplayName("Should keep the heavy hitters of a skewed stream with counts bounding the true counts")
+    void test_Offer_SkewedStream_KeepsHeavyHitters() {
+        SpaceSaving sketch = new SpaceSaving(50);
+        Map<String, Long> truth = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            // Five heavy links take half the clicks, the rest spread over 10000 links
+            String item = random.nextBoolean() ? "hot" + random.nextInt(5) : "cold" + random.nextInt(10000);
+            sketch.offer(item, 1);
+            truth.merge(item, 1L, Long::sum);
+        }
+
+        List<Entry> top = sketch.top(5);
+        for (Entry entry : top) {
+            assertTrue(entry.item().startsWith("hot"));
+            long actual = truth.get(entry.item());
+            assertTrue(entry.count() >= actual);
+            assertTrue(entry.count() - entry.error() <= actual);
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand back every entry and start empty after a drain")
+    void test_Drain_EmptiesSketch() {
+        SpaceSaving sketch = new SpaceSaving(10);
+        sketch.offer("a", 1);
+        sketch.offer("b", 2);
+
+        assertEquals(2, sketch.drain().size());
+        assertEquals(0, sketch.size());
+        assertTrue(sketch.top(10).isEmpty());
+    }
+}
@@ -0,0 +1,112 @@
+package com.shivam.urlshortenerservice.replication;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ReplicaRouterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TestLagMonitor lagMonitor;
+    private ReplicaRoutingDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        lagMonitor = new TestLagMonitor(replica, meterRegistry);
+        dataSource = new ReplicaRoutingDataSource(primary, List.of(replica), lagMonitor);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        lagMonitor.close();
+    }
+
+    @Test
+    @DisplayName("Should serve an enabled route from a replica within the lag limit")
+    void test_Read_EnabledRoute_UsesReplica() {
+        assertEquals("replica", router(ReadRoute.REDIRECT).read(ReadRoute.REDIRECT, this::server));
+    }
+
+    @Test
+    @DisplayName("Should keep routes that are not enabled on the primary")
+    void test_Read_DisabledRoute_UsesPrimary() {
+        assertEquals("primary", router(ReadRoute.REDIRECT).read(ReadRoute.ANALYTICS, this::server));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary while every replica lags too far")
+    void test_Read_LaggingReplica_UsesPrimary() {
+        lagMonitor.healthy = false;
+
+        assertEquals("primary", router(ReadRoute.REDIRECT).read(ReadRoute.REDIRECT, this::server));
+    }
+
+    @Test
+    @DisplayName("Should read again from the primary when the replica result is not accepted")
+    void test_Read_RejectedResult_RetriesOnPrimary() {
+        assertEquals("primary", router(ReadRoute.REDIRECT).read(ReadRoute.REDIRECT, this::server, server -> server.equals("primary")));
+        assertEquals(1, meterRegistry.counter("db.reads", "route", "REDIRECT", "target", "primary-retry").count());
+    }
+
+    @Test
+    @DisplayName("Should stay on the primary inside a transaction")
+    void test_Read_InsideTransaction_UsesPrimary() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        String server = transactionTemplate.execute(status -> router(ReadRoute.REDIRECT).read(ReadRoute.REDIRECT, this::server));
+
+        assertEquals("primary", server);
+    }
+
+    private ReplicaRouter router(ReadRoute... routes) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("dataSource", dataSource);
+        return new ReplicaRouter(beanFactory.getBeanProvider(ReplicaRoutingDataSource.class), List.of(routes), meterRegistry);
+    }
+
+    private String server() {
+        return jdbcTemplate.queryForObject("SELECT name FROM server", String.class);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource database = new JdbcDataSource();
+        database.setURL("jdbc:h2:mem:" + name + "_" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE server (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO server (name) VALUES (?)", name);
+        return database;
+    }
+
+    // H2 has no SHOW REPLICA STATUS, so the lag is set by the test
+    private static class TestLagMonitor extends ReplicaLagMonitor {
+
+        private volatile boolean healthy = true;
+
+        TestLagMonitor(DataSource replica, SimpleMeterRegistry meterRegistry) {
+            super(List.of(replica), 1000, 60000, false, meterRegistry);
+        }
+
+        @Override
+        public boolean isHealthy(int replica) {
+            return healthy;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.shivam.urlshortenerservice.repositories;
+
+import com.shivam.urlshortenerservice.models.ClickEvent;
+import com.shivam.urlshortenerservice.utils.ClickEventCursor;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClickEventJdbcRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 5, 1, 10, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private ClickEventJdbcRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource database = new JdbcDataSource();
+        database.setURL("jdbc:h2:mem:click_events_" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE click_events (id BIGINT AUTO_INCREMENT PRIMARY KEY, ip_address VARCHAR(255), browser VARCHAR(255), " +
+                "operating_system VARCHAR(255), device_type VARCHAR(255), referrer VARCHAR(255), clicked_at TIMESTAMP, short_url_id BIGINT)");
+        repository = new ClickEventJdbcRepository(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should walk every event once across pages, including events sharing a timestamp")
+    void test_FindPage_CursorWalksAllEvents() {
+        // Pairs of events share a second, so pages break between events with equal clicked_at
+        for (int i = 0; i < 11; i++) {
+            click(1, START.plusSeconds(i / 2), "Chrome");
+        }
+        click(2, START, "Chrome");
+
+        for (boolean ascending : new boolean[]{true, false}) {
+            List<Long> seen = new ArrayList<>();
+            ClickEventCursor cursor = null;
+            while (true) {
+                List<ClickEvent> page = repository.findPage(1, null, null, null, null, null, cursor, ascending, 3);
+                page.forEach(event -> seen.add(event.getId()));
+                if (page.size() < 3) break;
+                ClickEvent last = page.get(page.size() - 1);
+                cursor = new ClickEventCursor(last.getClickedAt(), last.getId(), ascending);
+            }
+
+            assertEquals(11, seen.size());
+            assertEquals(11, seen.stream().distinct().count());
+            assertEquals(ascending ? 1L : 11L, seen.get(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply date and case-insensitive substring filters")
+    void test_FindPage_Filters() {
+        click(1, START, "Chrome");
+        click(1, START.plusDays(1), "Firefox");
+        click(1, START.plusDays(2), "chromium");
+
+        List<ClickEvent> page = repository.findPage(1, Timestamp.valueOf(START.plusHours(1)), null, "CHROM", null, null, null, false, 10);
+
+        assertEquals(1, page.size());
+        assertEquals("chromium", page.get(0).getBrowser());
+    }
+
+    @Test
+    @DisplayName("Should round-trip a cursor and reject one issued for the other direction")
+    void test_ClickEventCursor_EncodeDecode() {
+        ClickEventCursor cursor = new ClickEventCursor(Timestamp.valueOf(START), 42, false);
+
+        ClickEventCursor decoded = ClickEventCursor.decode(cursor.encode(), false);
+        assertEquals(cursor.clickedAt().getTime(), decoded.clickedAt().getTime());
+        assertEquals(42, decoded.id());
+        assertThrows(RuntimeException.class, () -> ClickEventCursor.decode(cursor.encode(), true));
+        assertThrows(RuntimeException.class, () -> ClickEventCursor.decode("not-a-cursor", false));
+    }
+
+    private void click(long shortUrlId, LocalDateTime clickedAt, String browser) {
+        jdbcTemplate.update("INSERT INTO click_events (ip_address, browser, operating_system, device_type, referrer, clicked_at, short_url_id) " +
+                "VALUES ('10.0.0.1', ?, 'Linux', 'Desktop', 'Direct', ?, ?)", browser, Timestamp.valueOf(clickedAt), shortUrlId);
+    }
+}
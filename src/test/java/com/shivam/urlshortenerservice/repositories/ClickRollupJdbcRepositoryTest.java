@@ -0,0 +1,110 @@
+package com.shivam.urlshortenerservice.repositories;
+
+import com.shivam.urlshortenerservice.repositories.ClickRollupJdbcRepository.DailyClicks;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClickRollupJdbcRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 5, 1);
+
+    private JdbcTemplate jdbcTemplate;
+    private ClickRollupJdbcRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource database = new JdbcDataSource();
+        database.setURL("jdbc:h2:mem:rollup_" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE click_events (id BIGINT AUTO_INCREMENT PRIMARY KEY, created_at TIMESTAMP, clicked_at TIMESTAMP, short_url_id BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE click_daily_rollup (short_url_id BIGINT NOT NULL, click_date DATE NOT NULL, click_count BIGINT NOT NULL, PRIMARY KEY (short_url_id, click_date))");
+        jdbcTemplate.execute("CREATE TABLE click_rollup_watermarks (name VARCHAR(64) PRIMARY KEY, last_event_id BIGINT NOT NULL, updated_at TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO click_rollup_watermarks (name, last_event_id) VALUES ('click_daily_rollup', 0)");
+        repository = new ClickRollupJdbcRepository(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should fold settled events into one row per link and day")
+    void test_RollUp_AggregatesPerLinkAndDay() {
+        click(1, DAY, 3);
+        click(1, DAY.plusDays(1), 2);
+        click(2, DAY, 1);
+
+        assertEquals(6, repository.rollUp(100, new Date()));
+        assertEquals(0, repository.rollUp(100, new Date()));
+
+        assertEquals(3L, rollupCount(1, DAY));
+        assertEquals(2L, rollupCount(1, DAY.plusDays(1)));
+        assertEquals(1L, rollupCount(2, DAY));
+    }
+
+    @Test
+    @DisplayName("Should add to existing rows and stop at the chunk size")
+    void test_RollUp_InChunks() {
+        click(1, DAY, 5);
+
+        assertEquals(2, repository.rollUp(2, new Date()));
+        assertEquals(2L, rollupCount(1, DAY));
+        while (repository.rollUp(2, new Date()) > 0) {
+        }
+        assertEquals(5L, rollupCount(1, DAY));
+    }
+
+    @Test
+    @DisplayName("Should stop before the first event that has not settled")
+    void test_RollUp_LeavesUnsettledEvents() {
+        click(1, DAY, 2);
+        Date settledBefore = new Date();
+        jdbcTemplate.update("INSERT INTO click_events (created_at, clicked_at, short_url_id) VALUES (?, ?, ?)",
+                new Timestamp(settledBefore.getTime() + 60000), Timestamp.valueOf(DAY.atTime(12, 0)), 1);
+        click(1, DAY, 1);
+
+        assertEquals(2, repository.rollUp(100, settledBefore));
+        assertEquals(2L, rollupCount(1, DAY));
+    }
+
+    @Test
+    @DisplayName("Should stitch events past the watermark onto the rolled up days within the range")
+    void test_FindDailyClicks_AddsLiveDelta() {
+        click(1, DAY, 2);
+        repository.rollUp(100, new Date());
+        click(1, DAY, 1);
+        click(1, DAY.plusDays(1), 4);
+        click(1, DAY.plusDays(5), 1);
+        click(2, DAY, 7);
+
+        List<DailyClicks> all = repository.findDailyClicks(1, null, null);
+        assertEquals(List.of(new DailyClicks(DAY, 3), new DailyClicks(DAY.plusDays(1), 4), new DailyClicks(DAY.plusDays(5), 1)), all);
+
+        List<DailyClicks> range = repository.findDailyClicks(1, DAY, DAY.plusDays(1));
+        assertEquals(List.of(new DailyClicks(DAY, 3), new DailyClicks(DAY.plusDays(1), 4)), range);
+
+        repository.rollUp(100, new Date());
+        assertEquals(all, repository.findDailyClicks(1, null, null));
+    }
+
+    private void click(long shortUrlId, LocalDate day, int count) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now().minusMinutes(5));
+        for (int i = 0; i < count; i++) {
+            jdbcTemplate.update("INSERT INTO click_events (created_at, clicked_at, short_url_id) VALUES (?, ?, ?)",
+                    createdAt, Timestamp.valueOf(day.atTime(10, i)), shortUrlId);
+        }
+    }
+
+    private Long rollupCount(long shortUrlId, LocalDate day) {
+        return jdbcTemplate.queryForObject("SELECT click_count FROM click_daily_rollup WHERE short_url_id = ? AND click_date = ?",
+                Long.class, shortUrlId, day);
+    }
+}
@@ -0,0 +1,160 @@
+package com.shivam.urlshortenerservice.repositories;
+
+import com.shivam.urlshortenerservice.models.State;
+import com.shivam.urlshortenerservice.repositories.ShortUrlJdbcRepository.IdAndCode;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+public class ShortUrlJdbcRepositoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ShortUrlJdbcRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource database = new JdbcDataSource();
+        database.setURL("jdbc:h2:mem:short_urls_" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE short_urls (id BIGINT AUTO_INCREMENT PRIMARY KEY, created_at TIMESTAMP, last_modified_at TIMESTAMP, " +
+                "state INT, original_url VARCHAR(255), short_code VARCHAR(255) UNIQUE, expires_at TIMESTAMP, user_id BIGINT, url_hash VARBINARY(32))");
+        jdbcTemplate.execute("CREATE TABLE click_events (id BIGINT AUTO_INCREMENT PRIMARY KEY, created_at TIMESTAMP, last_modified_at TIMESTAMP, " +
+                "state INT, ip_address VARCHAR(255), browser VARCHAR(255), operating_system VARCHAR(255), device_type VARCHAR(255), " +
+                "referrer VARCHAR(255), clicked_at TIMESTAMP, short_url_id BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE click_counters (short_url_id BIGINT PRIMARY KEY, clicks BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE click_daily_rollup (short_url_id BIGINT, click_date DATE, clicks BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE short_urls_archive (id BIGINT PRIMARY KEY, created_at TIMESTAMP, last_modified_at TIMESTAMP, " +
+                "state INT, original_url VARCHAR(255), short_code VARCHAR(255), expires_at TIMESTAMP, user_id BIGINT, url_hash VARBINARY(32), " +
+                "archived_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE click_events_archive (id BIGINT PRIMARY KEY, created_at TIMESTAMP, last_modified_at TIMESTAMP, " +
+                "state INT, ip_address VARCHAR(255), browser VARCHAR(255), operating_system VARCHAR(255), device_type VARCHAR(255), " +
+                "referrer VARCHAR(255), clicked_at TIMESTAMP, short_url_id BIGINT, archived_at TIMESTAMP)");
+        repository = new ShortUrlJdbcRepository(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should purge a link's click events in batches and leave other links' events alone")
+    void test_Purge_DeletesClickEventsInBatches() {
+        long purged = link("ggle");
+        long kept = link("bing");
+        clicks(purged, 10);
+        clicks(kept, 2);
+        jdbcTemplate.update("INSERT INTO click_counters (short_url_id, clicks) VALUES (?, 10)", purged);
+
+        assertEquals(1, repository.purge(List.of(purged), 3));
+
+        assertEquals(0, count("SELECT COUNT(*) FROM click_events WHERE short_url_id = ?", purged));
+        assertEquals(2, count("SELECT COUNT(*) FROM click_events WHERE short_url_id = ?", kept));
+        assertEquals(0, count("SELECT COUNT(*) FROM click_counters WHERE short_url_id = ?", purged));
+        assertEquals(1, count("SELECT COUNT(*) FROM short_urls"));
+    }
+
+    @Test
+    @DisplayName("Should flip only active links past their expiry to EXPIRED, oldest first")
+    void test_MarkExpired_FlipsExpiredActiveLinks() {
+        long now = System.currentTimeMillis();
+        long older = link("old", State.ACTIVE, now - 120_000);
+        long newer = link("new", State.ACTIVE, now - 60_000);
+        link("live", State.ACTIVE, now + 60_000);
+        link("gone", State.DELETED, now - 60_000);
+
+        List<IdAndCode> expired = repository.findExpiredActive(new Date(now), 10);
+
+        assertEquals(List.of(older, newer), expired.stream().map(IdAndCode::id).toList());
+        assertEquals(2, repository.markExpired(List.of(older, newer)));
+        assertEquals(0, repository.markExpired(List.of(older, newer)));
+        assertEquals(State.EXPIRED.ordinal(), count("SELECT state FROM short_urls WHERE id = ?", older));
+        assertEquals(1, count("SELECT COUNT(*) FROM short_urls WHERE state = ?", State.ACTIVE.ordinal()));
+        assertTrue(repository.findExpiredActive(new Date(now), 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should move archived links and their click events into the archive tables, even when replayed")
+    void test_Archive_MovesRowsAndClickEvents() {
+        long now = System.currentTimeMillis();
+        long archived = link("old", State.EXPIRED, now - 60_000);
+        long kept = link("live", State.ACTIVE, now + 60_000);
+        clicks(archived, 3);
+        clicks(kept, 1);
+        jdbcTemplate.update("INSERT INTO click_counters (short_url_id, clicks) VALUES (?, 3)", archived);
+        jdbcTemplate.update("UPDATE short_urls SET last_modified_at = ? WHERE id = ?", new Timestamp(now - 120_000), archived);
+
+        List<IdAndCode> archivable = repository.findArchivable(new Date(now - 60_000), 10);
+        assertEquals(List.of(new IdAndCode(archived, "old")), archivable);
+
+        // A chunk copied before a failure is copied again without clashing
+        jdbcTemplate.update("INSERT INTO short_urls_archive (id, short_code) VALUES (?, 'old')", archived);
+        assertEquals(1, repository.archive(List.of(archived), 2));
+
+        assertEquals(0, count("SELECT COUNT(*) FROM short_urls WHERE id = ?", archived));
+        assertEquals(0, count("SELECT COUNT(*) FROM click_events WHERE short_url_id = ?", archived));
+        assertEquals(1, count("SELECT COUNT(*) FROM short_urls_archive"));
+        assertEquals(3, count("SELECT COUNT(*) FROM click_events_archive WHERE short_url_id = ?", archived));
+        assertEquals(1, count("SELECT COUNT(*) FROM short_urls WHERE id = ?", kept));
+        assertEquals(1, count("SELECT COUNT(*) FROM click_events WHERE short_url_id = ?", kept));
+        assertEquals(0, count("SELECT COUNT(*) FROM click_counters"));
+    }
+
+    @Test
+    @DisplayName("Should keep a link that still has click events after archiving, and its counters, for the next run")
+    void test_Archive_ClickAfterLastBatch_KeepsLink() {
+        long archived = link("old", State.EXPIRED, System.currentTimeMillis() - 60_000);
+        clicks(archived, 2);
+        jdbcTemplate.update("INSERT INTO click_counters (short_url_id, clicks) VALUES (?, 3)", archived);
+        // A click written right after the last batch's delete, before the row itself is removed
+        JdbcTemplate racingTemplate = spy(jdbcTemplate);
+        doAnswer(invocation -> {
+            Object deleted = invocation.callRealMethod();
+            jdbcTemplate.update("INSERT INTO click_events (browser, clicked_at, short_url_id) VALUES ('Chrome', ?, ?)",
+                    new Timestamp(System.currentTimeMillis()), archived);
+            return deleted;
+        }).doCallRealMethod().when(racingTemplate).update(startsWith("DELETE FROM click_events WHERE id IN"), any(Object[].class));
+        repository = new ShortUrlJdbcRepository(racingTemplate);
+
+        assertEquals(0, repository.archive(List.of(archived), 10));
+
+        assertEquals(1, count("SELECT COUNT(*) FROM short_urls WHERE id = ?", archived));
+        assertEquals(0, count("SELECT COUNT(*) FROM short_urls_archive"));
+        assertEquals(2, count("SELECT COUNT(*) FROM click_events_archive"));
+        assertEquals(1, count("SELECT COUNT(*) FROM click_counters"));
+
+        assertEquals(1, repository.archive(List.of(archived), 10));
+        assertEquals(3, count("SELECT COUNT(*) FROM click_events_archive"));
+        assertEquals(0, count("SELECT COUNT(*) FROM click_counters"));
+    }
+
+    private long link(String shortCode) {
+        return link(shortCode, State.ACTIVE, System.currentTimeMillis() + 60_000);
+    }
+
+    private long link(String shortCode, State state, long expiresAt) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.update("INSERT INTO short_urls (created_at, last_modified_at, state, original_url, short_code, expires_at, user_id) " +
+                "VALUES (?, ?, ?, 'https://www.google.com', ?, ?, 1)", now, now, state.ordinal(), shortCode, new Timestamp(expiresAt));
+        return count("SELECT id FROM short_urls WHERE short_code = ?", shortCode);
+    }
+
+    private void clicks(long shortUrlId, int clicks) {
+        for (int i = 0; i < clicks; i++) {
+            jdbcTemplate.update("INSERT INTO click_events (browser, clicked_at, short_url_id) VALUES ('Chrome', ?, ?)",
+                    new Timestamp(System.currentTimeMillis()), shortUrlId);
+        }
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+}
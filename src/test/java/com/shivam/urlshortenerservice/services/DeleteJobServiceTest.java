@@ -0,0 +1,138 @@
+package com.shivam.urlshortenerservice.services;
+
+import com.shivam.urlshortenerservice.caches.LocalShortUrlCache;
+import com.shivam.urlshortenerservice.caches.ShortCodeFilter;
+import com.shivam.urlshortenerservice.caches.ShortUrlCacheWriter;
+import com.shivam.urlshortenerservice.exceptions.InvalidRequestException;
+import com.shivam.urlshortenerservice.ingestion.ClickCounters;
+import com.shivam.urlshortenerservice.ingestion.TopClickedSketch;
+import com.shivam.urlshortenerservice.ingestion.UniqueVisitors;
+import com.shivam.urlshortenerservice.models.DeleteJob;
+import com.shivam.urlshortenerservice.models.DeleteJobStatus;
+import com.shivam.urlshortenerservice.models.User;
+import com.shivam.urlshortenerservice.repositories.DeleteJobRepository;
+import com.shivam.urlshortenerservice.repositories.ShortUrlJdbcRepository;
+import com.shivam.urlshortenerservice.repositories.ShortUrlJdbcRepository.IdAndCode;
+import com.shivam.urlshortenerservice.repositories.UserRepository;
+import com.shivam.urlshortenerservice.sharding.ShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class DeleteJobServiceTest {
+
+    private DeleteJobRepository deleteJobRepository;
+    private ShortUrlJdbcRepository shortUrlJdbcRepository;
+    private ShortUrlCacheWriter cacheWriter;
+    private DeleteJobService deleteJobService;
+
+    @BeforeEach
+    void setUp() {
+        deleteJobRepository = mock(DeleteJobRepository.class);
+        when(deleteJobRepository.save(any(DeleteJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(deleteJobRepository.claim(anyLong(), any(), anyCollection(), any(), any())).thenReturn(1);
+        shortUrlJdbcRepository = mock(ShortUrlJdbcRepository.class);
+        cacheWriter = mock(ShortUrlCacheWriter.class);
+        when(cacheWriter.evictAll(anyCollection())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteJobService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should resume a code list job after the codes it already processed")
+    void test_ResumeDeleteJob_ByCodes_FromCodesProcessed() {
+        service(2, 1);
+        DeleteJob deleteJob = deleteJob(DeleteJobStatus.FAILED);
+        deleteJob.setShortCodes("ggle\nbing\nyhoo\nddgo\nbrve");
+        deleteJob.setCodesProcessed(2);
+        when(shortUrlJdbcRepository.findByShortCodes(anyList(), isNull(), eq(false)))
+                .thenAnswer(invocation -> invocation.<List<String>>getArgument(0).stream().map(code -> new IdAndCode(code.length(), code)).toList());
+        when(shortUrlJdbcRepository.markDeleted(anyCollection())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+        deleteJobService.resumeDeleteJob(1L);
+
+        awaitCompleted();
+        verify(shortUrlJdbcRepository).findByShortCodes(eq(List.of("yhoo", "ddgo")), isNull(), eq(false));
+        verify(shortUrlJdbcRepository).findByShortCodes(eq(List.of("brve")), isNull(), eq(false));
+        verify(shortUrlJdbcRepository, never()).findByShortCodes(argThat(codes -> codes.contains("ggle") || codes.contains("bing")), any(), anyBoolean());
+        assertEquals(5, deleteJob.getCodesProcessed());
+        assertEquals(3, deleteJob.getRowsDeleted());
+        assertEquals(3, deleteJob.getKeysEvicted());
+    }
+
+    @Test
+    @DisplayName("Should resume a filter job on its checkpoint shard after its checkpoint id")
+    void test_ResumeDeleteJob_ByFilter_FromCheckpoint() {
+        service(2, 2);
+        DeleteJob deleteJob = deleteJob(DeleteJobStatus.FAILED);
+        deleteJob.setCheckpointShard(1);
+        deleteJob.setCheckpointId(42);
+        when(shortUrlJdbcRepository.findMatching(eq(42L), isNull(), isNull(), isNull(), eq(false), eq(false), eq(2)))
+                .thenReturn(List.of(new IdAndCode(43, "ggle"), new IdAndCode(50, "bing")));
+        when(shortUrlJdbcRepository.findMatching(eq(50L), isNull(), isNull(), isNull(), eq(false), eq(false), eq(2)))
+                .thenReturn(List.of());
+        when(shortUrlJdbcRepository.markDeleted(anyCollection())).thenReturn(2);
+
+        deleteJobService.resumeDeleteJob(1L);
+
+        awaitCompleted();
+        verify(shortUrlJdbcRepository).markDeleted(List.of(43L, 50L));
+        verify(shortUrlJdbcRepository, never()).findMatching(eq(0L), any(), any(), any(), anyBoolean(), anyBoolean(), anyInt());
+        assertEquals(2, deleteJob.getCheckpointShard());
+        assertEquals(2, deleteJob.getRowsDeleted());
+    }
+
+    @Test
+    @DisplayName("Should leave a job alone when another worker holds its claim")
+    void test_ResumeDeleteJob_NotClaimed_Skipped() {
+        service(2, 1);
+        deleteJob(DeleteJobStatus.RUNNING);
+        when(deleteJobRepository.claim(anyLong(), any(), anyCollection(), any(), any())).thenReturn(0);
+
+        deleteJobService.resumeDeleteJob(1L);
+
+        verify(deleteJobRepository, timeout(5000)).claim(eq(1L), eq(DeleteJobStatus.RUNNING), anyCollection(), any(), any());
+        verifyNoInteractions(shortUrlJdbcRepository);
+    }
+
+    @Test
+    @DisplayName("Should refuse to resume a completed job")
+    void test_ResumeDeleteJob_Completed_Rejected() {
+        service(2, 1);
+        deleteJob(DeleteJobStatus.COMPLETED);
+
+        assertThrows(InvalidRequestException.class, () -> deleteJobService.resumeDeleteJob(1L));
+    }
+
+    private void service(int chunkSize, int shards) {
+        deleteJobService = new DeleteJobService(deleteJobRepository, mock(UserRepository.class), shortUrlJdbcRepository, cacheWriter,
+                mock(LocalShortUrlCache.class), mock(ShortCodeFilter.class), new ShardRouter(shards, 128, false),
+                mock(ClickCounters.class), mock(TopClickedSketch.class), mock(UniqueVisitors.class),
+                chunkSize, 100, 1, 300_000, false);
+    }
+
+    private DeleteJob deleteJob(DeleteJobStatus status) {
+        DeleteJob deleteJob = new DeleteJob();
+        deleteJob.setId(1L);
+        deleteJob.setStatus(status);
+        deleteJob.setCreatedBy(new User());
+        when(deleteJobRepository.findById(1L)).thenReturn(Optional.of(deleteJob));
+        return deleteJob;
+    }
+
+    private void awaitCompleted() {
+        verify(deleteJobRepository, timeout(5000).atLeastOnce()).save(argThat(job -> job.getFinishedAt() != null));
+        assertEquals(DeleteJobStatus.COMPLETED, deleteJobRepository.findById(1L).orElseThrow().getStatus());
+    }
+}
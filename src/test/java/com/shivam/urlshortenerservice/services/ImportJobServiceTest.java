@@ -0,0 +1,162 @@
+package com.shivam.urlshortenerservice.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shivam.urlshortenerservice.caches.ShortCodeFilter;
+import com.shivam.urlshortenerservice.caches.ShortUrlCacheWriter;
+import com.shivam.urlshortenerservice.exceptions.InvalidRequestException;
+import com.shivam.urlshortenerservice.generators.ShortCodeGenerator;
+import com.shivam.urlshortenerservice.models.ImportFormat;
+import com.shivam.urlshortenerservice.models.ImportJob;
+import com.shivam.urlshortenerservice.models.ImportJobStatus;
+import com.shivam.urlshortenerservice.models.ShortUrl;
+import com.shivam.urlshortenerservice.models.User;
+import com.shivam.urlshortenerservice.repositories.ImportJobRepository;
+import com.shivam.urlshortenerservice.repositories.ShortUrlJdbcRepository;
+import com.shivam.urlshortenerservice.repositories.ShortUrlRepository;
+import com.shivam.urlshortenerservice.repositories.UserRepository;
+import com.shivam.urlshortenerservice.sharding.ShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ImportJobServiceTest {
+
+    @TempDir
+    private Path directory;
+
+    private ImportJobRepository importJobRepository;
+    private ShortUrlJdbcRepository shortUrlJdbcRepository;
+    private ShortUrlCacheWriter cacheWriter;
+    private ImportJobService importJobService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        importJobRepository = mock(ImportJobRepository.class);
+        when(importJobRepository.save(any(ImportJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(importJobRepository.claim(anyLong(), any(), anyCollection(), anyCollection(), any(), any())).thenReturn(1);
+
+        shortUrlJdbcRepository = mock(ShortUrlJdbcRepository.class);
+        AtomicLong nextId = new AtomicLong(100);
+        doAnswer(invocation -> {
+            invocation.<List<ShortUrl>>getArgument(0).forEach(shortUrl -> shortUrl.setId(nextId.incrementAndGet()));
+            return null;
+        }).when(shortUrlJdbcRepository).batchInsert(anyList());
+        cacheWriter = mock(ShortUrlCacheWriter.class);
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+
+        AtomicInteger nextCode = new AtomicInteger();
+        ShortCodeGenerator shortCodeGenerator = () -> "gen" + nextCode.incrementAndGet();
+
+        importJobService = new ImportJobService(importJobRepository, mock(UserRepository.class), mock(ShortUrlRepository.class),
+                shortUrlJdbcRepository, shortCodeGenerator, mock(ShortCodeFilter.class), cacheWriter,
+                new ShardRouter(1, 128, false), transactionTemplate, new ObjectMapper(), directory.toString(),
+                10, 1, 1_000_000, 300_000, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importJobService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should resume an import after the records it already committed")
+    void test_ResumeImportJob_SkipsProcessedRows() throws Exception {
+        ImportJob importJob = importJob(ImportJobStatus.FAILED, "original_url,custom_alias,expires_at\n" +
+                "https://www.google.com/1,,\nhttps://www.google.com/2,,\nhttps://www.google.com/3,,\n" +
+                "https://www.google.com/4,,\nhttps://www.google.com/5,,\n");
+        importJob.setRowsProcessed(3);
+        importJob.setRowsImported(3);
+
+        importJobService.resumeImportJob(1L);
+
+        awaitCompleted();
+        ArgumentCaptor<List<ShortUrl>> inserted = ArgumentCaptor.captor();
+        verify(shortUrlJdbcRepository).batchInsert(inserted.capture());
+        assertEquals(List.of("https://www.google.com/4", "https://www.google.com/5"),
+                inserted.getValue().stream().map(ShortUrl::getOriginalUrl).toList());
+        assertEquals(5, importJob.getRowsProcessed());
+        assertEquals(5, importJob.getRowsImported());
+        assertEquals(101L, importJob.getFirstShortUrlId());
+        assertEquals(102L, importJob.getLastShortUrlId());
+        assertFalse(Files.exists(Path.of(importJob.getFilePath())));
+    }
+
+    @Test
+    @DisplayName("Should skip the import phase once it completed and warm the cache after its checkpoint")
+    void test_ResumeImportJob_WarmsFromCheckpoint() throws Exception {
+        ImportJob importJob = importJob(ImportJobStatus.FAILED, "https://www.google.com/1,,\n");
+        importJob.setImportCompletedAt(new Date());
+        importJob.setWarmCache(true);
+        importJob.setFirstShortUrlId(1L);
+        importJob.setLastShortUrlId(100L);
+        importJob.setWarmCheckpointId(50L);
+        importJob.setRowsWarmed(50);
+        List<ShortUrl> chunk = List.of(shortUrl(60L), shortUrl(100L));
+        when(shortUrlJdbcRepository.findActiveInIdRange(50L, 100L, 7L, 500)).thenReturn(chunk);
+        when(shortUrlJdbcRepository.findActiveInIdRange(100L, 100L, 7L, 500)).thenReturn(List.of());
+
+        importJobService.resumeImportJob(1L);
+
+        awaitCompleted();
+        verify(shortUrlJdbcRepository, never()).batchInsert(anyList());
+        verify(shortUrlJdbcRepository, never()).findActiveInIdRange(eq(0L), anyLong(), anyLong(), anyInt());
+        verify(cacheWriter).cacheAll(chunk);
+        assertEquals(100L, importJob.getWarmCheckpointId());
+        assertEquals(52, importJob.getRowsWarmed());
+    }
+
+    @Test
+    @DisplayName("Should refuse to resume a completed import")
+    void test_ResumeImportJob_Completed_Rejected() throws Exception {
+        importJob(ImportJobStatus.COMPLETED, "https://www.google.com/1,,\n");
+
+        assertThrows(InvalidRequestException.class, () -> importJobService.resumeImportJob(1L));
+    }
+
+    private ImportJob importJob(ImportJobStatus status, String file) throws Exception {
+        Path path = Files.writeString(directory.resolve("import.csv"), file);
+        User user = new User();
+        user.setId(7L);
+
+        ImportJob importJob = new ImportJob();
+        importJob.setId(1L);
+        importJob.setStatus(status);
+        importJob.setFormat(ImportFormat.CSV);
+        importJob.setFilePath(path.toString());
+        importJob.setCreatedBy(user);
+        when(importJobRepository.findById(1L)).thenReturn(Optional.of(importJob));
+        return importJob;
+    }
+
+    private static ShortUrl shortUrl(long id) {
+        ShortUrl shortUrl = new ShortUrl("https://www.google.com/" + id, "code" + id,
+                new Date(System.currentTimeMillis() + 60_000), null, null);
+        shortUrl.setId(id);
+        return shortUrl;
+    }
+
+    private void awaitCompleted() {
+        verify(importJobRepository, timeout(5000).atLeastOnce()).save(argThat(job -> job.getFinishedAt() != null));
+        assertEquals(ImportJobStatus.COMPLETED, importJobRepository.findById(1L).orElseThrow().getStatus());
+    }
+}
@@ -0,0 +1,131 @@
+package com.shivam.urlshortenerservice.sharding;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardRouterTest {
+
+    private static final int SHARDS = 3;
+
+    private List<DataSource> shards;
+    private ShardRouter shardRouter;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        shards = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            JdbcDataSource shard = new JdbcDataSource();
+            shard.setURL("jdbc:h2:mem:shard" + i + "_" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+            new JdbcTemplate(shard).execute("CREATE TABLE short_urls (id BIGINT AUTO_INCREMENT PRIMARY KEY, short_code VARCHAR(20), created BIGINT)");
+            shards.add(shard);
+        }
+        shardRouter = new ShardRouter(SHARDS, 128, false);
+        jdbcTemplate = new JdbcTemplate(new ShardRoutingDataSource(shards));
+    }
+
+    @AfterEach
+    void tearDown() {
+        shardRouter.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should store each short code only on the shard it hashes to")
+    void test_OnShardFor_RoutesToOwningShard() {
+        for (int i = 0; i < 300; i++) {
+            String shortCode = "code" + i;
+            shardRouter.runOnShardFor(shortCode, () -> jdbcTemplate.update("INSERT INTO short_urls (short_code, created) VALUES (?, ?)", shortCode, 0));
+        }
+
+        int total = 0;
+        for (int shard = 0; shard < SHARDS; shard++) {
+            List<String> stored = new JdbcTemplate(shards.get(shard)).queryForList("SELECT short_code FROM short_urls", String.class);
+            assertFalse(stored.isEmpty());
+            for (String shortCode : stored) {
+                assertEquals(shard, shardRouter.shardFor(shortCode));
+            }
+            total += stored.size();
+        }
+        assertEquals(300, total);
+    }
+
+    @Test
+    @DisplayName("Should move only the keys taken by a new shard when one is added")
+    void test_ConsistentHashRing_AddingShardMovesFewKeys() {
+        ConsistentHashRing before = new ConsistentHashRing(4, 128);
+        ConsistentHashRing after = new ConsistentHashRing(5, 128);
+
+        int moved = 0;
+        int keys = 20000;
+        for (int i = 0; i < keys; i++) {
+            String key = "key" + i;
+            int from = before.shardFor(key);
+            int to = after.shardFor(key);
+            if (from != to) {
+                assertEquals(4, to);
+                moved++;
+            }
+        }
+        // Ideally 1/5 of the keys
+        assertTrue(moved > keys * 0.12 && moved < keys * 0.28, "moved " + moved);
+    }
+
+    @Test
+    @DisplayName("Should merge the same page from every shard as a single database would return it")
+    void test_FindPage_MergesShards() {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String shortCode = "page" + i;
+            long value = (i * 37L) % 101;
+            created.add(value);
+            shardRouter.runOnShardFor(shortCode, () -> jdbcTemplate.update("INSERT INTO short_urls (short_code, created) VALUES (?, ?)", shortCode, value));
+        }
+        created.sort(Comparator.reverseOrder());
+
+        Page<Long> page = shardRouter.findPage(PageRequest.of(2, 7), pageable -> {
+            List<Long> content = jdbcTemplate.queryForList("SELECT created FROM short_urls ORDER BY created DESC LIMIT ? OFFSET ?",
+                    Long.class, pageable.getPageSize(), pageable.getOffset());
+            long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM short_urls", Long.class);
+            return new PageImpl<>(content, pageable, count);
+        }, Comparator.<Long>reverseOrder());
+
+        assertEquals(created.subList(14, 21), page.getContent());
+        assertEquals(50, page.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Should refuse to switch shards inside a transaction")
+    void test_OnShard_InsideTransaction_Throws() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(new ShardRoutingDataSource(shards)));
+
+        assertThrows(IllegalStateException.class, () -> shardRouter.runOnShard(0, () ->
+                transactionTemplate.executeWithoutResult(status -> shardRouter.runOnShard(1, () -> { }))));
+        assertDoesNotThrow(() -> shardRouter.runOnShard(1, () ->
+                transactionTemplate.executeWithoutResult(status -> shardRouter.runOnShard(1, () -> { }))));
+    }
+
+    @Test
+    @DisplayName("Should group items by the shard of their short code")
+    void test_GroupByShard() {
+        List<String> shortCodes = List.of("a1", "b2", "c3", "d4", "e5", "f6", "g7", "h8");
+
+        Map<Integer, List<String>> groups = shardRouter.groupByShard(shortCodes, shortCode -> shortCode);
+
+        assertEquals(shortCodes.size(), groups.values().stream().mapToInt(List::size).sum());
+        groups.forEach((shard, group) -> group.forEach(shortCode -> assertEquals(shard, shardRouter.shardFor(shortCode))));
+    }
+}
@@ -0,0 +1,28 @@
+package com.shivam.urlshortenerservice.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DateUtilsTest {
+
+    @Test
+    @DisplayName("Should keep accepting dates without zero padding, with trailing text or past the month's end")
+    void test_ParseLocalDate_Lenient() throws Exception {
+        assertEquals(LocalDate.of(2024, 1, 5), DateUtils.parseLocalDate("2024-1-5"));
+        assertEquals(LocalDate.of(2024, 1, 1), DateUtils.parseLocalDate("2024-01-01x"));
+        assertEquals(LocalDate.of(2024, 3, 1), DateUtils.parseLocalDate("2024-02-30"));
+        assertTrue(DateUtils.validDate("2024-1-5"));
+        assertFalse(DateUtils.validDate("05/01/2024"));
+    }
+
+    @Test
+    @DisplayName("Should parse an expiration date time and format it back")
+    void test_ParseDateTime_RoundTrip() throws Exception {
+        assertEquals("2024-01-05 10:30:00", DateUtils.formatDate(DateUtils.parseDateTime("2024-01-05 10:30:00")));
+        assertEquals("2024-01-05 10:30:00", DateUtils.formatDate(DateUtils.parseDateTime("2024-1-5 10:30:00")));
+    }
+}
@@ -0,0 +1,90 @@
+package com.shivam.urlshortenerservice.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShortUrlUtilTest {
+
+    @Test
+    @DisplayName("Should encode base62 at a fixed length, left padded with '0'")
+    void test_ToBase62_FixedLength() {
+        assertEquals("0000000", ShortUrlUtil.toBase62(0, 7));
+        assertEquals("0000001", ShortUrlUtil.toBase62(1, 7));
+        assertEquals("000000z", ShortUrlUtil.toBase62(61, 7));
+        assertEquals("0000010", ShortUrlUtil.toBase62(62, 7));
+        assertEquals("zzzzzzz", ShortUrlUtil.toBase62(ShortUrlUtil.base62Capacity(7) - 1, 7));
+    }
+
+    @Test
+    @DisplayName("Should give every value below the capacity its own code")
+    void test_ToBase62_Distinct() {
+        long capacity = ShortUrlUtil.base62Capacity(2);
+        assertEquals(3844, capacity);
+
+        Set<String> codes = new HashSet<>();
+        for (long value = 0; value < capacity; value++) {
+            String code = ShortUrlUtil.toBase62(value, 2);
+            assertEquals(2, code.length());
+            codes.add(code);
+        }
+        assertEquals(capacity, codes.size());
+    }
+
+    @Test
+    @DisplayName("Should lower-case the scheme and host but keep the path and query case")
+    void test_NormalizeUrl_Case() {
+        assertEquals("https://www.google.com/Search?q=Foo", ShortUrlUtil.normalizeUrl("HTTPS://WWW.Google.COM/Search?q=Foo"));
+        assertNotEquals(ShortUrlUtil.normalizeUrl("https://www.google.com/a"), ShortUrlUtil.normalizeUrl("https://www.google.com/A"));
+    }
+
+    @Test
+    @DisplayName("Should drop only the scheme's default port")
+    void test_NormalizeUrl_DefaultPort() {
+        assertEquals("http://www.google.com/", ShortUrlUtil.normalizeUrl("http://www.google.com:80"));
+        assertEquals("https://www.google.com/a", ShortUrlUtil.normalizeUrl("https://www.google.com:443/a"));
+        assertEquals("https://www.google.com:80/a", ShortUrlUtil.normalizeUrl("https://www.google.com:80/a"));
+        assertEquals("http://www.google.com:8080/", ShortUrlUtil.normalizeUrl("http://www.google.com:8080"));
+    }
+
+    @Test
+    @DisplayName("Should turn an empty path into '/' and keep a trailing slash on any other path")
+    void test_NormalizeUrl_TrailingSlash() {
+        assertEquals("https://www.google.com/", ShortUrlUtil.normalizeUrl("https://www.google.com"));
+        assertEquals("https://www.google.com/", ShortUrlUtil.normalizeUrl("https://www.google.com/"));
+        assertEquals("https://www.google.com/?q=1", ShortUrlUtil.normalizeUrl("https://www.google.com?q=1"));
+        assertEquals("https://www.google.com/a/", ShortUrlUtil.normalizeUrl("https://www.google.com/a/"));
+        assertNotEquals(ShortUrlUtil.normalizeUrl("https://www.google.com/a"), ShortUrlUtil.normalizeUrl("https://www.google.com/a/"));
+    }
+
+    @Test
+    @DisplayName("Should keep the query order and drop the fragment")
+    void test_NormalizeUrl_QueryOrderAndFragment() {
+        // Servers may read repeated or ordered parameters, so reordering could change the target
+        assertEquals("https://www.google.com/s?b=2&a=1", ShortUrlUtil.normalizeUrl("https://www.google.com/s?b=2&a=1#top"));
+        assertNotEquals(ShortUrlUtil.normalizeUrl("https://www.google.com/s?a=1&b=2"), ShortUrlUtil.normalizeUrl("https://www.google.com/s?b=2&a=1"));
+    }
+
+    @Test
+    @DisplayName("Should return anything that is not an absolute url trimmed but otherwise unchanged")
+    void test_NormalizeUrl_NotAbsolute() {
+        assertEquals("www.Google.com/a", ShortUrlUtil.normalizeUrl("  www.Google.com/a "));
+        assertEquals("https://bad url", ShortUrlUtil.normalizeUrl("https://bad url"));
+    }
+
+    @Test
+    @DisplayName("Should hash equivalent urls the same and different urls differently")
+    void test_UrlHash_Equivalent() {
+        byte[] hash = ShortUrlUtil.urlHash("https://www.google.com/a?q=1");
+
+        assertEquals(32, hash.length);
+        assertArrayEquals(hash, ShortUrlUtil.urlHash(" HTTPS://WWW.GOOGLE.COM:443/a?q=1#frag"));
+        assertFalse(Arrays.equals(hash, ShortUrlUtil.urlHash("https://www.google.com/a?q=2")));
+        assertFalse(Arrays.equals(hash, ShortUrlUtil.urlHash("https://www.google.com/a/?q=1")));
+    }
+}
@@ -0,0 +1,98 @@
+package com.shivam.urlshortenerservice.workloads;
+
+import com.shivam.urlshortenerservice.configs.HikariPoolFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class WorkloadRouterTest {
+
+    private final WorkloadRouter workloadRouter = new WorkloadRouter();
+
+    @Test
+    @DisplayName("Should take connections from the pool of the marked workload")
+    void test_Call_UsesWorkloadPool() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new WorkloadRoutingDataSource(pools()));
+
+        for (Workload workload : Workload.values()) {
+            assertEquals(workload.key(), workloadRouter.call(workload, () -> pool(jdbcTemplate)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should use the write pool for unmarked work")
+    void test_Unmarked_UsesWritePool() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new WorkloadRoutingDataSource(pools()));
+
+        assertEquals("write", pool(jdbcTemplate));
+    }
+
+    @Test
+    @DisplayName("Should keep work inside a transaction on the transaction's pool")
+    void test_Call_InsideTransaction_StaysOnPool() {
+        WorkloadRoutingDataSource dataSource = new WorkloadRoutingDataSource(pools());
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        String pool = transactionTemplate.execute(status -> workloadRouter.call(Workload.ANALYTICS, () -> pool(jdbcTemplate)));
+
+        assertEquals("write", pool);
+    }
+
+    @Test
+    @DisplayName("Should build a pool per workload with metrics labelled by workload")
+    void test_HikariPoolFactory_WorkloadPools() {
+        MockEnvironment environment = new MockEnvironment();
+        for (Workload workload : Workload.values()) {
+            environment.setProperty("shortener.pools." + workload.key() + ".statement-timeout-ms", "0");
+        }
+        environment.setProperty("shortener.pools.analytics.size", "2");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        HikariPoolFactory poolFactory = new HikariPoolFactory("sa", "", "org.h2.Driver", true, environment, meterRegistry);
+
+        WorkloadRoutingDataSource dataSource = poolFactory.createWorkloadPools("primary",
+                "jdbc:h2:mem:pools_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            workloadRouter.call(Workload.ANALYTICS, () -> jdbcTemplate.queryForObject("SELECT 1", Integer.class));
+
+            for (Workload workload : Workload.values()) {
+                assertNotNull(meterRegistry.find("db.pool.saturation").tag("workload", workload.key()).gauge());
+            }
+            assertEquals(2, meterRegistry.get("hikaricp.connections.max").tag("pool", "primary-analytics").gauge().value());
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    private static String pool(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("SELECT name FROM pool", String.class);
+    }
+
+    // One database per workload, each knowing its own name, so a query shows which pool served it
+    private static Map<Workload, DataSource> pools() {
+        Map<Workload, DataSource> pools = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            JdbcDataSource database = new JdbcDataSource();
+            database.setURL("jdbc:h2:mem:" + workload.key() + "_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+            jdbcTemplate.execute("CREATE TABLE pool (name VARCHAR(20))");
+            jdbcTemplate.update("INSERT INTO pool (name) VALUES (?)", workload.key());
+            pools.put(workload, database);
+        }
+        return pools;
+    }
+}